@@ -1,11 +1,14 @@
 package com.proveritus.apigateway;
 
+import com.proveritus.apigateway.ratelimit.RateLimitProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class ApiGatewayApplication {
 
     public static void main(String[] args) {
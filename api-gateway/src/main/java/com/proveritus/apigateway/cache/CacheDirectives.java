@@ -0,0 +1,54 @@
+package com.proveritus.apigateway.cache;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code Cache-Control} directives the gateway cache acts on.
+ *
+ * @param maxAgeSeconds {@code s-maxage} if present, else {@code max-age}, else {@code -1}
+ */
+record CacheDirectives(boolean noStore, boolean privateResponse, boolean noCache, long maxAgeSeconds) {
+
+    static CacheDirectives parse(List<String> headerValues) {
+        boolean noStore = false;
+        boolean privateResponse = false;
+        boolean noCache = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String headerValue : headerValues) {
+            for (String directive : headerValue.split(",")) {
+                String[] nameAndValue = directive.trim().split("=", 2);
+                String name = nameAndValue[0].toLowerCase(Locale.ROOT);
+                switch (name) {
+                    case "no-store" -> noStore = true;
+                    case "private" -> privateResponse = true;
+                    case "no-cache" -> noCache = true;
+                    case "max-age" -> maxAge = seconds(nameAndValue);
+                    case "s-maxage" -> sharedMaxAge = seconds(nameAndValue);
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new CacheDirectives(noStore, privateResponse, noCache, sharedMaxAge >= 0 ? sharedMaxAge : maxAge);
+    }
+
+    /**
+     * How long a shared cache may serve the response without asking the service again.
+     */
+    long freshSeconds() {
+        return noCache ? 0 : Math.max(0, maxAgeSeconds);
+    }
+
+    private static long seconds(String[] nameAndValue) {
+        if (nameAndValue.length < 2) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nameAndValue[1].trim().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.proveritus.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A stored {@code 200 OK} response. Entries past their freshness are kept if they have an ETag, so
+ * they can be revalidated with a conditional request instead of fetched again.
+ */
+record CachedResponse(HttpHeaders headers, byte[] body, String eTag, long storedAtNanos, long freshUntilNanos) {
+
+    // Rough allowance for the key and headers, so small bodies still count towards the size bound
+    private static final int OVERHEAD_BYTES = 512;
+
+    boolean isFresh(long nowNanos) {
+        return nowNanos - freshUntilNanos < 0;
+    }
+
+    long ageSeconds(long nowNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nowNanos - storedAtNanos);
+    }
+
+    int weight() {
+        return body.length + OVERHEAD_BYTES;
+    }
+
+    /**
+     * Returns this response as confirmed unchanged by the service at {@code nowNanos}.
+     */
+    CachedResponse revalidated(CacheDirectives directives, long nowNanos) {
+        return new CachedResponse(headers, body, eTag, nowNanos,
+                nowNanos + TimeUnit.SECONDS.toNanos(directives.freshSeconds()));
+    }
+}
@@ -0,0 +1,346 @@
+package com.proveritus.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proveritus.apigateway.security.GatewayIdentity;
+import com.proveritus.apigateway.security.JwtVerificationFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Caches {@code GET} responses of the configured routes in memory, bounded by total size. Entries are
+ * keyed by path, query, the caller's roles, {@code Accept} and {@code Origin}, so callers only see
+ * responses produced for their own role and in the representation they asked for. Only {@code 200} responses that the service allows shared caches to store are
+ * kept: not {@code no-store} or {@code private}, and either fresh for some time ({@code s-maxage} or
+ * {@code max-age}) or carrying an ETag. Stale entries with an ETag are revalidated with
+ * {@code If-None-Match}, so the service answers {@code 304} without loading the resource.
+ * <p>
+ * A {@code POST}, {@code PUT}, {@code PATCH} or {@code DELETE} passing through drops the entries under
+ * its resource prefix (the first two path segments, such as {@code /api/units}) when it starts and
+ * again when it completes. Prefixes listed in {@code linked-prefixes} are dropped together, since their
+ * responses embed each other. A response still in flight when its prefix is dropped is not stored.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = JwtVerificationFilter.ORDER + 100;
+
+    private static final Set<HttpMethod> WRITES = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Set<String> UNSTORED_HEADERS = caseInsensitive(HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING, "Keep-Alive", HttpHeaders.DATE, HttpHeaders.AGE, HttpHeaders.CONTENT_LENGTH);
+    private static final String ANONYMOUS = "anonymous";
+
+    private final boolean enabled;
+    private final Set<String> routes;
+    private final List<String> linkedPrefixes;
+    private final long maxEntrySize;
+    private final Cache<CacheKey, CachedResponse> cache;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry,
+                               @Value("${gateway.response-cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.response-cache.routes:property-service}") List<String> routes,
+                               @Value("${gateway.response-cache.linked-prefixes:/api/properties,/api/floors,/api/units}") List<String> linkedPrefixes,
+                               @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${gateway.response-cache.max-entry-size:256KB}") DataSize maxEntrySize,
+                               @Value("${gateway.response-cache.retention:PT5M}") Duration retention) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.routes = Set.copyOf(routes);
+        this.linkedPrefixes = List.copyOf(linkedPrefixes);
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((CacheKey key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || !routes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        HttpMethod method = exchange.getRequest().getMethod();
+        String prefix = resourcePrefix(exchange.getRequest().getPath().value());
+        if (HttpMethod.GET.equals(method)) {
+            return get(exchange, chain, route.getId(), prefix);
+        }
+        if (WRITES.contains(method)) {
+            invalidate(prefix);
+            return chain.filter(exchange).doFinally(signal -> invalidate(prefix));
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Void> get(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, String prefix) {
+        ServerHttpRequest request = exchange.getRequest();
+        RouteMeters meters = meters(routeId);
+        GatewayIdentity identity = GatewayIdentity.of(exchange);
+        if (identity == null && request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            // A token without user claims; its role is only known to the service
+            meters.bypasses.increment();
+            return chain.filter(exchange);
+        }
+
+        CacheDirectives requested = CacheDirectives.parse(request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL));
+        if (requested.noStore()) {
+            meters.bypasses.increment();
+            return chain.filter(exchange);
+        }
+
+        CacheKey key = new CacheKey(routeId, prefix, request.getPath().value(),
+                request.getURI().getRawQuery(), scope(identity), request.getHeaders().getFirst(HttpHeaders.ACCEPT),
+                request.getHeaders().getOrigin());
+        CachedResponse cached = requested.noCache() ? null : cache.getIfPresent(key);
+        long now = System.nanoTime();
+        if (cached != null && cached.isFresh(now)) {
+            meters.hits.increment();
+            return serve(exchange.getResponse(), request, cached, now);
+        }
+
+        long generation = generation(prefix).get();
+        ServerHttpRequest forwarded = request;
+        CachedResponse revalidating = cached != null && cached.eTag() != null ? cached : null;
+        if (revalidating != null) {
+            forwarded = request.mutate()
+                    .headers(headers -> {
+                        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                        headers.setIfNoneMatch(revalidating.eTag());
+                    })
+                    .build();
+        }
+        CachingResponse response = new CachingResponse(exchange.getResponse(), request, key, revalidating,
+                generation, meters);
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build());
+    }
+
+    private Mono<Void> serve(ServerHttpResponse response, ServerHttpRequest request, CachedResponse cached, long now) {
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        if (cached.eTag() != null && matches(request.getHeaders().getIfNoneMatch(), cached.eTag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void store(CacheKey key, CachedResponse response, long generation) {
+        AtomicLong current = generation(key.prefix());
+        if (current.get() != generation) {
+            return;
+        }
+        cache.put(key, response);
+        // The prefix may have been dropped between the check and the put
+        if (current.get() != generation) {
+            cache.asMap().remove(key, response);
+        }
+    }
+
+    private void invalidate(String prefix) {
+        Collection<String> group = linkedPrefixes.contains(prefix) ? linkedPrefixes : List.of(prefix);
+        group.forEach(linked -> generation(linked).incrementAndGet());
+        cache.asMap().keySet().removeIf(key -> group.contains(key.prefix()));
+    }
+
+    private AtomicLong generation(String prefix) {
+        return generations.computeIfAbsent(prefix, ignored -> new AtomicLong());
+    }
+
+    private RouteMeters meters(String routeId) {
+        return routeMeters.computeIfAbsent(routeId, id -> new RouteMeters(meterRegistry, id));
+    }
+
+    private boolean isStorable(HttpHeaders headers, CacheDirectives directives) {
+        return !directives.noStore()
+                && !directives.privateResponse()
+                && (directives.freshSeconds() > 0 || headers.getETag() != null)
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                && !headers.getVary().contains("*")
+                && headers.getContentLength() <= maxEntrySize;
+    }
+
+    static String resourcePrefix(String path) {
+        int second = path.indexOf('/', 1);
+        int third = second < 0 ? -1 : path.indexOf('/', second + 1);
+        return third < 0 ? path : path.substring(0, third);
+    }
+
+    private static String scope(GatewayIdentity identity) {
+        if (identity == null) {
+            return ANONYMOUS;
+        }
+        return identity.roles().stream().sorted().collect(Collectors.joining(","));
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String eTag) {
+        String opaque = weak(eTag);
+        return ifNoneMatch.stream().anyMatch(tag -> tag.equals("*") || weak(tag).equals(opaque));
+    }
+
+    private static String weak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (!UNSTORED_HEADERS.contains(name)) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return headers;
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(List.of(names));
+        return set;
+    }
+
+    private record CacheKey(String route, String prefix, String path, String query, String scope, String accept,
+                            String origin) {
+    }
+
+    private static final class RouteMeters {
+        private final Counter hits;
+        private final Counter revalidations;
+        private final Counter misses;
+        private final Counter bypasses;
+
+        RouteMeters(MeterRegistry meterRegistry, String route) {
+            this.hits = requests(meterRegistry, route, "hit");
+            this.revalidations = requests(meterRegistry, route, "revalidated");
+            this.misses = requests(meterRegistry, route, "miss");
+            this.bypasses = requests(meterRegistry, route, "bypass");
+            Gauge.builder("gateway.cache.hit.ratio", this, RouteMeters::hitRatio)
+                    .description("Share of cacheable GETs answered with a cached body, fresh or revalidated")
+                    .tag("route", route)
+                    .register(meterRegistry);
+        }
+
+        private double hitRatio() {
+            double answered = hits.count() + revalidations.count();
+            double total = answered + misses.count();
+            return total == 0 ? 0 : answered / total;
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String route, String result) {
+            return Counter.builder("gateway.cache.requests")
+                    .description("GET requests seen by the gateway response cache")
+                    .tag("route", route)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Copies the body of a storable response while it is written to the client, and answers a
+     * {@code 304} to a revalidation from the stored entry.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerHttpRequest request;
+        private final CacheKey key;
+        private final CachedResponse revalidating;
+        private final long generation;
+        private final RouteMeters meters;
+
+        CachingResponse(ServerHttpResponse delegate, ServerHttpRequest request, CacheKey key,
+                        CachedResponse revalidating, long generation, RouteMeters meters) {
+            super(delegate);
+            this.request = request;
+            this.key = key;
+            this.revalidating = revalidating;
+            this.generation = generation;
+            this.meters = meters;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            CacheDirectives directives = CacheDirectives.parse(getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL));
+            if (revalidating != null && HttpStatus.NOT_MODIFIED.equals(getStatusCode())) {
+                meters.revalidations.increment();
+                long now = System.nanoTime();
+                CachedResponse refreshed = revalidating.revalidated(directives, now);
+                store(key, refreshed, generation);
+                getHeaders().clear();
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(serve(getDelegate(), request, refreshed, now));
+            }
+            meters.misses.increment();
+            if (!HttpStatus.OK.equals(getStatusCode()) || !isStorable(getHeaders(), directives)) {
+                return super.writeWith(body);
+            }
+
+            HttpHeaders headers = storedHeaders(getHeaders());
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            Flux<DataBuffer> copying = Flux.<DataBuffer>from(body)
+                    .doOnNext(buffer -> {
+                        if (captured.size() <= maxEntrySize) {
+                            int length = buffer.readableByteCount();
+                            ByteBuffer copy = ByteBuffer.allocate(length);
+                            buffer.toByteBuffer(buffer.readPosition(), copy, 0, length);
+                            captured.write(copy.array(), 0, length);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (captured.size() <= maxEntrySize) {
+                            long now = System.nanoTime();
+                            store(key, new CachedResponse(headers, captured.toByteArray(), headers.getETag(), now,
+                                    now + TimeUnit.SECONDS.toNanos(directives.freshSeconds())), generation);
+                        }
+                    });
+            return super.writeWith(copying);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.proveritus.apigateway.collapse;
+
+import com.proveritus.apigateway.cache.ResponseCacheFilter;
+import com.proveritus.apigateway.security.GatewayIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Collapses concurrent identical {@code GET}s of the configured routes into one call to the service.
+ * Requests are identical when they share the route, path, query, the caller's roles and the
+ * {@code Accept}, {@code Origin} and {@code If-None-Match} headers. The first request is sent; up to
+ * {@code max-waiters} requests arriving while it is in flight wait for it and get a copy of its status,
+ * headers and body. Nothing is kept once the response has completed, so the next request is sent
+ * again; caching is left to {@link ResponseCacheFilter}, which runs before this filter.
+ * <p>
+ * Waiters send their own request when the shared response cannot be copied (streamed, larger than
+ * {@code max-body-size} or setting a cookie), when the first request fails, or after {@code max-wait}.
+ */
+@Component
+public class RequestCollapsingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER + 100;
+
+    private static final Set<String> UNSHARED_HEADERS = caseInsensitive(HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING, "Keep-Alive", HttpHeaders.CONTENT_LENGTH);
+
+    private final Set<String> routes;
+    private final int maxWaiters;
+    private final long maxBodySize;
+    private final Duration maxWait;
+    private final ConcurrentMap<CollapseKey, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCollapsingFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.request-collapsing.routes:}") List<String> routes,
+                                   @Value("${gateway.request-collapsing.max-waiters:100}") int maxWaiters,
+                                   @Value("${gateway.request-collapsing.max-body-size:1MB}") DataSize maxBodySize,
+                                   @Value("${gateway.request-collapsing.max-wait:PT5S}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+        this.routes = Set.copyOf(routes);
+        this.maxWaiters = maxWaiters;
+        this.maxBodySize = maxBodySize.toBytes();
+        this.maxWait = maxWait;
+        Gauge.builder("gateway.collapse.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct requests currently in flight with collapsing enabled")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !routes.contains(route.getId()) || !HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        RouteMeters meters = routeMeters.computeIfAbsent(route.getId(), id -> new RouteMeters(meterRegistry, id));
+        CollapseKey key = key(route.getId(), exchange);
+        InFlight created = new InFlight();
+        InFlight existing = inFlight.putIfAbsent(key, created);
+        if (existing == null) {
+            meters.leaders.increment();
+            return lead(exchange, chain, key, created);
+        }
+        if (!existing.join(maxWaiters)) {
+            meters.overflows.increment();
+            return chain.filter(exchange);
+        }
+        meters.waiters.increment();
+        return existing.response()
+                .timeout(maxWait, Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isPresent()) {
+                        return write(exchange.getResponse(), shared.get());
+                    }
+                    meters.fallbacks.increment();
+                    return chain.filter(exchange);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, CollapseKey key, InFlight flight) {
+        LeaderResponse response = new LeaderResponse(exchange.getResponse(), key, flight);
+        return chain.filter(exchange.mutate().response(response).build())
+                // Covers errors, cancellation and responses that were never written
+                .doFinally(signal -> response.release(null));
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static CollapseKey key(String routeId, ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        GatewayIdentity identity = GatewayIdentity.of(exchange);
+        String scope;
+        if (identity != null) {
+            scope = identity.roles().stream().sorted().collect(Collectors.joining(","));
+        } else {
+            // Anonymous, or a token without user claims that only the service can resolve
+            scope = String.valueOf(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        }
+        return new CollapseKey(routeId, request.getPath().value(), request.getURI().getRawQuery(), scope,
+                headers.getAccept().toString(), headers.getOrigin(), headers.getIfNoneMatch().toString());
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(List.of(names));
+        return set;
+    }
+
+    private record CollapseKey(String route, String path, String query, String scope, String accept, String origin,
+                               String ifNoneMatch) {
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * A request being sent for its waiters. The response is emitted once, or completes empty if it
+     * cannot be shared.
+     */
+    private static final class InFlight {
+        private final Sinks.One<SharedResponse> response = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        boolean join(int maxWaiters) {
+            return waiters.incrementAndGet() <= maxWaiters;
+        }
+
+        Mono<SharedResponse> response() {
+            return response.asMono();
+        }
+    }
+
+    private static final class RouteMeters {
+        private final Counter leaders;
+        private final Counter waiters;
+        private final Counter overflows;
+        private final Counter fallbacks;
+
+        RouteMeters(MeterRegistry meterRegistry, String route) {
+            this.leaders = requests(meterRegistry, route, "sent");
+            this.waiters = requests(meterRegistry, route, "collapsed");
+            this.overflows = requests(meterRegistry, route, "overflow");
+            this.fallbacks = requests(meterRegistry, route, "fallback");
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String route, String result) {
+            return Counter.builder("gateway.collapse.requests")
+                    .description("GET requests seen by request collapsing")
+                    .tag("route", route)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Copies the response of the request that was sent while it is written to its own client.
+     */
+    private final class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final CollapseKey key;
+        private final InFlight flight;
+        private final AtomicInteger released = new AtomicInteger();
+
+        LeaderResponse(ServerHttpResponse delegate, CollapseKey key, InFlight flight) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            HttpStatusCode status = getStatusCode();
+            if (status == null || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getContentLength() > maxBodySize) {
+                release(null);
+                return super.writeWith(body);
+            }
+
+            HttpHeaders shared = sharedHeaders();
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            Flux<DataBuffer> copying = Flux.<DataBuffer>from(body)
+                    .doOnNext(buffer -> {
+                        if (captured.size() <= maxBodySize) {
+                            int length = buffer.readableByteCount();
+                            ByteBuffer copy = ByteBuffer.allocate(length);
+                            buffer.toByteBuffer(buffer.readPosition(), copy, 0, length);
+                            captured.write(copy.array(), 0, length);
+                        }
+                    })
+                    .doOnComplete(() -> release(captured.size() <= maxBodySize
+                            ? new SharedResponse(status, shared, captured.toByteArray()) : null));
+            return super.writeWith(copying);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streamed responses are not copied; the waiters send their own requests
+            release(null);
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            HttpStatusCode status = getStatusCode();
+            release(status == null ? null : new SharedResponse(status, sharedHeaders(), new byte[0]));
+            return super.setComplete();
+        }
+
+        private HttpHeaders sharedHeaders() {
+            HttpHeaders shared = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!UNSHARED_HEADERS.contains(name)) {
+                    shared.put(name, List.copyOf(values));
+                }
+            });
+            return shared;
+        }
+
+        /**
+         * Ends the flight once: later requests are sent again, and the waiters get the response, or
+         * send their own requests if it is {@code null}.
+         */
+        void release(SharedResponse response) {
+            if (released.getAndIncrement() > 0) {
+                return;
+            }
+            inFlight.remove(key, flight);
+            if (response == null) {
+                flight.response.tryEmitEmpty();
+            } else {
+                flight.response.tryEmitValue(response);
+            }
+        }
+    }
+}
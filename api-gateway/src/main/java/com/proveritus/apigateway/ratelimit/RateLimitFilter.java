@@ -0,0 +1,131 @@
+package com.proveritus.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proveritus.apigateway.security.GatewayIdentity;
+import com.proveritus.apigateway.security.JwtVerificationFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits requests through in-memory token buckets: one per user id for requests with a verified token,
+ * one per client IP for the others, and one per route shared by all callers. The caller's bucket is
+ * checked before the route's, so a caller that is already limited does not use up the route's tokens.
+ * Rejected requests get {@code 429 Too Many Requests} with {@code Retry-After}.
+ * <p>
+ * Buckets live in this gateway instance only; with several instances each enforces the limits on its
+ * own share of the traffic. The client IP is the peer address, as the gateway is the edge.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = JwtVerificationFilter.ORDER + 50;
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+    private volatile Duration idleTimeout;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.idleTimeout = properties.getIdleTimeout();
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Gauge.builder("gateway.rate.limit.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets currently held")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        applyIdleTimeout();
+        long now = System.nanoTime();
+        GatewayIdentity identity = GatewayIdentity.of(exchange);
+        long wait = identity != null
+                ? take("user:" + identity.userId(), properties.getUser(), now)
+                : take("ip:" + clientIp(exchange), properties.getIp(), now);
+        if (wait > 0) {
+            return reject(exchange, identity != null ? "user" : "ip", route.getId(), wait);
+        }
+        wait = take("route:" + route.getId(), properties.getRoutes().get(route.getId()), now);
+        if (wait > 0) {
+            return reject(exchange, "route", route.getId(), wait);
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * The properties are rebound in place on a refresh, so a changed idle timeout is picked up here and
+     * applied to the buckets already held.
+     */
+    private void applyIdleTimeout() {
+        Duration configured = properties.getIdleTimeout();
+        if (!configured.equals(idleTimeout)) {
+            idleTimeout = configured;
+            buckets.policy().expireAfterAccess().ifPresent(expiration -> expiration.setExpiresAfter(configured));
+        }
+    }
+
+    private long take(String key, RateLimitProperties.Limit limit, long now) {
+        if (limit == null || !limit.isActive()) {
+            return 0;
+        }
+        return buckets.get(key, ignored -> new TokenBucket()).tryTake(limit, now);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String scope, String routeId, long waitNanos) {
+        Counter.builder("gateway.rate.limit.rejected")
+                .description("Requests rejected by the gateway rate limiter")
+                .tag("scope", scope)
+                .tag("route", routeId)
+                .register(meterRegistry)
+                .increment();
+        log.debug("Rate limited {} request to {} at the {} limit", exchange.getRequest().getMethod(),
+                exchange.getRequest().getPath(), scope);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,115 @@
+package com.proveritus.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limits applied by {@link RateLimitFilter}. Bound as configuration properties so that a refresh
+ * ({@code POST /actuator/refresh}) applies changed limits to the existing buckets without a restart.
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Per user id, for requests with a verified token.
+     */
+    private Limit user = new Limit();
+
+    /**
+     * Per client IP, for requests without a verified token.
+     */
+    private Limit ip = new Limit();
+
+    /**
+     * Per route id, shared by all callers of the route.
+     */
+    private Map<String, Limit> routes = new HashMap<>();
+
+    /**
+     * How long an unused bucket is kept.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Limit getUser() {
+        return user;
+    }
+
+    public void setUser(Limit user) {
+        this.user = user;
+    }
+
+    public Limit getIp() {
+        return ip;
+    }
+
+    public void setIp(Limit ip) {
+        this.ip = ip;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * A bucket of {@code capacity} requests, refilled at {@code refillPerSecond}. A limit with either
+     * value not positive does not limit anything.
+     */
+    public static class Limit {
+
+        private long capacity;
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        boolean isActive() {
+            return capacity > 0 && refillPerSecond > 0;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.proveritus.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp, so taking a token is one compare-and-set. The timestamp is
+ * the time at which the bucket would be full again if nothing else were taken; each token moves it one
+ * refill interval ahead, and a token is available while it is less than {@code capacity} intervals
+ * ahead of now. The limit is passed on every call, so changed limits apply to existing buckets at once.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes a token at {@code nowNanos}.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryTake(RateLimitProperties.Limit limit, long nowNanos) {
+        long interval = (long) Math.ceil(1_000_000_000d / limit.getRefillPerSecond());
+        long burst = interval * limit.getCapacity();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + interval;
+            long wait = next - nowNanos - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.proveritus.apigateway.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Answers {@code 404 Not Found} for paths that are only meant to be called between services or by the
+ * metrics scraper, such as {@code /api/internal/**} and the services' actuators, so they cannot be
+ * reached from outside through any route, including the {@code /<service-id>/**} routes of the
+ * discovery locator. Patterns are matched against the decoded path before the request is routed.
+ */
+@Component
+public class BlockedPathFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private static final Logger log = LoggerFactory.getLogger(BlockedPathFilter.class);
+
+    private final List<PathPattern> patterns;
+
+    public BlockedPathFilter(
+            @Value("${gateway.blocked-paths:/api/internal/**,/*/api/internal/**,/*/actuator/**}") List<String> patterns) {
+        this.patterns = patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (patterns.stream().anyMatch(pattern -> pattern.matches(path))) {
+            log.debug("Blocked {} request to {}", exchange.getRequest().getMethod(), path.value());
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,23 @@
+package com.proveritus.apigateway.security;
+
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * The user of a request whose bearer token the gateway has verified. It is stored on the exchange so
+ * later filters can key on the user without looking at the token again.
+ *
+ * @param expiresAt token expiry in epoch seconds
+ */
+public record GatewayIdentity(long userId, String username, List<String> roles, long expiresAt) {
+
+    public static final String ATTRIBUTE = GatewayIdentity.class.getName();
+
+    /**
+     * Returns the verified identity of the exchange, or {@code null} for anonymous requests.
+     */
+    public static GatewayIdentity of(ServerWebExchange exchange) {
+        return exchange.getAttribute(ATTRIBUTE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.proveritus.apigateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes the identity headers the services trust instead of parsing the bearer token. The user id,
+ * URL-encoded username, comma-separated roles and token expiry (epoch seconds) are joined by newlines
+ * and signed with HMAC-SHA256 under {@code jwt.identity-headers.secret}. The services verify them with
+ * {@code IdentityHeaders} in cloud-utility, so both copies of the format have to change together.
+ */
+@Component
+public class IdentityHeaders {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USERNAME = "X-User-Name";
+    public static final String ROLES = "X-User-Roles";
+    public static final String EXPIRES = "X-Identity-Expires";
+    public static final String SIGNATURE = "X-Identity-Signature";
+    public static final List<String> NAMES = List.of(USER_ID, USERNAME, ROLES, EXPIRES, SIGNATURE);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public IdentityHeaders(@Value("${jwt.identity-headers.secret}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public void write(HttpHeaders headers, GatewayIdentity identity) {
+        String userId = Long.toString(identity.userId());
+        String username = URLEncoder.encode(identity.username(), StandardCharsets.UTF_8);
+        String roles = String.join(",", identity.roles());
+        String expires = Long.toString(identity.expiresAt());
+        headers.set(USER_ID, userId);
+        headers.set(USERNAME, username);
+        headers.set(ROLES, roles);
+        headers.set(EXPIRES, expires);
+        headers.set(SIGNATURE, Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sign(userId, username, roles, expires)));
+    }
+
+    private byte[] sign(String userId, String username, String roles, String expires) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(String.join("\n", userId, username, roles, expires).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign identity headers", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.proveritus.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.List;
+
+/**
+ * Verifies the bearer token once at the edge. Identity headers sent by the client are always removed.
+ * For a valid token the signed {@link IdentityHeaders} are added and the {@link GatewayIdentity} is
+ * stored on the exchange; the services then authenticate from the headers without parsing the token.
+ * An invalid or expired token, or one whose account flags are not all set, is removed from the request,
+ * so the services see an anonymous request, as they would have after rejecting the token themselves.
+ * Tokens issued without the user claims are passed on unchanged for the services to resolve.
+ */
+@Component
+public class JwtVerificationFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerificationFilter.class);
+    private static final String BEARER = "Bearer ";
+
+    private enum Outcome { VALID, INVALID, LEGACY }
+
+    private final JwtParser parser;
+    private final IdentityHeaders identityHeaders;
+    private final Counter valid;
+    private final Counter invalid;
+    private final Counter legacy;
+
+    public JwtVerificationFilter(@Value("${jwt.secret}") String jwtSecret, IdentityHeaders identityHeaders,
+                                 MeterRegistry meterRegistry) {
+        // The services sign with the Base64-decoded secret; the key and parser are built once and reused
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(new SecretKeySpec(Decoders.BASE64.decode(jwtSecret), SignatureAlgorithm.HS512.getJcaName()))
+                .build();
+        this.identityHeaders = identityHeaders;
+        this.valid = verifications(meterRegistry, "valid");
+        this.invalid = verifications(meterRegistry, "invalid");
+        this.legacy = verifications(meterRegistry, "legacy");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        GatewayIdentity identity = null;
+        Outcome outcome = null;
+        if (authorization != null && authorization.startsWith(BEARER)) {
+            try {
+                Claims claims = parser.parseClaimsJws(authorization.substring(BEARER.length())).getBody();
+                if (claims.get("uid") == null || claims.getExpiration() == null) {
+                    outcome = Outcome.LEGACY;
+                } else if (isUsable(claims)) {
+                    identity = toIdentity(claims);
+                    outcome = Outcome.VALID;
+                } else {
+                    outcome = Outcome.INVALID;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Removed invalid bearer token: {}", e.getMessage());
+                outcome = Outcome.INVALID;
+            }
+            count(outcome);
+        }
+
+        GatewayIdentity verified = identity;
+        boolean removeToken = outcome == Outcome.INVALID;
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    IdentityHeaders.NAMES.forEach(headers::remove);
+                    if (removeToken) {
+                        headers.remove(HttpHeaders.AUTHORIZATION);
+                    }
+                    if (verified != null) {
+                        identityHeaders.write(headers, verified);
+                    }
+                })
+                .build();
+        if (verified != null) {
+            exchange.getAttributes().put(GatewayIdentity.ATTRIBUTE, verified);
+        }
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static GatewayIdentity toIdentity(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        return new GatewayIdentity(
+                claims.get("uid", Number.class).longValue(),
+                claims.getSubject(),
+                roles == null ? List.of() : roles.stream().map(Object::toString).toList(),
+                claims.getExpiration().getTime() / 1000);
+    }
+
+    private static boolean isUsable(Claims claims) {
+        return isTrue(claims, "enabled")
+                && isTrue(claims, "accountNonExpired")
+                && isTrue(claims, "accountNonLocked")
+                && isTrue(claims, "credentialsNonExpired");
+    }
+
+    private void count(Outcome outcome) {
+        switch (outcome) {
+            case VALID -> valid.increment();
+            case INVALID -> invalid.increment();
+            case LEGACY -> legacy.increment();
+        }
+    }
+
+    private static boolean isTrue(Claims claims, String name) {
+        return Boolean.TRUE.equals(claims.get(name, Boolean.class));
+    }
+
+    private static Counter verifications(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.jwt.verifications")
+                .description("Bearer tokens verified at the gateway")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.proveritus.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("property-service")
+            .uri("http://localhost")
+            .predicate(exchange -> true)
+            .build();
+
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(new SimpleMeterRegistry(), true,
+            List.of("property-service"), List.of("/api/properties", "/api/floors", "/api/units"),
+            DataSize.ofMegabytes(1), DataSize.ofKilobytes(16), Duration.ofMinutes(1));
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void freshResponseIsServedWithoutCallingTheService() {
+        assertEquals("property 1", get("/api/properties/1", "s-maxage=60"));
+        assertEquals("property 1", get("/api/properties/1", "s-maxage=60"));
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void noStoreResponseIsNotKept() {
+        get("/api/properties/1", "no-cache, no-store, max-age=0, must-revalidate");
+        get("/api/properties/1", "no-cache, no-store, max-age=0, must-revalidate");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void writeToLinkedPrefixDropsCachedResponses() {
+        get("/api/properties/1", "s-maxage=60");
+
+        ServerWebExchange write = exchange(MockServerHttpRequest.method(HttpMethod.PUT, "/api/units/5").build());
+        filter.filter(write, exchange -> Mono.empty()).block();
+        get("/api/properties/1", "s-maxage=60");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void resourcePrefixIsTheFirstTwoSegments() {
+        assertEquals("/api/units", ResponseCacheFilter.resourcePrefix("/api/units/5/occupancy"));
+        assertEquals("/api/units", ResponseCacheFilter.resourcePrefix("/api/units"));
+    }
+
+    private String get(String path, String cacheControl) {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(path).build());
+        GatewayFilterChain service = forwarded -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = forwarded.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            byte[] body = ("property " + path.substring(path.lastIndexOf('/') + 1)).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+        filter.filter(exchange, service).block();
+        return ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+}
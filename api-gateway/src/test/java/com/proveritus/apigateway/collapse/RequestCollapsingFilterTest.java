@@ -0,0 +1,104 @@
+package com.proveritus.apigateway.collapse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCollapsingFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("property-service")
+            .uri("http://localhost")
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> upstreamDone = Sinks.empty();
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCall() {
+        RequestCollapsingFilter filter = filter(10);
+        MockServerWebExchange first = exchange();
+        MockServerWebExchange second = exchange();
+
+        CompletableFuture<Void> firstDone = filter.filter(first, slowService()).toFuture();
+        CompletableFuture<Void> secondDone = filter.filter(second, slowService()).toFuture();
+        upstreamDone.tryEmitEmpty();
+        firstDone.join();
+        secondDone.join();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals("stats", body(first));
+        assertEquals("stats", body(second));
+    }
+
+    @Test
+    void nothingIsKeptOnceTheResponseCompleted() {
+        RequestCollapsingFilter filter = filter(10);
+        upstreamDone.tryEmitEmpty();
+
+        filter.filter(exchange(), slowService()).block();
+        filter.filter(exchange(), slowService()).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void waitersBeyondTheCapSendTheirOwnRequest() {
+        RequestCollapsingFilter filter = filter(1);
+
+        CompletableFuture<Void> first = filter.filter(exchange(), slowService()).toFuture();
+        CompletableFuture<Void> second = filter.filter(exchange(), slowService()).toFuture();
+        CompletableFuture<Void> third = filter.filter(exchange(), slowService()).toFuture();
+        upstreamDone.tryEmitEmpty();
+        CompletableFuture.allOf(first, second, third).join();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private RequestCollapsingFilter filter(int maxWaiters) {
+        return new RequestCollapsingFilter(new SimpleMeterRegistry(), List.of("property-service"), maxWaiters,
+                DataSize.ofKilobytes(16), Duration.ofSeconds(5));
+    }
+
+    private GatewayFilterChain slowService() {
+        return forwarded -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = forwarded.getResponse();
+            return upstreamDone.asMono().then(Mono.defer(() -> {
+                response.setStatusCode(HttpStatus.OK);
+                byte[] body = "stats".getBytes(StandardCharsets.UTF_8);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+            }));
+        };
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/properties/1/stats"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block();
+    }
+}
@@ -0,0 +1,95 @@
+package com.proveritus.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void bucketAllowsBurstThenRefills() {
+        TokenBucket bucket = new TokenBucket();
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(3, 1);
+
+        assertEquals(0, bucket.tryTake(limit, 0));
+        assertEquals(0, bucket.tryTake(limit, 0));
+        assertEquals(0, bucket.tryTake(limit, 0));
+        assertEquals(SECOND, bucket.tryTake(limit, 0));
+        assertEquals(0, bucket.tryTake(limit, SECOND));
+    }
+
+    @Test
+    void changedLimitAppliesToExistingBucket() {
+        TokenBucket bucket = new TokenBucket();
+        bucket.tryTake(new RateLimitProperties.Limit(1, 1), 0);
+
+        assertTrue(bucket.tryTake(new RateLimitProperties.Limit(1, 1), 0) > 0);
+        assertEquals(0, bucket.tryTake(new RateLimitProperties.Limit(5, 1), 0));
+    }
+
+    @Test
+    void anonymousCallerOverTheLimitGets429WithRetryAfter() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIp(new RateLimitProperties.Limit(1, 0.5));
+        properties.setRoutes(Map.of());
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        MockServerWebExchange first = exchange();
+        MockServerWebExchange second = exchange();
+        filter.filter(first, exchange -> Mono.empty()).block();
+        filter.filter(second, exchange -> Mono.empty()).block();
+
+        assertNull(first.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+        assertEquals("2", second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void changedIdleTimeoutAppliesToBucketsAlreadyHeld() throws InterruptedException {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIp(new RateLimitProperties.Limit(1, 0.001));
+        properties.setRoutes(Map.of());
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        filter.filter(exchange(), exchange -> Mono.empty()).block();
+        MockServerWebExchange limited = exchange();
+        filter.filter(limited, exchange -> Mono.empty()).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+
+        // As rebound by a refresh; the exhausted bucket is then dropped as idle
+        properties.setIdleTimeout(Duration.ofMillis(1));
+        filter.filter(exchange(), exchange -> Mono.empty()).block();
+        Thread.sleep(20);
+        MockServerWebExchange admitted = exchange();
+        filter.filter(admitted, exchange -> Mono.empty()).block();
+        assertNull(admitted.getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/auth/login")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("user-service")
+                .uri("http://localhost")
+                .predicate(candidate -> true)
+                .build());
+        return exchange;
+    }
+}
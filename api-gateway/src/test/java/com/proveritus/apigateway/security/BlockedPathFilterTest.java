@@ -0,0 +1,57 @@
+package com.proveritus.apigateway.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockedPathFilterTest {
+
+    private final BlockedPathFilter filter = new BlockedPathFilter(
+            List.of("/api/internal/**", "/*/api/internal/**", "/*/actuator/**"));
+
+    @Test
+    void internalPathsAreNotForwardedOnAnyRoute() {
+        for (String path : List.of("/api/internal/users/7/invalidate",
+                "/property-service/api/internal/users/7/invalidate",
+                "/property-service/api/%69nternal/users/7/invalidate",
+                "/property-service/actuator/prometheus")) {
+            AtomicBoolean forwarded = new AtomicBoolean();
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.POST, URI.create(path)));
+
+            filter.filter(exchange, forwardedExchange -> {
+                forwarded.set(true);
+                return Mono.empty();
+            }).block();
+
+            assertFalse(forwarded.get(), path);
+            assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode(), path);
+        }
+    }
+
+    @Test
+    void otherPathsAreForwarded() {
+        AtomicBoolean forwarded = new AtomicBoolean();
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/property-service/api/properties/internal"));
+
+        filter.filter(exchange, forwardedExchange -> {
+            forwarded.set(true);
+            return Mono.empty();
+        }).block();
+
+        assertTrue(forwarded.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,98 @@
+package com.proveritus.apigateway.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtVerificationFilterTest {
+
+    private static final String JWT_SECRET = "db3081ad709552e4653b77350467fd7bac5d5d3c926338003acdf7a2b7e409aba9d2eb910a0bc9f5b86e818a1ce9719d690de4209c0ee5e50d28eee8d2154048";
+
+    private final JwtVerificationFilter filter = new JwtVerificationFilter(
+            JWT_SECRET, new IdentityHeaders("identity-secret"), new SimpleMeterRegistry());
+
+    @Test
+    void validTokenIsReplacedBySignedIdentityHeaders() {
+        ServerWebExchange exchange = exchange(token(true), "99");
+
+        ServerHttpRequest forwarded = forward(exchange);
+
+        HttpHeaders headers = forwarded.getHeaders();
+        assertEquals("7", headers.getFirst(IdentityHeaders.USER_ID));
+        assertEquals("jane.doe", headers.getFirst(IdentityHeaders.USERNAME));
+        assertEquals("ROLE_ADMIN", headers.getFirst(IdentityHeaders.ROLES));
+        assertNotNull(headers.getFirst(IdentityHeaders.SIGNATURE));
+        assertNotNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        assertEquals(7L, GatewayIdentity.of(exchange).userId());
+    }
+
+    @Test
+    void invalidTokenAndSpoofedHeadersAreRemoved() {
+        ServerWebExchange exchange = exchange(token(true) + "x", "99");
+
+        HttpHeaders headers = forward(exchange).getHeaders();
+
+        assertNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        assertNull(headers.getFirst(IdentityHeaders.USER_ID));
+        assertNull(GatewayIdentity.of(exchange));
+    }
+
+    @Test
+    void disabledUserIsForwardedAnonymously() {
+        ServerWebExchange exchange = exchange(token(false), null);
+
+        HttpHeaders headers = forward(exchange).getHeaders();
+
+        assertNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        assertNull(headers.getFirst(IdentityHeaders.SIGNATURE));
+    }
+
+    private ServerHttpRequest forward(ServerWebExchange exchange) {
+        AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+        GatewayFilterChain chain = next -> {
+            forwarded.set(next.getRequest());
+            return Mono.empty();
+        };
+        filter.filter(exchange, chain).block();
+        return forwarded.get();
+    }
+
+    private static ServerWebExchange exchange(String token, String spoofedUserId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/properties")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (spoofedUserId != null) {
+            request.header(IdentityHeaders.USER_ID, spoofedUserId);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static String token(boolean enabled) {
+        return Jwts.builder()
+                .setSubject("jane.doe")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .claim("uid", 7L)
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .claim("enabled", enabled)
+                .claim("accountNonExpired", true)
+                .claim("accountNonLocked", true)
+                .claim("credentialsNonExpired", true)
+                .signWith(SignatureAlgorithm.HS512, JWT_SECRET)
+                .compact();
+    }
+}
@@ -0,0 +1,118 @@
+package com.proveritus.benchmarks;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+import com.proveritus.cloudutility.enums.UserRole;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.enums.RentType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds detached entity graphs shaped like the ones the services load. Ids, names and statuses are
+ * derived from the position in the graph so every run benchmarks the same data.
+ */
+final class Fixtures {
+    static final int MANAGERS = 25;
+
+    private static final OccupancyStatus[] STATUSES = OccupancyStatus.values();
+    private static final PropertyType[] PROPERTY_TYPES = PropertyType.values();
+
+    private Fixtures() {
+    }
+
+    /**
+     * Properties managed by {@link #MANAGERS} distinct users, each with the given number of floors and
+     * units per floor. Units are linked to both their floor and their property.
+     */
+    static List<Property> properties(int count, int floorsPerProperty, int unitsPerFloor) {
+        List<Property> properties = new ArrayList<>(count);
+        long floorId = 1;
+        long unitId = 1;
+        for (long propertyId = 1; propertyId <= count; propertyId++) {
+            Property property = Property.builder()
+                    .name("Property " + propertyId)
+                    .propertyType(PROPERTY_TYPES[(int) (propertyId % PROPERTY_TYPES.length)])
+                    .address(propertyId + " Samora Machel Ave")
+                    .numberOfFloors(floorsPerProperty)
+                    .numberOfUnits(floorsPerProperty * unitsPerFloor)
+                    .managedBy(propertyId % MANAGERS + 1)
+                    .build();
+            property.setId(propertyId);
+
+            for (int f = 0; f < floorsPerProperty; f++) {
+                Floor floor = Floor.builder()
+                        .name("Floor " + f)
+                        .property(property)
+                        .build();
+                floor.setId(floorId++);
+                for (int u = 0; u < unitsPerFloor; u++) {
+                    Unit unit = unit(unitId++, property, floor);
+                    floor.getUnits().add(unit);
+                    property.getUnits().add(unit);
+                }
+                setOccupancyCounters(floor);
+                property.getFloors().add(floor);
+            }
+            properties.add(property);
+        }
+        return properties;
+    }
+
+    /**
+     * Units of a single floor, with occupancy statuses cycling through every value.
+     */
+    static List<Unit> units(int count) {
+        Property property = properties(1, 0, 0).get(0);
+        Floor floor = Floor.builder().name("Floor 0").property(property).build();
+        floor.setId(1L);
+        List<Unit> units = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            units.add(unit(id, property, floor));
+        }
+        return units;
+    }
+
+    static UserDTO user(long id) {
+        UserDTO user = new UserDTO();
+        user.setId(id);
+        user.setUsername("manager" + id);
+        user.setEmail("manager" + id + "@proveritus.com");
+        user.setFirstName("Manager");
+        user.setLastName(String.valueOf(id));
+        user.setRole(UserRole.PROPERTY_MANAGER);
+        user.setEnabled(true);
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        return user;
+    }
+
+    private static Unit unit(long id, Property property, Floor floor) {
+        Unit unit = Unit.builder()
+                .name("Unit " + id)
+                .size(80.0)
+                .rentType(RentType.PSM)
+                .ratePerSqm(12.5)
+                .monthlyRent(1000.0)
+                .occupancyStatus(STATUSES[(int) (id % STATUSES.length)])
+                .tenant("Tenant " + id)
+                .property(property)
+                .floor(floor)
+                .build();
+        unit.setId(id);
+        return unit;
+    }
+
+    private static void setOccupancyCounters(Floor floor) {
+        floor.setNumberOfUnits(floor.getUnits().size());
+        floor.setOccupiedUnits((int) floor.getUnits().stream()
+                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.OCCUPIED).count());
+        floor.setVacantUnits((int) floor.getUnits().stream()
+                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.AVAILABLE).count());
+    }
+}
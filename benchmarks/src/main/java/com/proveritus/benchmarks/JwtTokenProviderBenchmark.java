@@ -0,0 +1,76 @@
+package com.proveritus.benchmarks;
+
+import com.proveritus.cloudutility.security.CustomPrincipal;
+import com.proveritus.cloudutility.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request from its bearer token: the single parse that builds the principal
+ * from the claims, and the legacy path that parses once for the username and again for the expiry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    private static final String SECRET = "db3081ad709552e4653b77350467fd7bac5d5d3c926338003acdf7a2b7e409ab"
+            + "a9d2eb910a0bc9f5b86e818a1ce9719d690de4209c0ee5e50d28eee8d2154048";
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetails userDetails;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        setField("jwtSecret", SECRET);
+        setField("jwtExpirationInMs", (int) TimeUnit.DAYS.toMillis(7));
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_PROPERTY_MANAGER"));
+        CustomPrincipal principal = new CustomPrincipal(1L, "manager1", "manager1@proveritus.com", "",
+                authorities, true, true, true, true);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities));
+
+        // A plain UserDetails principal produces a token without the user claims
+        userDetails = new User("manager1", "", authorities);
+        legacyToken = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, authorities));
+    }
+
+    @Benchmark
+    public CustomPrincipal principalFromClaims() {
+        return tokenProvider.getPrincipalFromJWT(token);
+    }
+
+    @Benchmark
+    public String usernameFromLegacyToken() {
+        return tokenProvider.getUsernameFromJWT(legacyToken);
+    }
+
+    @Benchmark
+    public boolean validateLegacyToken() {
+        return tokenProvider.validateToken(legacyToken, userDetails);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, tokenProvider, value);
+    }
+}
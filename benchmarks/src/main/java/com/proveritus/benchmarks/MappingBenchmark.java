@@ -0,0 +1,117 @@
+package com.proveritus.benchmarks;
+
+import com.proveritus.propertyservice.dto.FloorDTO;
+import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.mapper.FloorMapperImpl;
+import com.proveritus.propertyservice.mapper.PropertyMapper;
+import com.proveritus.propertyservice.mapper.PropertyMapperImpl;
+import com.proveritus.propertyservice.mapper.UnitMapper;
+import com.proveritus.propertyservice.mapper.UnitMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a page of properties (with their floors and units) and of a page of units,
+ * plus the DTO to entity direction used on writes. The generated mappers are measured next to the
+ * reflective {@link ModelMapper} configuration they replaced, which serves as a fixed baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"5"})
+    private int unitsPerFloor;
+
+    private PropertyMapper propertyMapper;
+    private UnitMapper unitMapper;
+    private ModelMapper modelMapper;
+    private List<Property> properties;
+    private List<Unit> units;
+    private List<PropertyDTO> propertyDTOs;
+    private List<UnitDTO> unitDTOs;
+
+    @Setup
+    public void setUp() {
+        unitMapper = new UnitMapperImpl();
+        propertyMapper = new PropertyMapperImpl(new FloorMapperImpl(unitMapper), unitMapper);
+        modelMapper = legacyModelMapper();
+
+        properties = Fixtures.properties(pageSize, 2, unitsPerFloor);
+        units = Fixtures.units(pageSize);
+        propertyDTOs = propertyMapper.toDto(properties);
+        unitDTOs = unitMapper.toDto(units);
+    }
+
+    @Benchmark
+    public List<PropertyDTO> propertiesToDto() {
+        return propertyMapper.toDto(properties);
+    }
+
+    @Benchmark
+    public List<PropertyDTO> propertiesToDtoModelMapper() {
+        return properties.stream().map(property -> modelMapper.map(property, PropertyDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<UnitDTO> unitsToDto() {
+        return unitMapper.toDto(units);
+    }
+
+    @Benchmark
+    public List<UnitDTO> unitsToDtoModelMapper() {
+        return units.stream().map(unit -> modelMapper.map(unit, UnitDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<Property> propertiesToEntity() {
+        return propertyMapper.toEntity(propertyDTOs);
+    }
+
+    @Benchmark
+    public List<Unit> unitsToEntity() {
+        return unitMapper.toEntity(unitDTOs);
+    }
+
+    @Benchmark
+    public List<Unit> unitsToEntityModelMapper() {
+        return unitDTOs.stream().map(dto -> modelMapper.map(dto, Unit.class)).toList();
+    }
+
+    /**
+     * The configuration that used to live in {@code ModelMapperConfig}.
+     */
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        modelMapper.typeMap(FloorDTO.class, Floor.class).addMappings(mapper -> {
+            mapper.skip(Floor::setProperty);
+            mapper.skip(Floor::setUnits);
+        });
+        modelMapper.typeMap(UnitDTO.class, Unit.class).addMappings(mapper -> {
+            mapper.skip(Unit::setProperty);
+            mapper.skip(Unit::setFloor);
+        });
+        return modelMapper;
+    }
+}
@@ -0,0 +1,109 @@
+package com.proveritus.benchmarks;
+
+import com.proveritus.propertyservice.dto.FloorOccupancyStats;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Occupancy statistics computed from units already in memory, as done when a floor tree is created
+ * and as {@code FloorServiceImpl} does from grouped counts. The service methods are private and go
+ * through repositories, so their aggregation logic is reproduced here over plain unit lists: one
+ * stream pass per status, a grouping collector into an {@link EnumMap}, and a single counting pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OccupancyAggregationBenchmark {
+    private static final OccupancyStatus[] STATUSES = OccupancyStatus.values();
+
+    @Param({"10", "100", "1000"})
+    private int unitsPerFloor;
+
+    private List<Unit> units;
+    private Property property;
+
+    @Setup
+    public void setUp() {
+        units = Fixtures.units(unitsPerFloor);
+        property = Fixtures.properties(1, 20, unitsPerFloor).get(0);
+    }
+
+    @Benchmark
+    public FloorOccupancyStats streamPerStatus() {
+        int[] counts = new int[STATUSES.length];
+        for (OccupancyStatus status : STATUSES) {
+            counts[status.ordinal()] = (int) units.stream()
+                    .filter(unit -> unit.getOccupancyStatus() == status).count();
+        }
+        return toOccupancyStats(units.size(), counts);
+    }
+
+    @Benchmark
+    public FloorOccupancyStats groupingByStatus() {
+        Map<OccupancyStatus, Long> unitsByStatus = units.stream()
+                .filter(unit -> unit.getOccupancyStatus() != null)
+                .collect(Collectors.groupingBy(Unit::getOccupancyStatus,
+                        () -> new EnumMap<>(OccupancyStatus.class), Collectors.counting()));
+        int[] counts = new int[STATUSES.length];
+        unitsByStatus.forEach((status, count) -> counts[status.ordinal()] = count.intValue());
+        return toOccupancyStats(units.size(), counts);
+    }
+
+    @Benchmark
+    public FloorOccupancyStats singlePass() {
+        return toOccupancyStats(units);
+    }
+
+    @Benchmark
+    public Map<Long, FloorOccupancyStats> statsByFloor() {
+        Map<Long, FloorOccupancyStats> statsByFloor = new LinkedHashMap<>();
+        for (Floor floor : property.getFloors()) {
+            statsByFloor.put(floor.getId(), toOccupancyStats(floor.getUnits()));
+        }
+        return statsByFloor;
+    }
+
+    private static FloorOccupancyStats toOccupancyStats(List<Unit> units) {
+        int[] counts = new int[STATUSES.length];
+        for (Unit unit : units) {
+            if (unit.getOccupancyStatus() != null) {
+                counts[unit.getOccupancyStatus().ordinal()]++;
+            }
+        }
+        return toOccupancyStats(units.size(), counts);
+    }
+
+    private static FloorOccupancyStats toOccupancyStats(int totalUnits, int[] counts) {
+        int occupiedUnits = counts[OccupancyStatus.OCCUPIED.ordinal()];
+        int vacantUnits = counts[OccupancyStatus.AVAILABLE.ordinal()];
+        int reservedUnits = counts[OccupancyStatus.RESERVED.ordinal()];
+        int notAvailableUnits = counts[OccupancyStatus.NOT_AVAILABLE.ordinal()];
+        int underMaintenanceUnits = counts[OccupancyStatus.UNDER_MAINTENANCE.ordinal()];
+
+        return new FloorOccupancyStats(totalUnits, occupiedUnits, vacantUnits, reservedUnits,
+                notAvailableUnits, underMaintenanceUnits,
+                rate(occupiedUnits, totalUnits), rate(vacantUnits, totalUnits), rate(reservedUnits, totalUnits),
+                rate(notAvailableUnits, totalUnits), rate(underMaintenanceUnits, totalUnits));
+    }
+
+    private static double rate(int units, int totalUnits) {
+        return totalUnits > 0 ? (units * 100.0) / totalUnits : 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.proveritus.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.mapper.FloorMapperImpl;
+import com.proveritus.propertyservice.mapper.PropertyMapper;
+import com.proveritus.propertyservice.mapper.PropertyMapperImpl;
+import com.proveritus.propertyservice.mapper.UnitMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a {@code Page<PropertyDTO>} the way the property listing endpoints return it, with the
+ * manager details filled in and the nested floors and units. The mapper is built with the same
+ * defaults Spring Boot applies to the application's {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"0", "5"})
+    private int unitsPerFloor;
+
+    private ObjectMapper objectMapper;
+    private Page<PropertyDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        UnitMapperImpl unitMapper = new UnitMapperImpl();
+        PropertyMapper propertyMapper = new PropertyMapperImpl(new FloorMapperImpl(unitMapper), unitMapper);
+        int floorsPerProperty = unitsPerFloor > 0 ? 2 : 0;
+        List<PropertyDTO> content = Fixtures.properties(pageSize, floorsPerProperty, unitsPerFloor).stream()
+                .map(property -> {
+                    PropertyDTO dto = propertyMapper.toDto(property);
+                    dto.setManagedByDetails(Fixtures.user(property.getManagedBy()));
+                    return dto;
+                })
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), pageSize * 10L);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,115 @@
+package com.proveritus.benchmarks;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+import com.proveritus.propertyservice.client.UserBatchLoader;
+import com.proveritus.propertyservice.client.UserClient;
+import com.proveritus.propertyservice.client.UserServiceGuard;
+import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.mapper.FloorMapperImpl;
+import com.proveritus.propertyservice.mapper.PropertyMapperImpl;
+import com.proveritus.propertyservice.mapper.UnitMapperImpl;
+import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.service.PropertyService;
+import com.proveritus.propertyservice.service.UserCacheService;
+import com.proveritus.propertyservice.service.Impl.PropertyServiceImpl;
+import com.proveritus.propertyservice.service.Impl.UserCacheServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code PropertyServiceImpl.getAllProperties}, which maps a page of properties and fills in the
+ * manager details through the user cache. The repository returns a prepared page and the user client
+ * answers from memory, so only the service's own work is measured: with a warm cache, and with a cold
+ * cache where every call goes through the batch lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PropertyEnrichmentBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"warm", "cold"})
+    private String cache;
+
+    private PropertyService propertyService;
+    private UserCacheService userCacheService;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        pageable = PageRequest.of(0, pageSize);
+        Page<Property> page = new PageImpl<>(Fixtures.properties(pageSize, 2, 5), pageable, pageSize * 10L);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // A single benchmark thread has nothing to coalesce with, so the batch window is not waited for;
+        // the stub answers at once, so hedging is left off
+        UserServiceGuard userServiceGuard = new UserServiceGuard(meterRegistry, Duration.ofSeconds(1), false, 0.95,
+                Duration.ofMillis(50), 5, Duration.ofSeconds(30));
+        UserBatchLoader userBatchLoader = new UserBatchLoader(new StubUserClient(), userServiceGuard, meterRegistry,
+                Duration.ZERO, 100);
+        userCacheService = new UserCacheServiceImpl(userBatchLoader, meterRegistry, 10_000, Duration.ofMinutes(5),
+                Duration.ofHours(24));
+        UnitMapperImpl unitMapper = new UnitMapperImpl();
+        FloorMapperImpl floorMapper = new FloorMapperImpl(unitMapper);
+        // Validation, stats, search and cursor paging are not used when listing properties
+        propertyService = new PropertyServiceImpl(stubRepository(page),
+                new PropertyMapperImpl(floorMapper, unitMapper), floorMapper, unitMapper,
+                userCacheService, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<PropertyDTO> getAllProperties() {
+        if ("cold".equals(cache)) {
+            userCacheService.invalidateAll();
+        }
+        return propertyService.getAllProperties(pageable);
+    }
+
+    private static PropertyRepository stubRepository(Page<Property> page) {
+        return (PropertyRepository) Proxy.newProxyInstance(PropertyRepository.class.getClassLoader(),
+                new Class<?>[]{PropertyRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && args != null && args.length == 1
+                            && args[0] instanceof Pageable) {
+                        return page;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class StubUserClient implements UserClient {
+
+        @Override
+        public UserDTO getUserById(Long id) {
+            return Fixtures.user(id);
+        }
+
+        @Override
+        public UserDTO getUserByUsername(String username) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<UserDTO> getUsersByIds(List<Long> ids) {
+            return ids.stream().map(Fixtures::user).toList();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.proveritus.cloudutility.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies {@link MethodTracingInterceptor} to every method in {@code tracing.packages} (and their
+ * subpackages) and to every method or class carrying one of {@code tracing.annotations}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class MethodTracingConfig {
+
+    /**
+     * Static and infrastructure, so the configuration class is not created early for it and the beans
+     * it needs are not passed over by the post-processors that have yet to be registered.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor methodTracingAdvisor(ObjectProvider<MeterRegistry> meterRegistry,
+                                        @Value("${tracing.packages:com.proveritus..service}") List<String> packages,
+                                        @Value("${tracing.annotations:com.proveritus.cloudutility.aop.Traced}") List<String> annotations,
+                                        @Value("${tracing.sample-rate:0.01}") double sampleRate,
+                                        @Value("${tracing.slow-threshold:PT0.5S}") Duration slowThreshold,
+                                        @Value("${tracing.max-capture-length:500}") int maxCaptureLength) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(pointcutExpression(packages, annotations));
+
+        MethodTracingInterceptor interceptor = new MethodTracingInterceptor(
+                meterRegistry, sampleRate, slowThreshold, maxCaptureLength);
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+
+    static String pointcutExpression(List<String> packages, List<String> annotations) {
+        List<String> clauses = new ArrayList<>();
+        packages.stream()
+                .filter(pkg -> !pkg.isBlank())
+                .forEach(pkg -> clauses.add("execution(* " + pkg.trim() + "..*.*(..))"));
+        annotations.stream()
+                .filter(annotation -> !annotation.isBlank())
+                .forEach(annotation -> {
+                    clauses.add("@annotation(" + annotation.trim() + ")");
+                    clauses.add("@within(" + annotation.trim() + ")");
+                });
+        if (clauses.isEmpty()) {
+            throw new IllegalStateException("tracing.packages or tracing.annotations must name at least one target");
+        }
+        return String.join(" || ", clauses);
+    }
+}
@@ -0,0 +1,151 @@
+package com.proveritus.cloudutility.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every traced call with a per-method {@link Timer}, which is cheap enough to leave on.
+ * Arguments and results are only rendered for a sampled fraction of calls, logged at DEBUG.
+ * Collections and pages are rendered by size rather than content, and every rendering is cut to a
+ * maximum length. Calls slower than the threshold are logged at WARN with the types of their
+ * arguments and result only, since those logs are always on and values may hold personal data.
+ */
+public class MethodTracingInterceptor implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodTracingInterceptor.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int maxCaptureLength;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    /**
+     * The registry is looked up when a method is first traced: advisors are created before other
+     * beans, and resolving it here would create it before Spring Boot has configured it.
+     */
+    public MethodTracingInterceptor(ObjectProvider<MeterRegistry> meterRegistry, double sampleRate, Duration slowThreshold, int maxCaptureLength) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxCaptureLength = maxCaptureLength;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        boolean sampled = sampleRate > 0 && logger.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        String sampledArgs = sampled ? render(invocation.getArguments()) : null;
+
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            MethodTimers methodTimers = timers.computeIfAbsent(method, this::createTimers);
+            (failure == null ? methodTimers.success() : methodTimers.error()).record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (elapsed >= slowThresholdNanos) {
+                logger.warn("Slow call {} took {} ms with arguments: {} -> {}", methodTimers.name(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), describe(invocation.getArguments()),
+                        failure != null ? "threw " + failure.getClass().getName() : describe(result));
+            } else if (sampled) {
+                logger.debug("Call {} took {} us with arguments: {} -> {}", methodTimers.name(),
+                        TimeUnit.NANOSECONDS.toMicros(elapsed), sampledArgs, outcome(result, failure));
+            }
+        }
+    }
+
+    private MethodTimers createTimers(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        return new MethodTimers(className + "." + method.getName(),
+                timer(className, method.getName(), "success"),
+                timer(className, method.getName(), "error"));
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder("method.calls")
+                .description("Duration of traced method calls")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    private String outcome(Object result, Throwable failure) {
+        return failure != null ? "threw " + failure : render(result);
+    }
+
+    private String render(Object[] args) {
+        return truncate(Arrays.stream(args).map(this::summarize).toList().toString());
+    }
+
+    private String render(Object value) {
+        return truncate(summarize(value));
+    }
+
+    private String describe(Object[] args) {
+        return truncate(Arrays.stream(args).map(this::describe).toList().toString());
+    }
+
+    /**
+     * The type of a value, with the size of pages and collections, but nothing of its content.
+     */
+    private String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Slice<?> || value instanceof Collection<?> || value instanceof Map<?, ?>) {
+            return summarize(value);
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private String summarize(Object value) {
+        if (value instanceof Page<?> page) {
+            return "Page[number=" + page.getNumber() + ", size=" + page.getNumberOfElements()
+                    + ", total=" + page.getTotalElements() + "]";
+        }
+        if (value instanceof Slice<?> slice) {
+            return "Slice[number=" + slice.getNumber() + ", size=" + slice.getNumberOfElements() + "]";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        return String.valueOf(value);
+    }
+
+    private String truncate(String text) {
+        return text.length() <= maxCaptureLength ? text : text.substring(0, maxCaptureLength) + "...";
+    }
+
+    private record MethodTimers(String name, Timer success, Timer error) {
+    }
+}
@@ -1,10 +1,16 @@
 package com.proveritus.cloudutility.config;
 
+import com.proveritus.cloudutility.security.IdentityHeaders;
 import com.proveritus.cloudutility.security.JwtAccessDeniedHandler;
 import com.proveritus.cloudutility.security.JwtAuthenticationEntryPoint;
 import com.proveritus.cloudutility.security.JwtAuthenticationFilter;
 import com.proveritus.cloudutility.security.JwtTokenProvider;
+import com.proveritus.cloudutility.security.TokenRevocationChecker;
+import com.proveritus.cloudutility.security.TrustedIdentityFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +25,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -40,10 +47,21 @@ public class BaseSecurityConfig {
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectProvider<TokenRevocationChecker> revocationChecker;
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService, revocationChecker.getIfAvailable());
+    }
+
+    /**
+     * Trusts the identity headers signed by the api-gateway. Without {@code jwt.identity-headers.secret}
+     * every request is authenticated from its bearer token.
+     */
+    @Bean
+    public TrustedIdentityFilter trustedIdentityFilter(@Value("${jwt.identity-headers.secret:}") String identitySecret) {
+        IdentityHeaders identityHeaders = StringUtils.hasText(identitySecret) ? new IdentityHeaders(identitySecret) : null;
+        return new TrustedIdentityFilter(identityHeaders, revocationChecker.getIfAvailable());
     }
 
     @Bean
@@ -73,7 +91,7 @@ public class BaseSecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TrustedIdentityFilter trustedIdentityFilter) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
@@ -83,16 +101,22 @@ public class BaseSecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses complete on an async dispatch of a request already authorized,
+                        // which the stateless filters do not authenticate again
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/api/public/**",
+                                "/api/internal/**",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
-                                "/actuator/health"
+                                "/actuator/health",
+                                "/actuator/prometheus"
                         ).permitAll()
                         .anyRequest().authenticated());
 
+        http.addFilterBefore(trustedIdentityFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -0,0 +1,28 @@
+package com.proveritus.cloudutility.jpa;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates ids in blocks reserved from a shared generator table, one row per entity table.
+ * Unlike {@code GenerationType.IDENTITY}, ids are known before the insert, so Hibernate can send
+ * inserts as JDBC batches.
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledId {
+
+    String table() default "id_generator";
+
+    /**
+     * Number of ids reserved per round trip to the generator table.
+     */
+    int allocationSize() default 50;
+}
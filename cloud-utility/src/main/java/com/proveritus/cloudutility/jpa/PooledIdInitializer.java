@@ -0,0 +1,67 @@
+package com.proveritus.cloudutility.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves every {@link PooledId} segment past the highest id already stored in its entity table.
+ * Rows inserted before the switch from {@code IDENTITY} would otherwise collide with the first
+ * blocks handed out by the generator. Safe to run from several instances at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PooledIdInitializer implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(descriptor -> {
+                    if (descriptor.getGenerator() instanceof PooledIdGenerator generator
+                            && descriptor instanceof AbstractEntityPersister persister
+                            && persister.getTableName().equals(generator.getSegmentValue())) {
+                        advancePastExistingIds(generator, persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+                    }
+                });
+    }
+
+    private void advancePastExistingIds(PooledIdGenerator generator, String entityTable, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + entityTable, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out the block below the stored value, so leave a full block of headroom
+        long nextValue = maxId + generator.getIncrementSize() + 1;
+
+        String table = generator.getTableName();
+        String segmentColumn = generator.getSegmentColumnName();
+        String valueColumn = generator.getValueColumnName();
+        int updated = jdbcTemplate.update(
+                "UPDATE " + table + " SET " + valueColumn + " = ? WHERE " + segmentColumn + " = ? AND " + valueColumn + " < ?",
+                nextValue, entityTable, nextValue);
+        if (updated > 0) {
+            log.info("Advanced id generator for {} to {}", entityTable, nextValue);
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO " + table + " (" + segmentColumn + ", " + valueColumn + ") VALUES (?, ?)",
+                    entityTable, nextValue);
+            log.info("Initialized id generator for {} at {}", entityTable, nextValue);
+        } catch (DuplicateKeyException e) {
+            // The segment already exists and is ahead of the table, or another instance just created it
+            jdbcTemplate.update(
+                    "UPDATE " + table + " SET " + valueColumn + " = ? WHERE " + segmentColumn + " = ? AND " + valueColumn + " < ?",
+                    nextValue, entityTable, nextValue);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.proveritus.cloudutility.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Metrics shared by the servlet services: an {@code application} tag on every meter, latency
+ * histograms for HTTP server and client calls and for connection pool waits, and per-request SQL
+ * statement counts. Hikari, Feign and cache meters themselves come from their auto-configuration.
+ * When virtual threads are enabled, carrier thread pinning is reported as well.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final Set<String> HISTOGRAM_METRICS = Set.of(
+            "http.server.requests",
+            "http.client.requests",
+            "hikaricp.connections.acquire",
+            RequestStatementMetricsFilter.METRIC_NAME);
+
+    @Bean
+    public MeterFilter applicationTagMeterFilter(@Value("${spring.application.name}") String applicationName) {
+        return MeterFilter.commonTags(Tags.of("application", applicationName));
+    }
+
+    @Bean
+    public MeterFilter histogramMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HISTOGRAM_METRICS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingHibernateCustomizer() {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, StatementCountingInspector.class.getName());
+    }
+
+    @Bean
+    public RequestStatementMetricsFilter requestStatementMetricsFilter(MeterRegistry meterRegistry) {
+        return new RequestStatementMetricsFilter(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${virtual-threads.pinning-threshold:PT0.02S}") Duration pinningThreshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, pinningThreshold);
+    }
+}
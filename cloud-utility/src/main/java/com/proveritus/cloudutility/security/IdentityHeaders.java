@@ -0,0 +1,90 @@
+package com.proveritus.cloudutility.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The identity headers the api-gateway adds once it has verified the bearer token. The gateway signs
+ * the user id, URL-encoded username, comma-separated roles and the token expiry (epoch seconds), joined
+ * by newlines, with HMAC-SHA256 under {@code jwt.identity-headers.secret}, and removes any of these
+ * headers sent by the client. The gateway keeps its own copy of this format, as it cannot depend on
+ * this servlet library.
+ */
+public class IdentityHeaders {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USERNAME = "X-User-Name";
+    public static final String ROLES = "X-User-Roles";
+    public static final String EXPIRES = "X-Identity-Expires";
+    public static final String SIGNATURE = "X-Identity-Signature";
+    public static final List<String> NAMES = List.of(USER_ID, USERNAME, ROLES, EXPIRES, SIGNATURE);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public IdentityHeaders(String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * Builds the principal from the identity headers of the request. Returns {@code null} if they are
+     * missing, wrongly signed or expired; the caller then falls back to the bearer token.
+     */
+    public CustomPrincipal verify(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID);
+        String username = request.getHeader(USERNAME);
+        String roles = request.getHeader(ROLES);
+        String expires = request.getHeader(EXPIRES);
+        String signature = request.getHeader(SIGNATURE);
+        if (userId == null || username == null || roles == null || expires == null || signature == null) {
+            return null;
+        }
+        byte[] expected = sign(userId, username, roles, expires);
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        try {
+            if (Long.parseLong(expires) * 1000 <= System.currentTimeMillis()) {
+                return null;
+            }
+            List<GrantedAuthority> authorities = Arrays.stream(roles.split(","))
+                    .filter(StringUtils::hasText)
+                    .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                    .toList();
+            // The gateway only forwards users whose account flags are all set
+            return new CustomPrincipal(Long.parseLong(userId), URLDecoder.decode(username, StandardCharsets.UTF_8),
+                    null, "", authorities, true, true, true, true);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    byte[] sign(String userId, String username, String roles, String expires) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(String.join("\n", userId, username, roles, expires).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign identity headers", e);
+        }
+    }
+}
@@ -17,6 +17,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates requests from the bearer token. The principal is built from the token claims, so no
+ * user lookup happens per request; only tokens issued without those claims fall back to the
+ * {@link UserDetailsService}. Requests already authenticated by {@link TrustedIdentityFilter} are passed
+ * on without parsing the token. The {@link TokenRevocationChecker} may be {@code null}.
+ */
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -24,20 +30,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationChecker revocationChecker;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt, userDetailsService.loadUserByUsername(tokenProvider.getUsernameFromJWT(jwt)))) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = resolveUser(jwt);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (isUsable(userDetails)) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -46,6 +54,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUser(String jwt) {
+        CustomPrincipal principal = tokenProvider.getPrincipalFromJWT(jwt);
+        if (principal == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(tokenProvider.getUsernameFromJWT(jwt));
+            return tokenProvider.validateToken(jwt, userDetails) ? userDetails : null;
+        }
+        if (revocationChecker != null && revocationChecker.isRevoked(principal)) {
+            logger.debug("Rejected revoked token for user id: {}", principal.getId());
+            return null;
+        }
+        return principal;
+    }
+
+    private boolean isUsable(UserDetails userDetails) {
+        return userDetails != null
+                && userDetails.isEnabled()
+                && userDetails.isAccountNonExpired()
+                && userDetails.isAccountNonLocked()
+                && userDetails.isCredentialsNonExpired();
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
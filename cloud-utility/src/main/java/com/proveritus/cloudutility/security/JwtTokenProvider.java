@@ -1,19 +1,30 @@
 package com.proveritus.cloudutility.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.List;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_ENABLED = "enabled";
+    static final String CLAIM_ACCOUNT_NON_EXPIRED = "accountNonExpired";
+    static final String CLAIM_ACCOUNT_NON_LOCKED = "accountNonLocked";
+    static final String CLAIM_CREDENTIALS_NON_EXPIRED = "credentialsNonExpired";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -26,12 +37,55 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
-                .compact();
+                .setExpiration(expiryDate);
+
+        if (userPrincipal instanceof CustomPrincipal principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId())
+                    .claim(CLAIM_ROLES, principal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList())
+                    .claim(CLAIM_ENABLED, principal.isEnabled())
+                    .claim(CLAIM_ACCOUNT_NON_EXPIRED, principal.isAccountNonExpired())
+                    .claim(CLAIM_ACCOUNT_NON_LOCKED, principal.isAccountNonLocked())
+                    .claim(CLAIM_CREDENTIALS_NON_EXPIRED, principal.isCredentialsNonExpired());
+        }
+
+        return builder.signWith(SignatureAlgorithm.HS512, jwtSecret).compact();
+    }
+
+    /**
+     * Verifies the token and builds the principal from its claims without looking the user up.
+     * Returns {@code null} for tokens issued before the user claims were added, which callers have to
+     * resolve through a {@code UserDetailsService} instead.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or wrongly signed
+     */
+    public CustomPrincipal getPrincipalFromJWT(String token) {
+        Claims claims = getAllClaimsFromToken(token);
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+
+        return new CustomPrincipal(
+                userId.longValue(),
+                claims.getSubject(),
+                null,
+                "", // Password is not needed in this context
+                authorities,
+                isTrue(claims, CLAIM_ENABLED),
+                isTrue(claims, CLAIM_ACCOUNT_NON_EXPIRED),
+                isTrue(claims, CLAIM_ACCOUNT_NON_LOCKED),
+                isTrue(claims, CLAIM_CREDENTIALS_NON_EXPIRED)
+        );
     }
 
     public String getUsernameFromJWT(String token) {
@@ -56,4 +110,8 @@ public class JwtTokenProvider {
         final Date expiration = getClaimFromToken(token, Claims::getExpiration);
         return expiration.before(new Date());
     }
+
+    private static boolean isTrue(Claims claims, String name) {
+        return Boolean.TRUE.equals(claims.get(name, Boolean.class));
+    }
 }
@@ -0,0 +1,12 @@
+package com.proveritus.cloudutility.security;
+
+/**
+ * Optional check applied to principals built from token claims. Services that register one can
+ * reject tokens whose user has since been disabled, locked, deleted or given another role, without
+ * fetching the full user on every request.
+ */
+@FunctionalInterface
+public interface TokenRevocationChecker {
+
+    boolean isRevoked(CustomPrincipal principal);
+}
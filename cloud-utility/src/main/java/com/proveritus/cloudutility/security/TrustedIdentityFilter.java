@@ -0,0 +1,49 @@
+package com.proveritus.cloudutility.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests from the signed {@link IdentityHeaders} of the api-gateway, which has already
+ * verified the bearer token, so the token is not parsed again. Requests without valid headers are left
+ * to {@link JwtAuthenticationFilter}. Both {@link IdentityHeaders} and the {@link TokenRevocationChecker}
+ * may be {@code null}; without the former the filter does nothing.
+ */
+@RequiredArgsConstructor
+public class TrustedIdentityFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrustedIdentityFilter.class);
+
+    private final IdentityHeaders identityHeaders;
+    private final TokenRevocationChecker revocationChecker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (identityHeaders != null && request.getHeader(IdentityHeaders.SIGNATURE) != null) {
+            CustomPrincipal principal = identityHeaders.verify(request);
+            if (principal == null) {
+                logger.debug("Ignored identity headers that are wrongly signed or expired");
+            } else if (revocationChecker != null && revocationChecker.isRevoked(principal)) {
+                logger.debug("Rejected revoked identity for user id: {}", principal.getId());
+            } else {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,283 @@
+package com.proveritus.datagenerator;
+
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes generated rows straight into the property and user schemas with batched JDBC inserts,
+ * bypassing the services. The schemas must already exist (the services create them on startup).
+ * <p>
+ * Ids are assigned by the generator, so after loading the {@code id_generator} rows used by
+ * {@code @PooledId} are moved past the loaded ids, leaving a gap larger than any allocation size so
+ * that blocks a running service already reserved cannot overlap them either.
+ */
+@Slf4j
+public class BulkLoader {
+    static final String CREATED_BY = "data-generator";
+    private static final long ID_GAP = 1_000;
+
+    private final Connection propertyConnection;
+    private final Connection userConnection;
+    private final int batchSize;
+
+    public BulkLoader(Connection propertyConnection, Connection userConnection, int batchSize) {
+        this.propertyConnection = propertyConnection;
+        this.userConnection = userConnection;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * The last id in use per table, taking both the rows present and the ids already reserved through
+     * the {@code id_generator} table into account.
+     */
+    public PortfolioGenerator.IdOffsets readOffsets() throws SQLException {
+        return new PortfolioGenerator.IdOffsets(
+                lastUsedId(userConnection, "users"),
+                lastUsedId(propertyConnection, "properties"),
+                lastUsedId(propertyConnection, "floors"),
+                lastUsedId(propertyConnection, "units"));
+    }
+
+    public void loadUsers(List<UserRow> users, String passwordHash) throws SQLException {
+        userConnection.setAutoCommit(false);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = userConnection.prepareStatement("""
+                insert into users (id, username, email, password, first_name, last_name, role, enabled,
+                    account_non_expired, account_non_locked, credentials_non_expired,
+                    created_by, created_date, last_modified_by, last_modified_date, version, deleted)
+                values (?, ?, ?, ?, ?, ?, ?, true, true, true, true, ?, ?, ?, ?, 0, false)
+                """)) {
+            int pending = 0;
+            for (UserRow user : users) {
+                insert.setLong(1, user.id());
+                insert.setString(2, user.username());
+                insert.setString(3, user.email());
+                insert.setString(4, passwordHash);
+                insert.setString(5, user.firstName());
+                insert.setString(6, user.lastName());
+                insert.setString(7, user.role().name());
+                insert.setString(8, CREATED_BY);
+                insert.setTimestamp(9, now);
+                insert.setString(10, CREATED_BY);
+                insert.setTimestamp(11, now);
+                insert.addBatch();
+                if (++pending == batchSize) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+            if (!users.isEmpty()) {
+                advanceIdGenerator(userConnection, "users", users.get(users.size() - 1).id());
+            }
+            userConnection.commit();
+        } catch (SQLException e) {
+            userConnection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Inserts the properties with their floors, units and {@code property_stats} rows, committing
+     * after every batch. Each property is passed to {@code loaded} once it has been written.
+     *
+     * @return the number of rows inserted
+     */
+    public long loadProperties(Stream<GeneratedProperty> properties, Consumer<GeneratedProperty> loaded) throws SQLException {
+        propertyConnection.setAutoCommit(false);
+        long rows = 0;
+        long lastPropertyId = 0;
+        long lastFloorId = 0;
+        long lastUnitId = 0;
+        try (PreparedStatement propertyInsert = propertyConnection.prepareStatement("""
+                insert into properties (id, name, property_type, address, number_of_floors, number_of_units, managed_by,
+                    version)
+                values (?, ?, ?, ?, ?, ?, ?, 0)
+                """);
+             PreparedStatement floorInsert = propertyConnection.prepareStatement("""
+                     insert into floors (id, property_id, name, number_of_units, occupied_units, vacant_units, version)
+                     values (?, ?, ?, ?, ?, ?, 0)
+                     """);
+             PreparedStatement unitInsert = propertyConnection.prepareStatement("""
+                     insert into units (id, property_id, floor_id, name, size, rent_type, rate_per_sqm, monthly_rent,
+                         occupancy_status, tenant, version)
+                     values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+                     """);
+             PreparedStatement statsInsert = propertyConnection.prepareStatement("""
+                     insert into property_stats (property_id, total_floors, total_units, occupied_units, vacant_units,
+                         reserved_units, not_available_units, under_maintenance_units, total_rental_income,
+                         potential_rental_income)
+                     values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                     """)) {
+            int pendingRows = 0;
+            Iterator<GeneratedProperty> iterator = properties.iterator();
+            List<GeneratedProperty> pending = new ArrayList<>();
+            while (iterator.hasNext()) {
+                GeneratedProperty generated = iterator.next();
+                addProperty(propertyInsert, statsInsert, generated);
+                for (FloorRow floor : generated.floors()) {
+                    addFloor(floorInsert, floor);
+                    lastFloorId = floor.id();
+                }
+                for (UnitRow unit : generated.units()) {
+                    addUnit(unitInsert, unit);
+                    lastUnitId = unit.id();
+                }
+                lastPropertyId = generated.property().id();
+                pending.add(generated);
+                pendingRows += generated.rowCount();
+
+                if (pendingRows >= batchSize) {
+                    rows += flush(pendingRows, pending, loaded, propertyInsert, floorInsert, unitInsert, statsInsert);
+                    pendingRows = 0;
+                }
+            }
+            rows += flush(pendingRows, pending, loaded, propertyInsert, floorInsert, unitInsert, statsInsert);
+
+            advanceIdGenerator(propertyConnection, "properties", lastPropertyId);
+            advanceIdGenerator(propertyConnection, "floors", lastFloorId);
+            advanceIdGenerator(propertyConnection, "units", lastUnitId);
+            propertyConnection.commit();
+            return rows;
+        } catch (SQLException e) {
+            propertyConnection.rollback();
+            throw e;
+        }
+    }
+
+    private long flush(int pendingRows, List<GeneratedProperty> pending, Consumer<GeneratedProperty> loaded,
+                       PreparedStatement... inserts) throws SQLException {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        // Statements run in foreign key order: properties, floors, units, then stats
+        for (PreparedStatement insert : inserts) {
+            insert.executeBatch();
+        }
+        propertyConnection.commit();
+        pending.forEach(loaded);
+        pending.clear();
+        return pendingRows;
+    }
+
+    private static void addProperty(PreparedStatement propertyInsert, PreparedStatement statsInsert,
+                                    GeneratedProperty generated) throws SQLException {
+        PropertyRow property = generated.property();
+        propertyInsert.setLong(1, property.id());
+        propertyInsert.setString(2, property.name());
+        propertyInsert.setString(3, property.propertyType().name());
+        propertyInsert.setString(4, property.address());
+        propertyInsert.setInt(5, property.numberOfFloors());
+        propertyInsert.setInt(6, property.numberOfUnits());
+        propertyInsert.setLong(7, property.managedBy());
+        propertyInsert.addBatch();
+
+        statsInsert.setLong(1, property.id());
+        statsInsert.setLong(2, generated.floors().size());
+        statsInsert.setLong(3, generated.units().size());
+        statsInsert.setLong(4, generated.countUnits(OccupancyStatus.OCCUPIED));
+        statsInsert.setLong(5, generated.countUnits(OccupancyStatus.AVAILABLE));
+        statsInsert.setLong(6, generated.countUnits(OccupancyStatus.RESERVED));
+        statsInsert.setLong(7, generated.countUnits(OccupancyStatus.NOT_AVAILABLE));
+        statsInsert.setLong(8, generated.countUnits(OccupancyStatus.UNDER_MAINTENANCE));
+        statsInsert.setDouble(9, generated.rentalIncome());
+        statsInsert.setDouble(10, generated.potentialRentalIncome());
+        statsInsert.addBatch();
+    }
+
+    private static void addFloor(PreparedStatement floorInsert, FloorRow floor) throws SQLException {
+        floorInsert.setLong(1, floor.id());
+        floorInsert.setLong(2, floor.propertyId());
+        floorInsert.setString(3, floor.name());
+        floorInsert.setInt(4, floor.numberOfUnits());
+        floorInsert.setInt(5, floor.occupiedUnits());
+        floorInsert.setInt(6, floor.vacantUnits());
+        floorInsert.addBatch();
+    }
+
+    private static void addUnit(PreparedStatement unitInsert, UnitRow unit) throws SQLException {
+        unitInsert.setLong(1, unit.id());
+        unitInsert.setLong(2, unit.propertyId());
+        if (unit.floorId() != null) {
+            unitInsert.setLong(3, unit.floorId());
+        } else {
+            unitInsert.setNull(3, Types.BIGINT);
+        }
+        unitInsert.setString(4, unit.name());
+        unitInsert.setDouble(5, unit.size());
+        unitInsert.setString(6, unit.rentType().name());
+        if (unit.ratePerSqm() != null) {
+            unitInsert.setDouble(7, unit.ratePerSqm());
+        } else {
+            unitInsert.setNull(7, Types.DOUBLE);
+        }
+        unitInsert.setDouble(8, unit.monthlyRent());
+        unitInsert.setString(9, unit.occupancyStatus().name());
+        unitInsert.setString(10, unit.tenant());
+        unitInsert.addBatch();
+    }
+
+    private static long lastUsedId(Connection connection, String table) throws SQLException {
+        long lastId;
+        try (PreparedStatement query = connection.prepareStatement("select coalesce(max(id), 0) from " + table);
+             ResultSet result = query.executeQuery()) {
+            result.next();
+            lastId = result.getLong(1);
+        }
+        try (PreparedStatement query = connection.prepareStatement(
+                "select next_val from id_generator where sequence_name = ?")) {
+            query.setString(1, table);
+            try (ResultSet result = query.executeQuery()) {
+                if (result.next()) {
+                    lastId = Math.max(lastId, result.getLong(1));
+                }
+            }
+        }
+        return lastId;
+    }
+
+    private static void advanceIdGenerator(Connection connection, String table, long lastId) throws SQLException {
+        if (lastId == 0) {
+            return;
+        }
+        long nextValue = lastId + ID_GAP;
+        try (PreparedStatement update = connection.prepareStatement(
+                "update id_generator set next_val = ? where sequence_name = ? and next_val < ?")) {
+            update.setLong(1, nextValue);
+            update.setString(2, table);
+            update.setLong(3, nextValue);
+            if (update.executeUpdate() > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement exists = connection.prepareStatement(
+                "select 1 from id_generator where sequence_name = ?")) {
+            exists.setString(1, table);
+            try (ResultSet result = exists.executeQuery()) {
+                if (result.next()) {
+                    return;
+                }
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into id_generator (sequence_name, next_val) values (?, ?)")) {
+            insert.setString(1, table);
+            insert.setLong(2, nextValue);
+            insert.executeUpdate();
+        }
+        log.debug("Moved the {} id generator to {}", table, nextValue);
+    }
+}
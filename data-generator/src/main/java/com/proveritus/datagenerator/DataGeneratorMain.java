@@ -0,0 +1,50 @@
+package com.proveritus.datagenerator;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+
+/**
+ * Generates a portfolio and bulk loads it into the user and property schemas, then writes the
+ * manifest. The services' search index is not updated by the load and has to be rebuilt afterwards.
+ */
+public class DataGeneratorMain {
+    private static final int PROGRESS_EVERY = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        GeneratorOptions options = GeneratorOptions.parse(args);
+
+        try (Connection propertyConnection = DriverManager.getConnection(
+                options.propertyUrl(), options.propertyUsername(), options.propertyPassword());
+             Connection userConnection = DriverManager.getConnection(
+                     options.userUrl(), options.userUsername(), options.userPassword())) {
+            BulkLoader loader = new BulkLoader(propertyConnection, userConnection, options.batchSize());
+            PortfolioGenerator generator = new PortfolioGenerator(options.seed(), loader.readOffsets());
+            long started = System.nanoTime();
+
+            List<UserRow> users = generator.users(options.users());
+            loader.loadUsers(users, new BCryptPasswordEncoder().encode(options.password()));
+            System.out.printf("Loaded %d users%n", users.size());
+
+            Manifest.Collector collector = new Manifest.Collector(options.seed(), options.sampleSize(), users);
+            int[] loaded = {0};
+            long rows = loader.loadProperties(generator.properties(options.properties(), users), generated -> {
+                collector.add(generated);
+                if (++loaded[0] % PROGRESS_EVERY == 0) {
+                    System.out.printf("Loaded %d of %d properties%n", loaded[0], options.properties());
+                }
+            });
+
+            double minutes = (System.nanoTime() - started) / 60e9;
+            long totalRows = rows + users.size();
+            System.out.printf("Loaded %d rows in %.1f s (%.0f rows/min)%n", totalRows, minutes * 60, totalRows / minutes);
+
+            collector.build(options.password()).write(options.manifest());
+            System.out.printf("Manifest written to %s%n", options.manifest().toAbsolutePath());
+            System.out.println("Rebuild the search index with POST /api/properties/search/rebuild "
+                    + "or restart property-service with search.index.rebuild-on-startup=true");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.proveritus.datagenerator;
+
+/**
+ * A row of the {@code floors} table, with the occupancy counters already computed from its units.
+ */
+public record FloorRow(long id, long propertyId, String name, int numberOfUnits, int occupiedUnits, int vacantUnits) {
+}
@@ -0,0 +1,37 @@
+package com.proveritus.datagenerator;
+
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+
+import java.util.List;
+
+/**
+ * One generated property together with its floors and units.
+ */
+public record GeneratedProperty(PropertyRow property, List<FloorRow> floors, List<UnitRow> units) {
+
+    public int rowCount() {
+        // The property, its floors, its units and its property_stats row
+        return 2 + floors.size() + units.size();
+    }
+
+    public long countUnits(OccupancyStatus status) {
+        return units.stream().filter(unit -> unit.occupancyStatus() == status).count();
+    }
+
+    /**
+     * Monthly rent of the occupied units, as kept in {@code property_stats.total_rental_income}.
+     */
+    public double rentalIncome() {
+        return units.stream()
+                .filter(unit -> unit.occupancyStatus() == OccupancyStatus.OCCUPIED)
+                .mapToDouble(UnitRow::monthlyRent)
+                .sum();
+    }
+
+    /**
+     * Monthly rent of all units, as kept in {@code property_stats.potential_rental_income}.
+     */
+    public double potentialRentalIncome() {
+        return units.stream().mapToDouble(UnitRow::monthlyRent).sum();
+    }
+}
@@ -0,0 +1,79 @@
+package com.proveritus.datagenerator;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a generator run, read from {@code --name=value} arguments. The database defaults match
+ * the services' local MySQL setup.
+ *
+ * @param properties       number of properties to generate
+ * @param users            number of users to generate, at least two
+ * @param seed             seed of the generated data, so runs are repeatable
+ * @param propertyUrl      JDBC URL of the property-service schema
+ * @param propertyUsername user of the property-service schema
+ * @param propertyPassword password of the property-service schema
+ * @param userUrl          JDBC URL of the user-service schema
+ * @param userUsername     user of the user-service schema
+ * @param userPassword     password of the user-service schema
+ * @param batchSize        rows per JDBC batch and per commit
+ * @param sampleSize       ids sampled per type, status and role in the manifest
+ * @param password         password every generated user can log in with
+ * @param manifest         file the JSON manifest is written to
+ */
+public record GeneratorOptions(int properties,
+                               int users,
+                               long seed,
+                               String propertyUrl,
+                               String propertyUsername,
+                               String propertyPassword,
+                               String userUrl,
+                               String userUsername,
+                               String userPassword,
+                               int batchSize,
+                               int sampleSize,
+                               String password,
+                               Path manifest) {
+
+    private static final Set<String> NAMES = Set.of("properties", "users", "seed", "property-url",
+            "property-username", "property-password", "user-url", "user-username", "user-password", "batch-size",
+            "sample-size", "password", "manifest");
+
+    public static GeneratorOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        GeneratorOptions options = new GeneratorOptions(
+                Integer.parseInt(values.getOrDefault("properties", "5000")),
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("property-url",
+                        "jdbc:mysql://localhost:3306/property_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"),
+                values.getOrDefault("property-username", "root"),
+                values.getOrDefault("property-password", "sudo0047"),
+                values.getOrDefault("user-url",
+                        "jdbc:mysql://localhost:3306/user_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"),
+                values.getOrDefault("user-username", "root"),
+                values.getOrDefault("user-password", "sudo0047"),
+                Integer.parseInt(values.getOrDefault("batch-size", "2000")),
+                Integer.parseInt(values.getOrDefault("sample-size", "20")),
+                values.getOrDefault("password", "Password123!"),
+                Path.of(values.getOrDefault("manifest", "data-manifest.json")));
+        if (options.users() < 2) {
+            throw new IllegalArgumentException("--users must be at least 2, an admin and a property manager");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,227 @@
+package com.proveritus.datagenerator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.proveritus.cloudutility.enums.UserRole;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Describes a generated portfolio so benchmarks and load tests can pick representative ids instead of
+ * guessing: samples of properties per type and units per status, the smallest, median and largest
+ * property, the users per role and the managers with the most properties.
+ *
+ * @param seed             seed the portfolio was generated with
+ * @param userPassword     password of every generated user
+ * @param counts           rows generated per table
+ * @param idRanges         first and last generated id per table; ids in between are all used
+ * @param propertiesByType sampled property ids per type
+ * @param propertiesBySize smallest, median and largest property by number of units
+ * @param unitsByStatus    sampled unit ids per occupancy status
+ * @param usersByRole      sampled users per role
+ * @param busiestManagers  managers with the most properties, busiest first
+ * @param searchTerms      words every generated property name is built from
+ */
+public record Manifest(Instant generatedAt,
+                       long seed,
+                       String userPassword,
+                       Map<String, Long> counts,
+                       Map<String, IdRange> idRanges,
+                       Map<PropertyType, List<Long>> propertiesByType,
+                       Map<String, PropertySize> propertiesBySize,
+                       Map<OccupancyStatus, List<Long>> unitsByStatus,
+                       Map<UserRole, List<SampledUser>> usersByRole,
+                       List<ManagerLoad> busiestManagers,
+                       List<String> searchTerms) {
+
+    public record IdRange(long first, long last) {
+    }
+
+    public record PropertySize(long propertyId, int floors, int units) {
+    }
+
+    public record SampledUser(long id, String username) {
+    }
+
+    public record ManagerLoad(long userId, int properties) {
+    }
+
+    public void write(Path file) throws IOException {
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+
+    /**
+     * Collects the manifest while the portfolio is being loaded, without keeping the portfolio in
+     * memory. Samples are drawn with reservoir sampling from their own seeded random, so the same
+     * portfolio always gives the same manifest.
+     */
+    public static class Collector {
+        private static final int MANAGERS = 10;
+
+        private final long seed;
+        private final int sampleSize;
+        private final Random random;
+        private final List<UserRow> users;
+        private final Map<PropertyType, Reservoir> propertiesByType = new EnumMap<>(PropertyType.class);
+        private final Map<OccupancyStatus, Reservoir> unitsByStatus = new EnumMap<>(OccupancyStatus.class);
+        private final Map<Long, Integer> propertiesPerManager = new HashMap<>();
+        private int[] unitsPerProperty = new int[1024];
+        private int[] floorsPerProperty = new int[1024];
+        private int properties;
+        private long floors;
+        private long units;
+        private IdRange propertyIds;
+        private IdRange floorIds;
+        private IdRange unitIds;
+
+        public Collector(long seed, int sampleSize, List<UserRow> users) {
+            this.seed = seed;
+            this.sampleSize = sampleSize;
+            this.random = new Random(seed + 2);
+            this.users = users;
+        }
+
+        public void add(GeneratedProperty generated) {
+            PropertyRow property = generated.property();
+            if (properties == unitsPerProperty.length) {
+                unitsPerProperty = Arrays.copyOf(unitsPerProperty, properties * 2);
+                floorsPerProperty = Arrays.copyOf(floorsPerProperty, properties * 2);
+            }
+            unitsPerProperty[properties] = property.numberOfUnits();
+            floorsPerProperty[properties] = property.numberOfFloors();
+            properties++;
+            propertyIds = extend(propertyIds, property.id(), property.id());
+            propertiesByType.computeIfAbsent(property.propertyType(), type -> new Reservoir()).offer(property.id());
+            propertiesPerManager.merge(property.managedBy(), 1, Integer::sum);
+
+            if (!generated.floors().isEmpty()) {
+                floors += generated.floors().size();
+                floorIds = extend(floorIds, generated.floors().get(0).id(),
+                        generated.floors().get(generated.floors().size() - 1).id());
+            }
+            if (!generated.units().isEmpty()) {
+                units += generated.units().size();
+                unitIds = extend(unitIds, generated.units().get(0).id(),
+                        generated.units().get(generated.units().size() - 1).id());
+            }
+            for (UnitRow unit : generated.units()) {
+                unitsByStatus.computeIfAbsent(unit.occupancyStatus(), status -> new Reservoir()).offer(unit.id());
+            }
+        }
+
+        public Manifest build(String userPassword) {
+            Map<String, Long> counts = new HashMap<>();
+            counts.put("users", (long) users.size());
+            counts.put("properties", (long) properties);
+            counts.put("floors", floors);
+            counts.put("units", units);
+
+            Map<String, IdRange> idRanges = new HashMap<>();
+            if (!users.isEmpty()) {
+                idRanges.put("users", new IdRange(users.get(0).id(), users.get(users.size() - 1).id()));
+            }
+            putIfPresent(idRanges, "properties", propertyIds);
+            putIfPresent(idRanges, "floors", floorIds);
+            putIfPresent(idRanges, "units", unitIds);
+
+            Map<UserRole, Reservoir> userSamples = new EnumMap<>(UserRole.class);
+            Map<Long, UserRow> usersById = new HashMap<>();
+            for (UserRow user : users) {
+                userSamples.computeIfAbsent(user.role(), role -> new Reservoir()).offer(user.id());
+                usersById.put(user.id(), user);
+            }
+            Map<UserRole, List<SampledUser>> usersByRole = new EnumMap<>(UserRole.class);
+            userSamples.forEach((role, sample) -> usersByRole.put(role, sample.ids().stream()
+                    .map(id -> new SampledUser(id, usersById.get(id).username()))
+                    .toList()));
+
+            List<ManagerLoad> busiestManagers = propertiesPerManager.entrySet().stream()
+                    .map(entry -> new ManagerLoad(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingInt(ManagerLoad::properties).reversed()
+                            .thenComparingLong(ManagerLoad::userId))
+                    .limit(MANAGERS)
+                    .toList();
+
+            return new Manifest(Instant.now(), seed, userPassword, counts, idRanges,
+                    samples(propertiesByType, PropertyType.class), propertiesBySize(),
+                    samples(unitsByStatus, OccupancyStatus.class), usersByRole, busiestManagers,
+                    PortfolioGenerator.NAME_WORDS);
+        }
+
+        /**
+         * Property ids are consecutive, so a property is found from its position in generation order.
+         */
+        private Map<String, PropertySize> propertiesBySize() {
+            Map<String, PropertySize> sizes = new HashMap<>();
+            if (properties == 0) {
+                return sizes;
+            }
+            Integer[] order = new Integer[properties];
+            for (int i = 0; i < properties; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt(index -> unitsPerProperty[index]));
+            sizes.put("smallest", size(order[0]));
+            sizes.put("median", size(order[properties / 2]));
+            sizes.put("largest", size(order[properties - 1]));
+            return sizes;
+        }
+
+        private PropertySize size(int index) {
+            return new PropertySize(propertyIds.first() + index, floorsPerProperty[index], unitsPerProperty[index]);
+        }
+
+        private static <E extends Enum<E>> Map<E, List<Long>> samples(Map<E, Reservoir> reservoirs, Class<E> type) {
+            Map<E, List<Long>> samples = new EnumMap<>(type);
+            reservoirs.forEach((key, reservoir) -> samples.put(key, reservoir.ids()));
+            return samples;
+        }
+
+        private static IdRange extend(IdRange range, long first, long last) {
+            return range == null ? new IdRange(first, last) : new IdRange(range.first(), last);
+        }
+
+        private static void putIfPresent(Map<String, IdRange> ranges, String table, IdRange range) {
+            if (range != null) {
+                ranges.put(table, range);
+            }
+        }
+
+        private class Reservoir {
+            private final List<Long> ids = new ArrayList<>();
+            private long seen;
+
+            void offer(long id) {
+                seen++;
+                if (ids.size() < sampleSize) {
+                    ids.add(id);
+                    return;
+                }
+                long slot = (long) (random.nextDouble() * seen);
+                if (slot < sampleSize) {
+                    ids.set((int) slot, id);
+                }
+            }
+
+            List<Long> ids() {
+                return ids.stream().sorted().toList();
+            }
+        }
+    }
+}
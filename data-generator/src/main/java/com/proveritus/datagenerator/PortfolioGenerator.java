@@ -0,0 +1,233 @@
+package com.proveritus.datagenerator;
+
+import com.proveritus.cloudutility.enums.UserRole;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.enums.RentType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates users and property portfolios whose shape follows what real portfolios look like: mostly
+ * residential buildings, a long tail of very large properties, unit sizes and rents that depend on the
+ * property type, and a handful of managers responsible for most of the properties.
+ * <p>
+ * The same seed and id offsets always produce the same rows, and properties are generated lazily so
+ * portfolios of any size can be streamed into the database.
+ */
+public class PortfolioGenerator {
+    static final List<String> NAME_WORDS = List.of("Harbour", "Garden", "Central", "Riverside", "Park",
+            "Summit", "Heritage", "Crescent", "Meadow", "Lakeside", "Granite", "Sunrise", "Acacia", "Jacaranda",
+            "Msasa", "Baobab", "Kopje", "Highveld", "Savanna", "Victoria");
+    private static final List<String> SUFFIXES = List.of("Towers", "Court", "Plaza", "House", "Centre", "Heights",
+            "Park", "Mews", "Estate", "Gardens");
+    private static final List<String> STREETS = List.of("Samora Machel Ave", "Julius Nyerere Way",
+            "Jason Moyo St", "Borrowdale Rd", "Enterprise Rd", "Churchill Ave", "Fife St", "Leopold Takawira St",
+            "Herbert Chitepo Ave", "Nelson Mandela Ave", "Josiah Tongogara St", "Kwame Nkrumah Ave");
+    private static final List<String> CITIES = List.of("Harare", "Bulawayo", "Mutare", "Gweru", "Masvingo");
+    private static final List<String> FIRST_NAMES = List.of("Tendai", "Rudo", "Farai", "Chipo", "Tatenda",
+            "Nyasha", "Tafadzwa", "Kudzai", "Rumbidzai", "Tinashe", "Blessing", "Grace", "Simba", "Thabo", "Sipho");
+    private static final List<String> LAST_NAMES = List.of("Moyo", "Ncube", "Sibanda", "Dube", "Mpofu",
+            "Chikwanha", "Mutasa", "Chirwa", "Banda", "Ndlovu", "Zulu", "Mhlanga", "Marufu", "Gumbo", "Nyathi");
+    private static final List<String> COMPANY_WORDS = List.of("Apex", "Zambezi", "Limpopo", "Kariba", "Ruya",
+            "Eastgate", "Union", "Pioneer", "Crown", "Delta");
+    private static final List<String> COMPANY_SUFFIXES = List.of("Holdings", "Traders", "Logistics",
+            "Consulting", "Pharmacy", "Motors", "Foods", "Engineering");
+
+    private static final Weighted<PropertyType> PROPERTY_TYPES = new Weighted<PropertyType>()
+            .add(PropertyType.RESIDENTIAL, 55).add(PropertyType.COMMERCIAL, 28)
+            .add(PropertyType.INDUSTRIAL, 12).add(PropertyType.LAND, 5);
+    private static final Weighted<OccupancyStatus> OCCUPANCY = new Weighted<OccupancyStatus>()
+            .add(OccupancyStatus.OCCUPIED, 74).add(OccupancyStatus.AVAILABLE, 12)
+            .add(OccupancyStatus.RESERVED, 4).add(OccupancyStatus.UNDER_MAINTENANCE, 4)
+            .add(OccupancyStatus.NOT_AVAILABLE, 3).add(OccupancyStatus.BLOCKED, 3);
+    private static final Weighted<UserRole> ROLES = new Weighted<UserRole>()
+            .add(UserRole.PROPERTY_MANAGER, 40).add(UserRole.AGENT, 28)
+            .add(UserRole.VIEWER, 30).add(UserRole.ADMIN, 2);
+    private static final Map<PropertyType, Profile> PROFILES = new EnumMap<>(Map.of(
+            PropertyType.RESIDENTIAL, new Profile(4, 0.7, 40, 6, 0.6, 40, 85, 0.35, 9,
+                    new Weighted<RentType>().add(RentType.FLAT, 70).add(RentType.PSM, 25).add(RentType.OTHER, 5)),
+            PropertyType.COMMERCIAL, new Profile(6, 0.8, 60, 4, 0.9, 50, 120, 0.7, 16,
+                    new Weighted<RentType>().add(RentType.PSM, 80).add(RentType.FLAT, 15).add(RentType.OTHER, 5)),
+            PropertyType.INDUSTRIAL, new Profile(1, 0.4, 4, 3, 0.7, 20, 600, 0.6, 5,
+                    new Weighted<RentType>().add(RentType.PSM, 70).add(RentType.FLAT, 25).add(RentType.OTHER, 5)),
+            PropertyType.LAND, new Profile(0, 0, 0, 3, 0.6, 12, 2000, 0.8, 0.8,
+                    new Weighted<RentType>().add(RentType.FLAT, 60).add(RentType.OTHER, 30).add(RentType.PSM, 10))));
+
+    private final long seed;
+    private final IdOffsets offsets;
+
+    public PortfolioGenerator(long seed, IdOffsets offsets) {
+        this.seed = seed;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Users with roles in realistic proportions. There is always at least one admin and one property
+     * manager, so every property can be assigned.
+     */
+    public List<UserRow> users(int count) {
+        Random random = new Random(seed);
+        List<UserRow> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = offsets.users() + i + 1;
+            UserRole role = i == 0 ? UserRole.ADMIN : i == 1 ? UserRole.PROPERTY_MANAGER : ROLES.pick(random);
+            String firstName = pick(FIRST_NAMES, random);
+            String lastName = pick(LAST_NAMES, random);
+            String username = (firstName.charAt(0) + lastName).toLowerCase() + id;
+            users.add(new UserRow(id, username, username + "@proveritus.com", firstName, lastName, role));
+        }
+        return users;
+    }
+
+    /**
+     * Lazily generated properties, each managed by one of the given users with the property manager
+     * role. Managers are picked with a skew, so a few of them manage a large share of the portfolio.
+     */
+    public Stream<GeneratedProperty> properties(int count, List<UserRow> users) {
+        List<Long> managers = users.stream()
+                .filter(user -> user.role() == UserRole.PROPERTY_MANAGER)
+                .map(UserRow::id)
+                .toList();
+        if (managers.isEmpty()) {
+            throw new IllegalArgumentException("At least one property manager is needed to assign properties");
+        }
+
+        Random random = new Random(seed + 1);
+        long[] nextIds = {offsets.properties() + 1, offsets.floors() + 1, offsets.units() + 1};
+        return IntStream.range(0, count)
+                .mapToObj(index -> property(random, nextIds, managers));
+    }
+
+    private GeneratedProperty property(Random random, long[] nextIds, List<Long> managers) {
+        long propertyId = nextIds[0]++;
+        PropertyType type = PROPERTY_TYPES.pick(random);
+        Profile profile = PROFILES.get(type);
+        int floorCount = profile.floorMedian() == 0 ? 0
+                : logNormalInt(random, profile.floorMedian(), profile.floorSigma(), profile.maxFloors());
+
+        List<FloorRow> floors = new ArrayList<>(floorCount);
+        List<UnitRow> units = new ArrayList<>();
+        if (floorCount == 0) {
+            int plots = logNormalInt(random, profile.unitMedian(), profile.unitSigma(), profile.maxUnitsPerFloor());
+            for (int u = 0; u < plots; u++) {
+                units.add(unit(random, nextIds[2]++, propertyId, null, "Plot " + (u + 1), type, profile));
+            }
+        }
+        for (int f = 0; f < floorCount; f++) {
+            long floorId = nextIds[1]++;
+            int unitCount = logNormalInt(random, profile.unitMedian(), profile.unitSigma(), profile.maxUnitsPerFloor());
+            int occupied = 0;
+            int vacant = 0;
+            for (int u = 0; u < unitCount; u++) {
+                UnitRow unit = unit(random, nextIds[2]++, propertyId, floorId,
+                        floorLabel(f) + "-" + String.format("%02d", u + 1), type, profile);
+                occupied += unit.occupancyStatus() == OccupancyStatus.OCCUPIED ? 1 : 0;
+                vacant += unit.occupancyStatus() == OccupancyStatus.AVAILABLE ? 1 : 0;
+                units.add(unit);
+            }
+            floors.add(new FloorRow(floorId, propertyId, floorName(f), unitCount, occupied, vacant));
+        }
+
+        // Squaring a uniform value favours the first managers in the list
+        double skew = random.nextDouble();
+        long managedBy = managers.get((int) (skew * skew * managers.size()));
+        String name = pick(NAME_WORDS, random) + " " + pick(SUFFIXES, random) + " " + propertyId;
+        String address = (1 + random.nextInt(500)) + " " + pick(STREETS, random) + ", " + pick(CITIES, random);
+        PropertyRow property = new PropertyRow(propertyId, name, type, address, floors.size(), units.size(), managedBy);
+        return new GeneratedProperty(property, floors, units);
+    }
+
+    private UnitRow unit(Random random, long id, long propertyId, Long floorId, String name,
+                         PropertyType type, Profile profile) {
+        double size = round(Math.max(10, logNormal(random, profile.sizeMedian(), profile.sizeSigma())), 1);
+        RentType rentType = profile.rentTypes().pick(random);
+        double rate = round(logNormal(random, profile.rateMedian(), 0.25), 2);
+        double monthlyRent = rentType == RentType.PSM
+                ? round(size * rate, 2)
+                : Math.max(10, Math.round(size * rate * logNormal(random, 1, 0.15) / 10) * 10.0);
+        OccupancyStatus status = OCCUPANCY.pick(random);
+        String tenant = status == OccupancyStatus.OCCUPIED || status == OccupancyStatus.RESERVED
+                ? tenant(random, type) : null;
+        return new UnitRow(id, propertyId, floorId, name, size, rentType,
+                rentType == RentType.PSM ? rate : null, monthlyRent, status, tenant);
+    }
+
+    private static String tenant(Random random, PropertyType type) {
+        if (type == PropertyType.RESIDENTIAL) {
+            return pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random);
+        }
+        return pick(COMPANY_WORDS, random) + " " + pick(COMPANY_SUFFIXES, random);
+    }
+
+    private static String floorName(int index) {
+        return index == 0 ? "Ground Floor" : "Floor " + index;
+    }
+
+    private static String floorLabel(int index) {
+        return index == 0 ? "G" : String.valueOf(index);
+    }
+
+    private static double logNormal(Random random, double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    private static int logNormalInt(Random random, double median, double sigma, int max) {
+        return (int) Math.min(max, Math.max(1, Math.round(logNormal(random, median, sigma))));
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * Last id already used in each table; generated ids continue after it.
+     */
+    public record IdOffsets(long users, long properties, long floors, long units) {
+        public static final IdOffsets NONE = new IdOffsets(0, 0, 0, 0);
+    }
+
+    /**
+     * Distributions of one property type. Counts and sizes are log-normal around their median, which
+     * gives the long tail of very large buildings and units seen in real portfolios.
+     */
+    private record Profile(double floorMedian, double floorSigma, int maxFloors,
+                           double unitMedian, double unitSigma, int maxUnitsPerFloor,
+                           double sizeMedian, double sizeSigma, double rateMedian,
+                           Weighted<RentType> rentTypes) {
+    }
+
+    private static class Weighted<T> {
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> cumulativeWeights = new ArrayList<>();
+        private int total;
+
+        Weighted<T> add(T value, int weight) {
+            total += weight;
+            values.add(value);
+            cumulativeWeights.add(total);
+            return this;
+        }
+
+        T pick(Random random) {
+            int point = random.nextInt(total);
+            for (int i = 0; i < values.size(); i++) {
+                if (point < cumulativeWeights.get(i)) {
+                    return values.get(i);
+                }
+            }
+            throw new IllegalStateException("Weights do not add up");
+        }
+    }
+}
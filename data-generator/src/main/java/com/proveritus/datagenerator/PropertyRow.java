@@ -0,0 +1,10 @@
+package com.proveritus.datagenerator;
+
+import com.proveritus.propertyservice.enums.PropertyType;
+
+/**
+ * A row of the {@code properties} table.
+ */
+public record PropertyRow(long id, String name, PropertyType propertyType, String address,
+                          int numberOfFloors, int numberOfUnits, long managedBy) {
+}
@@ -0,0 +1,12 @@
+package com.proveritus.datagenerator;
+
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.RentType;
+
+/**
+ * A row of the {@code units} table. {@code floorId} is {@code null} for units not on a floor, such as
+ * plots of land.
+ */
+public record UnitRow(long id, long propertyId, Long floorId, String name, double size, RentType rentType,
+                      Double ratePerSqm, double monthlyRent, OccupancyStatus occupancyStatus, String tenant) {
+}
@@ -0,0 +1,9 @@
+package com.proveritus.datagenerator;
+
+import com.proveritus.cloudutility.enums.UserRole;
+
+/**
+ * A row of the user-service {@code users} table. Every generated user shares the same password hash.
+ */
+public record UserRow(long id, String username, String email, String firstName, String lastName, UserRole role) {
+}
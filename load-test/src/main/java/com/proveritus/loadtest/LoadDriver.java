@@ -0,0 +1,183 @@
+package com.proveritus.loadtest;
+
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Sends the configured mix of requests from a fixed set of workers and records the latency of each
+ * request by operation. Each worker has one request in flight at a time. When a target rate is set,
+ * workers send on a fixed schedule and latency is measured from the scheduled send time, so a slow
+ * response also counts against the requests queued behind it.
+ */
+public class LoadDriver {
+    private static final OccupancyStatus[] STATUSES = OccupancyStatus.values();
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final String authorization;
+    private final LoadTestOptions options;
+    private final PortfolioSeeder.Portfolio portfolio;
+    private final Operation[] schedule;
+
+    public LoadDriver(HttpClient httpClient, URI baseUri, String authorization,
+                      LoadTestOptions options, PortfolioSeeder.Portfolio portfolio) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.authorization = authorization;
+        this.options = options;
+        this.portfolio = portfolio;
+        this.schedule = options.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+
+    public Map<Operation, OperationStats> run() throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<Map<Operation, OperationStats>>> results = new ArrayList<>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                Random random = new Random(options.seed() + i);
+                results.add(workers.submit(() -> work(random, start, measureFrom, end)));
+            }
+
+            Map<Operation, OperationStats> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, OperationStats>> result : results) {
+                result.get().forEach((operation, stats) ->
+                        merged.computeIfAbsent(operation, key -> new OperationStats()).add(stats));
+            }
+            return merged;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<Operation, OperationStats> work(Random random, long start, long measureFrom, long end) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        long interval = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(options.concurrency()) / options.rate() : 0;
+        // Spread the workers' schedules so they do not all send at the same instant
+        long scheduled = start + (interval > 0 ? (long) (random.nextDouble() * interval) : 0);
+
+        while (true) {
+            long sendAt = interval > 0 ? scheduled : System.nanoTime();
+            if (sendAt >= end) {
+                return stats;
+            }
+            waitUntil(sendAt);
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = request(operation, random);
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return stats;
+            } catch (Exception e) {
+                failed = true;
+            }
+            long finished = System.nanoTime();
+
+            if (sendAt >= measureFrom) {
+                stats.computeIfAbsent(operation, key -> new OperationStats()).record(finished - sendAt, failed);
+            }
+            scheduled += interval;
+        }
+    }
+
+    private HttpRequest request(Operation operation, Random random) {
+        HttpRequest.Builder builder = switch (operation) {
+            case LIST -> get("/api/properties?page=" + random.nextInt(pageCount()) + "&size=" + options.pageSize());
+            case LIST_STREAM -> get("/api/properties?afterId=" + pick(portfolio.propertyIds(), random)
+                    + "&limit=" + options.pageSize())
+                    .header("Accept", NDJSON);
+            case SEARCH -> get("/api/properties/search?query="
+                    + URLEncoder.encode(pick(PortfolioSeeder.NAME_WORDS, random), StandardCharsets.UTF_8)
+                    + "&size=" + options.pageSize());
+            case STATS -> get("/api/properties/" + pick(portfolio.propertyIds(), random) + "/stats");
+            // One page holding every unit of the property, as the reactive listing returns them all
+            case UNITS -> get("/api/units?propertyId=" + pick(portfolio.propertyIds(), random)
+                    + "&size=" + options.floors() * options.unitsPerFloor());
+            case UNITS_STREAM -> get("/api/units?propertyId=" + pick(portfolio.propertyIds(), random))
+                    .header("Accept", NDJSON);
+            case OCCUPANCY -> HttpRequest.newBuilder(baseUri.resolve("/api/units/" + pick(portfolio.unitIds(), random)
+                            + "/occupancy?occupancyStatus=" + STATUSES[random.nextInt(STATUSES.length)]))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody());
+        };
+        return builder.header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private int pageCount() {
+        return Math.max(1, (portfolio.propertyIds().size() + options.pageSize() - 1) / options.pageSize());
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Latencies in microseconds and the number of failed requests of one operation.
+     */
+    public static class OperationStats {
+        private final Histogram latencies = new Histogram(3);
+        private long errors;
+
+        void record(long latencyNanos, boolean failed) {
+            latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            if (failed) {
+                errors++;
+            }
+        }
+
+        void add(OperationStats other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+
+        public Histogram getLatencies() {
+            return latencies;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+}
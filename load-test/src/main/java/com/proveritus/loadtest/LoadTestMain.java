@@ -0,0 +1,119 @@
+package com.proveritus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.cloudutility.security.CustomPrincipal;
+import com.proveritus.cloudutility.security.JwtTokenProvider;
+import com.proveritus.propertyservice.PropertyServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots property-service in this JVM against an in-memory H2 database in MySQL mode and a stub
+ * user-service, seeds a portfolio through the API, drives the configured workload and reports
+ * throughput and latency percentiles per endpoint. Exits with status 1 when the error rate is above
+ * {@code --max-error-rate}.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path workDir = Files.createTempDirectory("property-load-test");
+        boolean virtualThreads = options.virtualThreads() && Runtime.version().feature() >= 21;
+        if (options.virtualThreads() && !virtualThreads) {
+            System.out.printf("Virtual threads need Java 21; running on platform threads with Java %d%n",
+                    Runtime.version().feature());
+        }
+
+        LoadTestReport report;
+        try (StubUserService userService = new StubUserService(options.userLatency());
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(PropertyServiceApplication.class)
+                     .run(serviceArguments(userService.getUri(), workDir, virtualThreads))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+            String authorization = "Bearer " + adminToken(context.getBean(JwtTokenProvider.class));
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Seeding %d properties with %d floors of %d units%n",
+                    options.properties(), options.floors(), options.unitsPerFloor());
+            PortfolioSeeder.Portfolio portfolio = new PortfolioSeeder(httpClient, new ObjectMapper(), baseUri, authorization)
+                    .seed(options, context.getBean(JdbcTemplate.class));
+
+            System.out.printf("Running %s %s with %d workers (%s warmup) on %s threads%n", options.mix(),
+                    options.rate() > 0 ? "at " + options.rate() + " req/s" : "unthrottled",
+                    options.concurrency(), options.warmup(), virtualThreads ? "virtual" : "platform");
+            try (ResourceSampler sampler = new ResourceSampler().start()) {
+                Map<Operation, LoadDriver.OperationStats> stats =
+                        new LoadDriver(httpClient, baseUri, authorization, options, portfolio).run();
+                report = LoadTestReport.of(options, virtualThreads, stats, sampler.peaks());
+            }
+        }
+
+        report.print(System.out);
+        report.write(options.output());
+        System.out.printf("Report written to %s, service logs in %s%n", options.output().toAbsolutePath(), workDir);
+
+        if (report.errorRate() > options.maxErrorRate()) {
+            System.out.printf("Error rate %.2f%% is above the allowed %.2f%%%n",
+                    report.errorRate() * 100, options.maxErrorRate() * 100);
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Passed as command line arguments so they take precedence over the service's application.yml.
+     */
+    private static String[] serviceArguments(URI userServiceUri, Path workDir, boolean virtualThreads) {
+        return new String[]{
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:property_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                // Same in-memory database as the JDBC pool, for the reactive listings
+                "--spring.r2dbc.url=r2dbc:h2:mem:///property_db?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.search.backend.directory.type=local-heap",
+                "--search.index.rebuild-on-startup=false",
+                // H2 rejects the negative fetch size that makes MySQL stream the exports
+                "--export.fetch-size=500",
+                "--internal.api-token=load-test-token",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + userServiceUri,
+                "--audit.writer.spill-file=" + workDir.resolve("audit-spill.ndjson"),
+                "--logging.file.name=" + workDir.resolve("property-service.log"),
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        };
+    }
+
+    private static String adminToken(JwtTokenProvider tokenProvider) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        CustomPrincipal principal = new CustomPrincipal(1L, "user1", "user1@proveritus.com", "",
+                authorities, true, true, true, true);
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    }
+}
@@ -0,0 +1,96 @@
+package com.proveritus.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load test run, read from {@code --name=value} arguments. Every setting has a default
+ * so the harness runs without any arguments.
+ *
+ * @param duration        how long requests are measured, after the warmup
+ * @param warmup          how long requests are sent before measuring starts
+ * @param concurrency     number of workers, each with at most one request in flight
+ * @param rate            total requests per second across all workers, or 0 to send as fast as possible
+ * @param mix             relative weight of each operation
+ * @param properties      number of properties seeded before the run
+ * @param floors          floors per seeded property
+ * @param unitsPerFloor   units per seeded floor
+ * @param pageSize        page size of list and search requests
+ * @param userLatency     time the stub user-service takes to answer each request
+ * @param seed            seed of the random choices, so runs are repeatable
+ * @param maxErrorRate    fraction of failed requests above which the run fails
+ * @param virtualThreads  whether the service handles requests on virtual threads (needs Java 21)
+ * @param output          file the JSON report is written to
+ */
+public record LoadTestOptions(Duration duration,
+                              Duration warmup,
+                              int concurrency,
+                              int rate,
+                              Map<Operation, Integer> mix,
+                              int properties,
+                              int floors,
+                              int unitsPerFloor,
+                              int pageSize,
+                              Duration userLatency,
+                              long seed,
+                              double maxErrorRate,
+                              boolean virtualThreads,
+                              Path output) {
+
+    private static final Set<String> NAMES = Set.of("duration", "warmup", "concurrency", "rate", "mix",
+            "properties", "floors", "units-per-floor", "page-size", "user-latency", "seed", "max-error-rate",
+            "virtual-threads", "output");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                Duration.parse(values.getOrDefault("warmup", "PT15S")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Integer.parseInt(values.getOrDefault("rate", "0")),
+                parseMix(values.getOrDefault("mix", "list=50,search=20,stats=20,occupancy=10")),
+                Integer.parseInt(values.getOrDefault("properties", "200")),
+                Integer.parseInt(values.getOrDefault("floors", "4")),
+                Integer.parseInt(values.getOrDefault("units-per-floor", "10")),
+                Integer.parseInt(values.getOrDefault("page-size", "20")),
+                Duration.parse(values.getOrDefault("user-latency", "PT0.005S")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Path.of(values.getOrDefault("output", "load-test-result.json")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in --mix but got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+}
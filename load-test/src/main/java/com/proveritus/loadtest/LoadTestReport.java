@@ -0,0 +1,95 @@
+package com.proveritus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint, plus the totals of the whole run and the peak
+ * resource use of the JVM. Latencies are in milliseconds; throughput is requests per second over the
+ * measured period.
+ */
+public record LoadTestReport(Instant finishedAt,
+                             long durationSeconds,
+                             int concurrency,
+                             int targetRate,
+                             boolean virtualThreads,
+                             Map<Operation, Integer> mix,
+                             List<EndpointResult> endpoints,
+                             EndpointResult total,
+                             Resources resources) {
+
+    /**
+     * Peaks over the warmup and the measured period; the resident set size is -1 where unknown.
+     */
+    public record Resources(int peakPlatformThreads, long peakHeapUsedMb, long peakResidentSetMb) {
+    }
+
+    public record EndpointResult(String endpoint, long requests, long errors, double throughput,
+                                 double p50, double p95, double p99, double max) {
+
+        static EndpointResult of(String endpoint, Histogram latencies, long errors, double seconds) {
+            return new EndpointResult(endpoint, latencies.getTotalCount(), errors,
+                    latencies.getTotalCount() / seconds,
+                    millis(latencies, 50), millis(latencies, 95), millis(latencies, 99),
+                    latencies.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram latencies, double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    public static LoadTestReport of(LoadTestOptions options, boolean virtualThreads,
+                                    Map<Operation, LoadDriver.OperationStats> stats, Resources resources) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        List<EndpointResult> endpoints = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Map.Entry<Operation, LoadDriver.OperationStats> entry : stats.entrySet()) {
+            LoadDriver.OperationStats operationStats = entry.getValue();
+            endpoints.add(EndpointResult.of(entry.getKey().getEndpoint(), operationStats.getLatencies(),
+                    operationStats.getErrors(), seconds));
+            all.add(operationStats.getLatencies());
+            allErrors += operationStats.getErrors();
+        }
+        return new LoadTestReport(Instant.now(), options.duration().toSeconds(), options.concurrency(),
+                options.rate(), virtualThreads, options.mix(), endpoints,
+                EndpointResult.of("total", all, allErrors, seconds), resources);
+    }
+
+    public double errorRate() {
+        return total.requests() == 0 ? 1 : (double) total.errors() / total.requests();
+    }
+
+    public void print(PrintStream out) {
+        String format = "%-34s %9s %7s %9s %9s %9s %9s %9s%n";
+        out.printf(format, "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        endpoints.forEach(result -> print(out, result));
+        print(out, total);
+        out.printf("%s threads: peak %d platform threads, %d MB heap used, %s resident%n",
+                virtualThreads ? "Virtual" : "Platform", resources.peakPlatformThreads(), resources.peakHeapUsedMb(),
+                resources.peakResidentSetMb() < 0 ? "unknown" : resources.peakResidentSetMb() + " MB");
+    }
+
+    public void write(Path file) throws IOException {
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+
+    private static void print(PrintStream out, EndpointResult result) {
+        out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", result.endpoint(), result.requests(),
+                result.errors(), result.throughput(), result.p50(), result.p95(), result.p99(), result.max());
+    }
+}
@@ -0,0 +1,42 @@
+package com.proveritus.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The requests a load test mixes, each reported separately under its endpoint.
+ */
+public enum Operation {
+    LIST("GET /api/properties"),
+    LIST_STREAM("GET /api/properties (NDJSON)"),
+    SEARCH("GET /api/properties/search"),
+    STATS("GET /api/properties/{id}/stats"),
+    UNITS("GET /api/units?propertyId={id}"),
+    UNITS_STREAM("GET /api/units?propertyId={id} (NDJSON)"),
+    OCCUPANCY("PATCH /api/units/{id}/occupancy");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Name as used in {@code --mix}, such as {@code units-stream}.
+     */
+    public String getOptionName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.getOptionName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + name + "', expected one of "
+                        + Arrays.stream(values()).map(Operation::getOptionName).toList()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.proveritus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.dto.FloorDTO;
+import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.enums.RentType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the portfolio the workload runs against through the property tree endpoint, so the data is
+ * indexed and its statistics initialised exactly as in production, then reads back the generated ids.
+ */
+public class PortfolioSeeder {
+    static final List<String> NAME_WORDS = List.of("Harbour", "Garden", "Central", "Riverside", "Park",
+            "Summit", "Heritage", "Crescent", "Meadow", "Lakeside", "Granite", "Sunrise");
+    private static final List<String> STREETS = List.of("Samora Machel Ave", "Julius Nyerere Way",
+            "Jason Moyo St", "Borrowdale Rd", "Enterprise Rd", "Churchill Ave", "Fife St", "Leopold Takawira St");
+    private static final List<String> SUFFIXES = List.of("Towers", "Court", "Plaza", "House", "Centre", "Heights");
+    private static final OccupancyStatus[] STATUSES = OccupancyStatus.values();
+    private static final PropertyType[] PROPERTY_TYPES = PropertyType.values();
+    private static final int MANAGERS = 50;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final String authorization;
+
+    public PortfolioSeeder(HttpClient httpClient, ObjectMapper objectMapper, URI baseUri, String authorization) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.authorization = authorization;
+    }
+
+    public Portfolio seed(LoadTestOptions options, JdbcTemplate jdbcTemplate) throws IOException, InterruptedException {
+        Random random = new Random(options.seed());
+        for (int i = 1; i <= options.properties(); i++) {
+            PropertyDTO property = property(i, options.floors(), options.unitsPerFloor(), random);
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/properties/tree"))
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(property)))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding property " + i + " failed with status "
+                        + response.statusCode() + ": " + response.body());
+            }
+        }
+
+        return new Portfolio(
+                jdbcTemplate.queryForList("select id from properties order by id", Long.class),
+                jdbcTemplate.queryForList("select id from units order by id", Long.class));
+    }
+
+    private static PropertyDTO property(int index, int floors, int unitsPerFloor, Random random) {
+        List<FloorDTO> floorDTOs = new ArrayList<>(floors);
+        for (int f = 0; f < floors; f++) {
+            List<UnitDTO> units = new ArrayList<>(unitsPerFloor);
+            for (int u = 0; u < unitsPerFloor; u++) {
+                double size = 40 + random.nextInt(160);
+                double rate = 8 + random.nextInt(12);
+                OccupancyStatus status = STATUSES[random.nextInt(STATUSES.length)];
+                units.add(UnitDTO.builder()
+                        .name("P" + index + "-F" + f + "-U" + u)
+                        .size(size)
+                        .rentType(RentType.PSM)
+                        .ratePerSqm(rate)
+                        .monthlyRent(size * rate)
+                        .occupancyStatus(status)
+                        .tenant(status == OccupancyStatus.OCCUPIED ? "Tenant " + index + "-" + f + "-" + u : null)
+                        .build());
+            }
+            floorDTOs.add(FloorDTO.builder().name("Floor " + f).units(units).build());
+        }
+
+        return PropertyDTO.builder()
+                .name(NAME_WORDS.get(random.nextInt(NAME_WORDS.size())) + " "
+                        + SUFFIXES.get(random.nextInt(SUFFIXES.size())) + " " + index)
+                .propertyType(PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)])
+                .address((1 + random.nextInt(400)) + " " + STREETS.get(random.nextInt(STREETS.size())))
+                .managedBy((long) (1 + random.nextInt(MANAGERS)))
+                .floors(floorDTOs)
+                .build();
+    }
+
+    /**
+     * Ids of the seeded rows, which the workload picks its targets from.
+     */
+    public record Portfolio(List<Long> propertyIds, List<Long> unitIds) {
+    }
+}
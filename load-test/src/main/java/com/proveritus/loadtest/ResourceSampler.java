@@ -0,0 +1,77 @@
+package com.proveritus.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the memory and platform thread count of this JVM while the workload runs and keeps the
+ * peaks. Virtual threads are not platform threads and do not show up in the thread count; their
+ * stacks live on the heap, while platform thread stacks are native memory and only show in the
+ * resident set size. The driver shares the JVM with the service, so its own threads are included.
+ */
+public class ResourceSampler implements AutoCloseable {
+    private static final long INTERVAL_MS = 250;
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long peakHeapUsed;
+    private volatile long peakResidentSet = -1;
+
+    public ResourceSampler start() {
+        threads.resetPeakThreadCount();
+        scheduler.scheduleAtFixedRate(this::sample, 0, INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public LoadTestReport.Resources peaks() {
+        return new LoadTestReport.Resources(threads.getPeakThreadCount(), megabytes(peakHeapUsed),
+                peakResidentSet < 0 ? -1 : megabytes(peakResidentSet));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sample() {
+        peakHeapUsed = Math.max(peakHeapUsed, memory.getHeapMemoryUsage().getUsed());
+        long residentSet = residentSet();
+        if (residentSet >= 0) {
+            peakResidentSet = Math.max(peakResidentSet, residentSet);
+        }
+    }
+
+    /**
+     * Resident set size from {@code /proc}, or -1 where it is not available.
+     */
+    private static long residentSet() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux; report the resident set as unknown
+        }
+        return -1;
+    }
+
+    private static long megabytes(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
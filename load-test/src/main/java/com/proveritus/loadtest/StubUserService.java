@@ -0,0 +1,133 @@
+package com.proveritus.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.cloudutility.dto.UserDTO;
+import com.proveritus.cloudutility.enums.UserRole;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers the user-service endpoints property-service calls, with made-up users for every id and a
+ * fixed delay per request to stand in for the network hop and the user-service database.
+ */
+@Slf4j
+public class StubUserService implements AutoCloseable {
+    private static final String USERS_PATH = "/api/users/";
+    private static final UserRole[] ROLES = UserRole.values();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration latency;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StubUserService(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext(USERS_PATH, this::handle);
+        server.start();
+    }
+
+    public URI getUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            pause();
+            String path = exchange.getRequestURI().getPath().substring(USERS_PATH.length());
+            String method = exchange.getRequestMethod();
+            String username = queryParameter(exchange.getRequestURI(), "username");
+
+            if (method.equals("POST") && path.equals("by-ids")) {
+                List<Long> ids;
+                try (InputStream body = exchange.getRequestBody()) {
+                    ids = objectMapper.readValue(body, new TypeReference<>() {
+                    });
+                }
+                respond(exchange, 200, ids.stream().map(StubUserService::user).toList());
+            } else if (method.equals("GET") && path.equals("by-username") && username.matches("user\\d+")) {
+                respond(exchange, 200, user(Long.parseLong(username.substring("user".length()))));
+            } else if (method.equals("GET") && path.matches("\\d+")) {
+                respond(exchange, 200, user(Long.parseLong(path)));
+            } else {
+                respond(exchange, 404, null);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stub user-service failed to answer {}", exchange.getRequestURI(), e);
+        }
+    }
+
+    private void pause() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String queryParameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                    return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return "";
+    }
+
+    static UserDTO user(long id) {
+        UserDTO user = new UserDTO();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@proveritus.com");
+        user.setFirstName("User");
+        user.setLastName(String.valueOf(id));
+        user.setRole(ROLES[(int) (id % ROLES.length)]);
+        user.setEnabled(true);
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        return user;
+    }
+}
@@ -1,26 +1,28 @@
 package com.proveritus.propertyservice.audit.aspect;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proveritus.cloudutility.security.CustomPrincipal;
 import com.proveritus.propertyservice.audit.annotation.Auditable;
 import com.proveritus.propertyservice.audit.entity.AuditLog;
-import com.proveritus.propertyservice.audit.repository.AuditLogRepository;
+import com.proveritus.propertyservice.audit.writer.AuditLogWriter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 
+@Slf4j
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class AuditAspect {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final ObjectMapper objectMapper;
 
     @Around("@annotation(auditable)")
@@ -28,18 +30,21 @@ public class AuditAspect {
         Object result = joinPoint.proceed();
 
         try {
-            CustomPrincipal principal = (CustomPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
             AuditLog auditLog = new AuditLog();
             auditLog.setMethodName(joinPoint.getSignature().toShortString());
             auditLog.setParams(objectMapper.writeValueAsString(joinPoint.getArgs()));
-            auditLog.setUserId(principal.getId());
-            auditLog.setUserName(principal.getUsername());
             auditLog.setTimestamp(LocalDateTime.now());
 
-            auditLogRepository.save(auditLog);
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof CustomPrincipal principal) {
+                auditLog.setUserId(principal.getId());
+                auditLog.setUserName(principal.getUsername());
+            }
+
+            auditLogWriter.submit(auditLog);
         } catch (Exception e) {
-            // Log the exception, but don't block the main flow
+            // Don't block the main flow
+            log.warn("Unable to audit {}", joinPoint.getSignature().toShortString(), e);
         }
 
         return result;
@@ -1,8 +1,8 @@
 package com.proveritus.propertyservice.audit.entity;
 
+import com.proveritus.cloudutility.jpa.PooledId;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import lombok.Getter;
 import lombok.Setter;
@@ -15,11 +15,12 @@ import java.time.LocalDateTime;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(allocationSize = 500)
     private Long id;
 
     private String methodName;
 
+    @Column(columnDefinition = "TEXT")
     private String params;
 
     private Long userId;
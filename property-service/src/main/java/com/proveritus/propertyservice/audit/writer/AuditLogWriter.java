@@ -0,0 +1,262 @@
+package com.proveritus.propertyservice.audit.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.audit.entity.AuditLog;
+import com.proveritus.propertyservice.audit.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes audit records in the background. Callers only enqueue; a single writer thread drains the
+ * queue and inserts whatever has accumulated as one batch, so audited requests never wait for the
+ * database. When the queue is full the {@link AuditOverflowPolicy} decides whether the caller
+ * waits, the record is dropped or it is spilled to a local file. The queue is flushed on shutdown,
+ * after the web server has stopped taking requests.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+    private static final Duration SPILL_RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditLog> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Path spillFile;
+    // A lock rather than synchronized, so callers on virtual threads do not pin their carrier during file I/O
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private long replayNotBefore;
+
+    public AuditLogWriter(AuditLogRepository auditLogRepository,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.flush-interval:PT1S}") Duration flushInterval,
+                          @Value("${audit.writer.overflow-policy:SPILL}") AuditOverflowPolicy overflowPolicy,
+                          @Value("${audit.writer.block-timeout:PT0.1S}") Duration blockTimeout,
+                          @Value("${audit.writer.spill-file:audit-spill.ndjson}") Path spillFile) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.spillFile = spillFile;
+
+        Gauge.builder("audit.queue.depth", queue, Collection::size)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.records.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.records.dropped").register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.records.spilled").register(meterRegistry);
+    }
+
+    /**
+     * Hands a record to the writer. Returns immediately unless the queue is full and the policy is
+     * {@link AuditOverflowPolicy#BLOCK}.
+     */
+    public void submit(AuditLog auditLog) {
+        if (queue.offer(auditLog)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(auditLog, blockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        drop(1);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(1);
+                }
+            }
+            case DROP -> drop(1);
+            case SPILL -> spill(List.of(auditLog));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Audit writer stopped with {} unwritten records", remaining.size());
+            handleUnwritten(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server so that audits from in-flight requests are still flushed
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpillFile();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer iteration failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(batch));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Unable to write {} audit records", batch.size(), e);
+            replayNotBefore = System.currentTimeMillis() + SPILL_RETRY_DELAY.toMillis();
+            batch.forEach(auditLog -> auditLog.setId(null));
+            handleUnwritten(batch);
+        }
+    }
+
+    private void handleUnwritten(List<AuditLog> records) {
+        if (overflowPolicy == AuditOverflowPolicy.SPILL) {
+            spill(records);
+        } else {
+            drop(records.size());
+        }
+    }
+
+    private void drop(int count) {
+        droppedCounter.increment(count);
+    }
+
+    private void spill(List<AuditLog> records) {
+        spillLock.lock();
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditLog auditLog : records) {
+                writer.write(objectMapper.writeValueAsString(auditLog));
+                writer.newLine();
+            }
+            spilledCounter.increment(records.size());
+        } catch (IOException e) {
+            log.error("Unable to spill {} audit records to {}", records.size(), spillFile, e);
+            drop(records.size());
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the spill file aside and feeds it back through the normal write path. Records that fail
+     * again are spilled to a fresh file and retried after {@link #SPILL_RETRY_DELAY}.
+     */
+    private void replaySpillFile() {
+        Path replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        if (System.currentTimeMillis() < replayNotBefore || !(Files.exists(spillFile) || Files.exists(replayFile))) {
+            return;
+        }
+        try {
+            // A replay file left behind by a crash is finished before the current spill file is taken
+            if (!Files.exists(replayFile)) {
+                spillLock.lock();
+                try {
+                    Files.move(spillFile, replayFile);
+                } finally {
+                    spillLock.unlock();
+                }
+            }
+            int replayed = 0;
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    batch.add(objectMapper.readValue(line, AuditLog.class));
+                    if (batch.size() == batchSize) {
+                        replayed += batch.size();
+                        write(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayed += batch.size();
+                write(batch);
+            }
+            Files.delete(replayFile);
+            log.info("Replayed {} spilled audit records", replayed);
+        } catch (IOException e) {
+            log.error("Unable to replay spilled audit records from {}", replayFile, e);
+            replayNotBefore = System.currentTimeMillis() + SPILL_RETRY_DELAY.toMillis();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.proveritus.propertyservice.audit.writer;
+
+/**
+ * What to do with an audit record when the writer queue is full.
+ */
+public enum AuditOverflowPolicy {
+    /** Wait up to the configured block timeout for room in the queue, then drop the record. */
+    BLOCK,
+    /** Drop the record straight away. */
+    DROP,
+    /** Append the record to the local spill file, which is replayed once the writer catches up. */
+    SPILL
+}
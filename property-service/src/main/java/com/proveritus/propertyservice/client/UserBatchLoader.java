@@ -0,0 +1,176 @@
+package com.proveritus.propertyservice.client;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces user lookups from concurrent requests into one {@code getUsersByIds} call. The first
+ * caller to find no open batch becomes its leader: it keeps the batch open for the configured window,
+ * or until it holds {@code max-size} ids, then fetches every collected id at once and completes the
+ * batch for all callers that joined it. Ids are deduplicated, so a manager shared by many requests is
+ * fetched once per batch. Lookups that alone fill a batch are fetched directly.
+ * <p>
+ * No thread is added: callers wait on the batch they joined, and the leader makes the call on its own
+ * thread, through the {@link UserServiceGuard}. A failed call fails every caller of the batch with the
+ * same exception.
+ */
+@Slf4j
+@Component
+public class UserBatchLoader {
+
+    private final UserClient userClient;
+    private final UserServiceGuard userServiceGuard;
+    private final long windowNanos;
+    private final int maxSize;
+    private final DistributionSummary batchIds;
+    private final DistributionSummary batchCallers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFull = lock.newCondition();
+
+    private Batch open;
+
+    public UserBatchLoader(UserClient userClient,
+                           UserServiceGuard userServiceGuard,
+                           MeterRegistry meterRegistry,
+                           @Value("${user-batch.window:PT0.002S}") Duration window,
+                           @Value("${user-batch.max-size:100}") int maxSize) {
+        this.userClient = userClient;
+        this.userServiceGuard = userServiceGuard;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+        this.batchIds = DistributionSummary.builder("user.batch.ids")
+                .description("Distinct user ids per batched call to user-service")
+                .register(meterRegistry);
+        this.batchCallers = DistributionSummary.builder("user.batch.callers")
+                .description("Lookups coalesced into each batched call to user-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the user with the given id, or {@code null} when user-service does not know it.
+     */
+    public UserDTO load(Long id) {
+        return loadAll(Set.of(id)).get(id);
+    }
+
+    /**
+     * Returns the known users among the given ids, keyed by id.
+     */
+    public Map<Long, UserDTO> loadAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        if (ids.size() >= maxSize) {
+            return fetch(ids, 1);
+        }
+
+        Batch batch;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            batch.ids.addAll(ids);
+            batch.callers++;
+            if (batch.ids.size() >= maxSize) {
+                open = null;
+                batchFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            lead(batch);
+        }
+        Map<Long, UserDTO> users = await(batch.result);
+        Map<Long, UserDTO> requested = new HashMap<>();
+        for (Long id : ids) {
+            UserDTO user = users.get(id);
+            if (user != null) {
+                requested.put(id, user);
+            }
+        }
+        return requested;
+    }
+
+    private void lead(Batch batch) {
+        lock.lock();
+        try {
+            long remaining = windowNanos;
+            while (open == batch && remaining > 0) {
+                remaining = batchFull.awaitNanos(remaining);
+            }
+            if (open == batch) {
+                open = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // No caller can join any more, so the ids and caller count are stable from here
+        try {
+            batch.result.complete(fetch(batch.ids, batch.callers));
+        } catch (Throwable e) {
+            // Anything left uncompleted would leave the followers waiting forever
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private Map<Long, UserDTO> fetch(Collection<Long> ids, int callers) {
+        log.debug("Fetching {} users for {} lookups from user-service", ids.size(), callers);
+        batchIds.record(ids.size());
+        batchCallers.record(callers);
+        List<Long> request = new ArrayList<>(ids);
+        return userServiceGuard.call(() -> userClient.getUsersByIds(request)).stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity(), (first, second) -> first));
+    }
+
+    private static Map<Long, UserDTO> await(CompletableFuture<Map<Long, UserDTO>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leader caught, so callers can handle FeignException as before
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch {
+        private final Set<Long> ids = new HashSet<>();
+        private final CompletableFuture<Map<Long, UserDTO>> result = new CompletableFuture<>();
+        private int callers;
+    }
+}
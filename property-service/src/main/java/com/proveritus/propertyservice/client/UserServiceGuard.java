@@ -0,0 +1,265 @@
+package com.proveritus.propertyservice.client;
+
+import com.proveritus.cloudutility.exception.UserServiceNotAvailableException;
+import com.proveritus.propertyservice.config.ForwardedAuthorization;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the calls made to user-service. Each call gets an overall timeout, and when the first attempt
+ * has not answered within the configured latency percentile of recent attempts, a second attempt is
+ * sent; the load balancer routes it to the next instance, and whichever answers first wins.
+ * <p>
+ * A circuit breaker sits in front: after {@code failure-threshold} consecutive failed calls it opens
+ * and rejects calls at once for {@code open-duration}, then lets a single probe call through and
+ * closes again if it succeeds. Rejected and timed-out calls fail with
+ * {@link UserServiceNotAvailableException}; 4xx answers do not count as failures.
+ */
+@Slf4j
+@Component
+public class UserServiceGuard {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final long timeoutNanos;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Timer attempts;
+    private final Counter hedges;
+    private final Counter rejected;
+    private final ExecutorService executor;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public UserServiceGuard(MeterRegistry meterRegistry,
+                            @Value("${user-service.timeout:PT1S}") Duration timeout,
+                            @Value("${user-service.hedge.enabled:true}") boolean hedgeEnabled,
+                            @Value("${user-service.hedge.percentile:0.95}") double hedgePercentile,
+                            @Value("${user-service.hedge.min-delay:PT0.05S}") Duration hedgeMinDelay,
+                            @Value("${user-service.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${user-service.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        this.timeoutNanos = timeout.toNanos();
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.attempts = Timer.builder("user.service.attempts")
+                .description("Latency of single attempts to call user-service")
+                .publishPercentiles(hedgePercentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        this.hedges = Counter.builder("user.service.hedges")
+                .description("Second attempts sent because the first one was slow")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.service.rejected")
+                .description("Calls to user-service rejected by the open circuit breaker")
+                .register(meterRegistry);
+        Gauge.builder("user.service.circuit.state", this, guard -> guard.state.ordinal())
+                .description("Circuit breaker state of user-service calls: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        this.executor = Executors.newCachedThreadPool(daemonThreads());
+    }
+
+    /**
+     * Runs the call within the timeout, hedged if enabled, unless the circuit breaker is open.
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            T result = hedgeEnabled ? callHedged(call) : timed(call);
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isFailure(e)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    State state() {
+        return state;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T callHedged(Supplier<T> call) {
+        // Read the credentials here, the attempts may still run once the request has completed
+        Map<String, String> authorization = ForwardedAuthorization.current();
+        long deadline = System.nanoTime() + timeoutNanos;
+        CompletableFuture<T> first = attempt(call, authorization);
+        try {
+            return first.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw timedOut(e);
+            }
+            hedges.increment();
+            log.debug("User service call still running, sending a hedged attempt");
+            CompletableFuture<T> second = attempt(call, authorization);
+            return firstSuccess(first, second, remaining);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserServiceNotAvailableException("Interrupted while calling user service", e);
+        }
+    }
+
+    private <T> T firstSuccess(CompletableFuture<T> first, CompletableFuture<T> second, long remainingNanos) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((result, failure) -> {
+                if (failure == null) {
+                    winner.complete(result);
+                } else if (failed.incrementAndGet() == 2) {
+                    winner.completeExceptionally(failure);
+                }
+            });
+        }
+        try {
+            return winner.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw timedOut(e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserServiceNotAvailableException("Interrupted while calling user service", e);
+        } finally {
+            // Does not interrupt a running attempt; the Feign read timeout ends it
+            first.cancel(false);
+            second.cancel(false);
+        }
+    }
+
+    private <T> CompletableFuture<T> attempt(Supplier<T> call, Map<String, String> authorization) {
+        return CompletableFuture.supplyAsync(() -> ForwardedAuthorization.runWith(authorization, () -> timed(call)),
+                executor);
+    }
+
+    private <T> T timed(Supplier<T> call) {
+        long started = System.nanoTime();
+        T result = call.get();
+        attempts.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private long hedgeDelayNanos() {
+        long percentile = 0;
+        for (ValueAtPercentile value : attempts.takeSnapshot().percentileValues()) {
+            percentile = (long) value.value(TimeUnit.NANOSECONDS);
+        }
+        return Math.min(timeoutNanos, Math.max(hedgeMinDelayNanos, percentile));
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                log.info("User service circuit half-open, letting a probe call through");
+                state = State.HALF_OPEN;
+                return;
+            }
+            if (state == State.CLOSED) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        rejected.increment();
+        throw new UserServiceNotAvailableException("User service circuit is open");
+    }
+
+    private void onSuccess() {
+        lock.lock();
+        try {
+            if (state != State.CLOSED) {
+                log.info("User service circuit closed");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                if (state != State.OPEN) {
+                    log.warn("User service circuit opened after {} consecutive failures", consecutiveFailures);
+                }
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserServiceNotAvailableException timedOut(TimeoutException e) {
+        return new UserServiceNotAvailableException(
+                "User service did not answer within " + Duration.ofNanos(timeoutNanos), e);
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new UserServiceNotAvailableException("User service call failed", cause);
+    }
+
+    private static boolean isFailure(RuntimeException e) {
+        // A 4xx answer means user-service is up and rejected the request itself
+        return !(e instanceof FeignException feign && feign.status() >= 400 && feign.status() < 500);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "user-service-call-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
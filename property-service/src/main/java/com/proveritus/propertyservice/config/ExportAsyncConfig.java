@@ -0,0 +1,59 @@
+package com.proveritus.propertyservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives streamed downloads, i.e. the exports, their own async timeout. Large portfolios take longer
+ * to export than other async requests, such as the NDJSON listings, should be allowed to run, so the
+ * default timeout is left alone.
+ */
+@Configuration
+public class ExportAsyncConfig implements WebMvcConfigurer {
+
+    private final Duration exportTimeout;
+
+    public ExportAsyncConfig(@Value("${export.request-timeout:PT10M}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // Runs before the request is put into async mode, which is when the timeout is applied
+                if (request instanceof AsyncWebRequest asyncRequest && streamsBody(request)) {
+                    asyncRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+    }
+
+    private static boolean streamsBody(NativeWebRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return false;
+        }
+        ResolvableType returnType = ResolvableType.forMethodParameter(handlerMethod.getReturnType());
+        if (ResponseEntity.class.equals(returnType.resolve())) {
+            returnType = returnType.getGeneric();
+        }
+        return StreamingResponseBody.class.isAssignableFrom(returnType.toClass());
+    }
+}
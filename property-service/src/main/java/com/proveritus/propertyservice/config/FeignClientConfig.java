@@ -0,0 +1,22 @@
+package com.proveritus.propertyservice.config;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Forwards the caller's bearer token and gateway identity headers on calls to other services, so
+ * user-service authorizes them as the user that made the original request.
+ */
+@Configuration
+public class FeignClientConfig {
+
+    @Bean
+    public RequestInterceptor bearerTokenForwardingInterceptor() {
+        return template -> ForwardedAuthorization.current().forEach((name, value) -> {
+            if (!template.headers().containsKey(name)) {
+                template.header(name, value);
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.proveritus.propertyservice.config;
+
+import com.proveritus.cloudutility.security.IdentityHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The credentials forwarded on calls to other services: the bearer token and the signed identity headers
+ * of the api-gateway, so the next service does not have to parse the token again. They are read from the
+ * current request, or from the values handed over with {@link #runWith}, so calls made on a worker thread
+ * on behalf of a request still carry them without touching the request after it may have completed.
+ */
+public final class ForwardedAuthorization {
+
+    private static final ThreadLocal<Map<String, String>> HANDED_OVER = new ThreadLocal<>();
+
+    private ForwardedAuthorization() {
+    }
+
+    /**
+     * Returns the headers to forward from this thread by name, empty if there are none.
+     */
+    public static Map<String, String> current() {
+        Map<String, String> headers = HANDED_OVER.get();
+        if (headers != null) {
+            return headers;
+        }
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return Map.of();
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Map<String, String> forwarded = new LinkedHashMap<>();
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null) {
+            forwarded.put(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        for (String name : IdentityHeaders.NAMES) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                forwarded.put(name, value);
+            }
+        }
+        return forwarded;
+    }
+
+    /**
+     * Runs the call with the given headers as the ones to forward.
+     */
+    public static <T> T runWith(Map<String, String> headers, Supplier<T> call) {
+        Map<String, String> previous = HANDED_OVER.get();
+        HANDED_OVER.set(headers);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                HANDED_OVER.remove();
+            } else {
+                HANDED_OVER.set(previous);
+            }
+        }
+    }
+}
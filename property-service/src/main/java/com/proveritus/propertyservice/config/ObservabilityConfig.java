@@ -0,0 +1,11 @@
+package com.proveritus.propertyservice.config;
+
+import com.proveritus.cloudutility.aop.MethodTracingConfig;
+import com.proveritus.cloudutility.metrics.MetricsConfig;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({MethodTracingConfig.class, MetricsConfig.class})
+public class ObservabilityConfig {
+}
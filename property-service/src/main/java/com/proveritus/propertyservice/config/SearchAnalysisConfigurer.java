@@ -0,0 +1,30 @@
+package com.proveritus.propertyservice.config;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Analyzers used by the property and unit search index. {@link #TEXT} indexes whole words, while
+ * {@link #TEXT_PREFIX} also indexes every word prefix so that partially typed words match.
+ */
+public class SearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String TEXT = "text";
+    public static final String TEXT_PREFIX = "text_prefix";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(TEXT).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding");
+
+        context.analyzer(TEXT_PREFIX).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding")
+                .tokenFilter("edgeNGram")
+                .param("minGramSize", "1")
+                .param("maxGramSize", "20");
+    }
+}
@@ -0,0 +1,17 @@
+package com.proveritus.propertyservice.config;
+
+import com.proveritus.cloudutility.config.BaseSecurityConfig;
+import com.proveritus.cloudutility.security.JwtAccessDeniedHandler;
+import com.proveritus.cloudutility.security.JwtAuthenticationEntryPoint;
+import com.proveritus.cloudutility.security.JwtTokenProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Registers the shared JWT filter chain. Kept out of the application class so that test slices
+ * without the web layer don't pull it in.
+ */
+@Configuration
+@Import({BaseSecurityConfig.class, JwtTokenProvider.class, JwtAuthenticationEntryPoint.class, JwtAccessDeniedHandler.class})
+public class SecurityConfig {
+}
@@ -0,0 +1,45 @@
+package com.proveritus.propertyservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lets the gateway's shared cache keep API {@code GET} responses for {@code http-cache.shared-max-age},
+ * while clients still revalidate every time. Set before the request is handled, so Spring Security's
+ * default {@code no-store} header is not added. With a zero max age the gateway only keeps responses
+ * with an ETag and revalidates them on every request.
+ */
+@Component
+public class SharedCacheControlFilter extends OncePerRequestFilter {
+
+    private final String cacheControl;
+
+    public SharedCacheControlFilter(@Value("${http-cache.shared-max-age:PT5S}") Duration sharedMaxAge) {
+        this.cacheControl = sharedMaxAge.isZero()
+                ? CacheControl.noCache().getHeaderValue()
+                : CacheControl.maxAge(Duration.ZERO).sMaxAge(sharedMaxAge).getHeaderValue();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !"GET".equals(request.getMethod()) || !path.startsWith("/api/") || path.startsWith("/api/internal/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        filterChain.doFilter(request, response);
+    }
+}
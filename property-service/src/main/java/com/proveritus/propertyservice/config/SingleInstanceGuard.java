@@ -0,0 +1,73 @@
+package com.proveritus.propertyservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps property-service from starting while another instance of it is registered. The search index is
+ * a Lucene directory on each instance's own disk, updated only by the instance that commits a change,
+ * so a second instance would answer searches from an index that misses the other one's writes.
+ * <p>
+ * The check runs while the context starts, before this instance serves requests or registers itself.
+ * A previous instance that is shutting down can stay listed until the registry refreshes, so the check
+ * waits up to {@code wait} for the other instances to leave before it fails the startup.
+ */
+@Slf4j
+@Component
+public class SingleInstanceGuard {
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
+
+    public SingleInstanceGuard(DiscoveryClient discoveryClient,
+                               ObjectProvider<Registration> registration,
+                               @Value("${spring.application.name}") String serviceId,
+                               @Value("${search.index.single-instance-check:true}") boolean enabled,
+                               @Value("${search.index.single-instance-wait:PT2M}") Duration wait) {
+        if (!enabled) {
+            log.warn("Single instance check is disabled; each instance searches its own index");
+            return;
+        }
+        Registration self = registration.getIfAvailable();
+        String selfId = self != null ? self.getInstanceId() : null;
+        long deadline = System.nanoTime() + wait.toNanos();
+        List<ServiceInstance> others = otherInstances(discoveryClient, serviceId, selfId);
+        while (!others.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException(serviceId + " keeps its search index on local disk and must run as "
+                        + "a single instance, but these instances are registered: " + describe(others));
+            }
+            log.info("Waiting for {} to leave before starting", describe(others));
+            sleep(Math.min(remaining, POLL_INTERVAL.toNanos()));
+            others = otherInstances(discoveryClient, serviceId, selfId);
+        }
+    }
+
+    private static List<ServiceInstance> otherInstances(DiscoveryClient discoveryClient, String serviceId, String selfId) {
+        return discoveryClient.getInstances(serviceId).stream()
+                .filter(instance -> selfId == null || !Objects.equals(instance.getInstanceId(), selfId))
+                .toList();
+    }
+
+    private static String describe(List<ServiceInstance> instances) {
+        return instances.stream().map(instance -> String.valueOf(instance.getUri())).toList().toString();
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for other instances to leave", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.proveritus.propertyservice.controller;
+
+import com.proveritus.cloudutility.exception.PreconditionFailedException;
+
+/**
+ * Strong entity tags derived from entity versions, and the evaluation of the conditional request
+ * headers that carry them.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the current tag, so the client's copy is current.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses the weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or {@code null} if it sets no condition on the
+     * version. Weak or malformed tags can never match strongly, so they fail the request at once.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failure below
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single entity tag of this resource: " + ifMatch);
+    }
+}
@@ -1,8 +1,11 @@
 package com.proveritus.propertyservice.controller;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.FloorDTO;
 import com.proveritus.propertyservice.dto.FloorOccupancyStats;
+import com.proveritus.propertyservice.dto.FloorSummary;
 import com.proveritus.propertyservice.service.FloorService;
+import com.proveritus.propertyservice.service.ListingStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,9 +18,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -26,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Floors", description = "APIs for managing building floors")
 public class FloorController {
     private final FloorService floorService;
+    private final ListingStreamService listingStreamService;
 
     @PostMapping
     @Operation(summary = "Create a new floor")
@@ -44,12 +53,21 @@ public class FloorController {
     @Operation(summary = "Get a floor by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Floor found"),
+            @ApiResponse(responseCode = "304", description = "Floor unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Floor not found")
     })
     public ResponseEntity<FloorDTO> getFloorById(
-            @Parameter(description = "ID of the floor to retrieve") @PathVariable Long id) {
+            @Parameter(description = "ID of the floor to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Fetching floor with ID: {}", id);
-        return ResponseEntity.ok(floorService.getFloorById(id));
+        if (ifNoneMatch != null) {
+            String eTag = ETags.of(floorService.getFloorVersion(id));
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        FloorDTO floor = floorService.getFloorById(id);
+        return ResponseEntity.ok().eTag(ETags.of(floor.getVersion())).body(floor);
     }
 
     @GetMapping
@@ -76,18 +94,50 @@ public class FloorController {
         }
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get floors by property ID by keyset pagination")
+    public ResponseEntity<CursorPage<FloorDTO>> getFloorsByPropertyIdByCursor(
+            @RequestParam Long propertyId,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Continuation token for keyset pagination; pass an empty value for the first page")
+            @RequestParam String cursor) {
+
+        log.debug("Fetching floors for property ID: {}, size: {} after cursor: {}", propertyId, size, cursor);
+
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(floorService.getFloorsByPropertyId(propertyId, cursor, size,
+                Sort.by(sortDirection, sortBy)));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream the floors of a property in ID order over the non-blocking read path")
+    public Flux<FloorSummary> streamFloors(
+            @RequestParam Long propertyId,
+            @Parameter(description = "Only floors with a greater ID are returned")
+            @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Maximum number of floors; 0 returns all of them")
+            @RequestParam(defaultValue = "0") int limit) {
+        return listingStreamService.streamFloors(propertyId, afterId, limit);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing floor")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Floor updated successfully"),
             @ApiResponse(responseCode = "404", description = "Floor not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "412", description = "Floor changed since the If-Match ETag")
     })
     public ResponseEntity<FloorDTO> updateFloor(
             @Parameter(description = "ID of the floor to update") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody FloorDTO floorDTO) {
         log.info("Updating floor with ID: {}", id);
-        return ResponseEntity.ok(floorService.updateFloor(id, floorDTO));
+        FloorDTO floor = floorService.updateFloor(id, floorDTO, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(floor.getVersion())).body(floor);
     }
 
     @DeleteMapping("/{id}")
@@ -108,12 +158,32 @@ public class FloorController {
     @Operation(summary = "Get occupancy statistics for a floor")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Statistics unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Floor not found")
     })
     public ResponseEntity<FloorOccupancyStats> getFloorOccupancyStats(
-            @Parameter(description = "ID of the floor") @PathVariable Long id) {
+            @Parameter(description = "ID of the floor") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Fetching occupancy stats for floor ID: {}", id);
-        return ResponseEntity.ok(floorService.getFloorOccupancyStats(id));
+        // The floor version covers its units, so it also versions their counts. It is read before the
+        // counts: a concurrent write can only make the tag older than the body, never newer.
+        String eTag = ETags.of(floorService.getFloorVersion(id));
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(floorService.getFloorOccupancyStats(id));
+    }
+
+    @GetMapping("/occupancy-stats")
+    @Operation(summary = "Get occupancy statistics for all floors of a property, keyed by floor ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Property not found")
+    })
+    public ResponseEntity<Map<Long, FloorOccupancyStats>> getFloorOccupancyStatsByProperty(
+            @Parameter(description = "ID of the property") @RequestParam Long propertyId) {
+        log.debug("Fetching occupancy stats for all floors of property ID: {}", propertyId);
+        return ResponseEntity.ok(floorService.getFloorOccupancyStatsByPropertyId(propertyId));
     }
 
     @PostMapping("/{id}/refresh-occupancy")
@@ -0,0 +1,63 @@
+package com.proveritus.propertyservice.controller;
+
+import com.proveritus.propertyservice.service.PropertyService;
+import com.proveritus.propertyservice.service.UserCacheService;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Service-to-service endpoints. user-service calls these when a user is updated or deleted so the
+ * cached copy is dropped before its TTL runs out, and the ETags of the properties the user manages
+ * change with the details they embed.
+ */
+@Slf4j
+@Hidden
+@RestController
+@RequestMapping("/api/internal/users")
+public class InternalUserController {
+    public static final String TOKEN_HEADER = "X-Internal-Token";
+
+    private final UserCacheService userCacheService;
+    private final PropertyService propertyService;
+    private final String internalApiToken;
+
+    public InternalUserController(UserCacheService userCacheService,
+                                  PropertyService propertyService,
+                                  @Value("${internal.api-token:}") String internalApiToken) {
+        if (internalApiToken.isBlank()) {
+            throw new IllegalArgumentException("internal.api-token must be set (INTERNAL_API_TOKEN)");
+        }
+        this.userCacheService = userCacheService;
+        this.propertyService = propertyService;
+        this.internalApiToken = internalApiToken;
+    }
+
+    @PostMapping("/{id}/invalidate")
+    public ResponseEntity<Void> invalidateUser(@PathVariable Long id,
+                                               @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!isTrusted(token)) {
+            log.warn("Rejected user cache invalidation for user id: {}", id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        // Evicted first, so a response carrying the new version is built with the new details
+        userCacheService.invalidate(id);
+        propertyService.managerChanged(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isTrusted(String token) {
+        return token != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), internalApiToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
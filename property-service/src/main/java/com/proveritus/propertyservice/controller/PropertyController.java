@@ -1,9 +1,14 @@
 package com.proveritus.propertyservice.controller;
 
 import com.proveritus.propertyservice.audit.annotation.Auditable;
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.PropertyDTO;
 import com.proveritus.propertyservice.dto.PropertyStatsDTO;
+import com.proveritus.propertyservice.dto.PropertySummary;
+import com.proveritus.propertyservice.enums.ExportFormat;
 import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.service.ExportService;
+import com.proveritus.propertyservice.service.ListingStreamService;
 import com.proveritus.propertyservice.service.PropertyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,10 +21,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 @Slf4j
 @RestController
@@ -29,6 +38,8 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearAuth")
 public class PropertyController {
     private final PropertyService propertyService;
+    private final ExportService exportService;
+    private final ListingStreamService listingStreamService;
 
     @Auditable
     @PostMapping
@@ -45,16 +56,39 @@ public class PropertyController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProperty);
     }
 
+    @Auditable
+    @PostMapping("/tree")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROPERTY_MANAGER')")
+    @Operation(summary = "Create a property together with its floors and units")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Property tree created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<PropertyDTO> createPropertyTree(@Valid @RequestBody PropertyDTO propertyDTO) {
+        log.info("Creating property tree: {}", propertyDTO.getName());
+        PropertyDTO createdProperty = propertyService.createPropertyTree(propertyDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdProperty);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a property by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Property found"),
+            @ApiResponse(responseCode = "304", description = "Property unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Property not found")
     })
     public ResponseEntity<PropertyDTO> getPropertyById(
-            @Parameter(description = "ID of the property to retrieve") @PathVariable Long id) {
+            @Parameter(description = "ID of the property to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Fetching property with ID: {}", id);
-        return ResponseEntity.ok(propertyService.getPropertyById(id));
+        if (ifNoneMatch != null) {
+            // Only the version is read; the property is not loaded, mapped or enriched
+            String eTag = ETags.of(propertyService.getPropertyVersion(id));
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        return withETag(propertyService.getPropertyById(id));
     }
 
 
@@ -73,19 +107,45 @@ public class PropertyController {
         }
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get properties by keyset pagination")
+    public ResponseEntity<CursorPage<PropertyDTO>> getPropertiesByCursor(
+            @RequestParam(required = false) PropertyType propertyType,
+            @Parameter(description = "Continuation token for keyset pagination; pass an empty value for the first page")
+            @RequestParam String cursor,
+            Pageable pageable) {
+
+        log.debug("Fetching properties with type: {} after cursor: {}", propertyType, cursor);
+        return ResponseEntity.ok(propertyService.getProperties(propertyType, cursor,
+                pageable.getPageSize(), pageable.getSort()));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream properties in ID order over the non-blocking read path")
+    public Flux<PropertySummary> streamProperties(
+            @RequestParam(required = false) PropertyType propertyType,
+            @Parameter(description = "Only properties with a greater ID are returned")
+            @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Maximum number of properties; 0 returns all of them")
+            @RequestParam(defaultValue = "0") int limit) {
+        return listingStreamService.streamProperties(propertyType, afterId, limit);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing property")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Property updated successfully"),
             @ApiResponse(responseCode = "404", description = "Property not found"),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "409", description = "Property name already exists")
+            @ApiResponse(responseCode = "409", description = "Property name already exists"),
+            @ApiResponse(responseCode = "412", description = "Property changed since the If-Match ETag")
     })
     public ResponseEntity<PropertyDTO> updateProperty(
             @Parameter(description = "ID of the property to update") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PropertyDTO propertyDTO) {
         log.info("Updating property with ID: {}", id);
-        return ResponseEntity.ok(propertyService.updateProperty(id, propertyDTO));
+        return withETag(propertyService.updateProperty(id, propertyDTO, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{id}")
@@ -102,6 +162,21 @@ public class PropertyController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Stream properties as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportProperties(
+            @RequestParam(required = false) PropertyType propertyType,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("Exporting properties as {} with type: {}", format, propertyType);
+
+        StreamingResponseBody body = out -> exportService.exportProperties(propertyType, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"properties." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search properties by name or address")
     public ResponseEntity<Page<PropertyDTO>> searchProperties(
@@ -124,10 +199,52 @@ public class PropertyController {
         return ResponseEntity.ok(propertyService.getPropertyStats(id));
     }
 
+    @PostMapping("/{id}/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the statistics of a property from its floors and units")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics rebuilt successfully"),
+            @ApiResponse(responseCode = "404", description = "Property not found")
+    })
+    public ResponseEntity<PropertyStatsDTO> rebuildPropertyStats(
+            @Parameter(description = "ID of the property") @PathVariable Long id) {
+        log.info("Rebuilding stats for property ID: {}", id);
+        return ResponseEntity.ok(propertyService.rebuildPropertyStats(id));
+    }
+
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the statistics of all properties")
+    public ResponseEntity<Integer> rebuildAllPropertyStats() {
+        log.info("Rebuilding stats for all properties");
+        return ResponseEntity.ok(propertyService.rebuildAllPropertyStats());
+    }
+
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the property and unit search index from the database")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        log.info("Rebuilding search index");
+        propertyService.rebuildSearchIndex();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Get total number of properties")
     public ResponseEntity<Long> getPropertiesCount() {
         log.debug("Fetching properties count");
         return ResponseEntity.ok(propertyService.getTotalPropertiesCount());
     }
+
+    /**
+     * A body built while user-service was unavailable lacks the current user details, so it is not the
+     * representation the version's tag stands for and is sent without one.
+     */
+    private static ResponseEntity<PropertyDTO> withETag(PropertyDTO property) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!Boolean.TRUE.equals(property.getManagedByDetailsStale())) {
+            response.eTag(ETags.of(property.getVersion()));
+        }
+        return response.body(property);
+    }
 }
@@ -1,7 +1,12 @@
 package com.proveritus.propertyservice.controller;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.dto.UnitSummary;
+import com.proveritus.propertyservice.enums.ExportFormat;
 import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.service.ExportService;
+import com.proveritus.propertyservice.service.ListingStreamService;
 import com.proveritus.propertyservice.service.UnitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,9 +19,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 @Slf4j
 @RestController
@@ -25,6 +34,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Units", description = "APIs for managing property units")
 public class UnitController {
     private final UnitService unitService;
+    private final ExportService exportService;
+    private final ListingStreamService listingStreamService;
 
     @PostMapping
     @Operation(summary = "Create a new unit")
@@ -44,12 +55,21 @@ public class UnitController {
     @Operation(summary = "Get a unit by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Unit found"),
+            @ApiResponse(responseCode = "304", description = "Unit unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Unit not found")
     })
     public ResponseEntity<UnitDTO> getUnitById(
-            @Parameter(description = "ID of the unit to retrieve") @PathVariable Long id) {
+            @Parameter(description = "ID of the unit to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Fetching unit with ID: {}", id);
-        return ResponseEntity.ok(unitService.getUnitById(id));
+        if (ifNoneMatch != null) {
+            String eTag = ETags.of(unitService.getUnitVersion(id));
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        UnitDTO unit = unitService.getUnitById(id);
+        return ResponseEntity.ok().eTag(ETags.of(unit.getVersion())).body(unit);
     }
 
     @GetMapping("/name/{name}")
@@ -98,18 +118,55 @@ public class UnitController {
         }
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get units with filtering by keyset pagination")
+    public ResponseEntity<CursorPage<UnitDTO>> getUnitsByCursor(
+            @RequestParam(required = false) Long propertyId,
+            @RequestParam(required = false) Long floorId,
+            @RequestParam(required = false) OccupancyStatus occupancyStatus,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Continuation token for keyset pagination; pass an empty value for the first page")
+            @RequestParam String cursor) {
+
+        log.debug("Fetching units with filters - Property ID: {}, Floor ID: {}, Occupancy: {} after cursor: {}",
+                propertyId, floorId, occupancyStatus, cursor);
+
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(unitService.getUnitsWithFilters(propertyId, floorId, occupancyStatus,
+                cursor, size, Sort.by(sortDirection, sortBy)));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream units in ID order over the non-blocking read path")
+    public Flux<UnitSummary> streamUnits(
+            @RequestParam(required = false) Long propertyId,
+            @RequestParam(required = false) Long floorId,
+            @RequestParam(required = false) OccupancyStatus occupancyStatus,
+            @Parameter(description = "Only units with a greater ID are returned")
+            @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Maximum number of units; 0 returns all of them")
+            @RequestParam(defaultValue = "0") int limit) {
+        return listingStreamService.streamUnits(propertyId, floorId, occupancyStatus, afterId, limit);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing unit")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Unit updated successfully"),
             @ApiResponse(responseCode = "404", description = "Unit not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "412", description = "Unit changed since the If-Match ETag")
     })
     public ResponseEntity<UnitDTO> updateUnit(
             @Parameter(description = "ID of the unit to update") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UnitDTO unitDTO) {
         log.info("Updating unit with ID: {}", id);
-        return ResponseEntity.ok(unitService.updateUnit(id, unitDTO));
+        UnitDTO unit = unitService.updateUnit(id, unitDTO, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(unit.getVersion())).body(unit);
     }
 
     @DeleteMapping("/{id}")
@@ -129,14 +186,35 @@ public class UnitController {
     @Operation(summary = "Update unit occupancy status")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Occupancy status updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Unit not found")
+            @ApiResponse(responseCode = "404", description = "Unit not found"),
+            @ApiResponse(responseCode = "412", description = "Unit changed since the If-Match ETag")
     })
     public ResponseEntity<UnitDTO> updateOccupancyStatus(
             @PathVariable Long id,
             @RequestParam OccupancyStatus occupancyStatus,
-            @RequestParam(required = false) String tenant) {
+            @RequestParam(required = false) String tenant,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating occupancy status for unit ID: {} to {}", id, occupancyStatus);
-        return ResponseEntity.ok(unitService.updateOccupancyStatus(id, occupancyStatus, tenant));
+        UnitDTO unit = unitService.updateOccupancyStatus(id, occupancyStatus, tenant, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(unit.getVersion())).body(unit);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream units matching the filters as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportUnits(
+            @RequestParam(required = false) Long propertyId,
+            @RequestParam(required = false) Long floorId,
+            @RequestParam(required = false) OccupancyStatus occupancyStatus,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("Exporting units as {} - Property ID: {}, Floor ID: {}, Occupancy: {}",
+                format, propertyId, floorId, occupancyStatus);
+
+        StreamingResponseBody body = out -> exportService.exportUnits(propertyId, floorId, occupancyStatus, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"units." + format.getFileExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/search")
@@ -23,4 +23,7 @@ public class FloorDTO {
     private Integer occupiedUnits;
     private Integer vacantUnits;
     private List<UnitDTO> units;
+
+    // Read-only; also sent as the ETag header
+    private Long version;
 }
@@ -0,0 +1,13 @@
+package com.proveritus.propertyservice.dto;
+
+/**
+ * A floor as streamed by the reactive listing, without its units.
+ */
+public record FloorSummary(Long id,
+                           Long propertyId,
+                           String name,
+                           Integer numberOfUnits,
+                           Integer occupiedUnits,
+                           Integer vacantUnits,
+                           Long version) {
+}
@@ -0,0 +1,17 @@
+package com.proveritus.propertyservice.dto;
+
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Number of units on a floor with a given occupancy status, as returned by grouped count queries.
+ */
+@Data
+@AllArgsConstructor
+public class OccupancyStatusCount {
+
+    private Long floorId;
+    private OccupancyStatus occupancyStatus;
+    private long unitCount;
+}
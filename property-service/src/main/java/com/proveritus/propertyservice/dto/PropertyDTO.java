@@ -1,5 +1,6 @@
 package com.proveritus.propertyservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.proveritus.cloudutility.dto.UserDTO;
 import com.proveritus.propertyservice.enums.PropertyType;
 import lombok.*;
@@ -23,6 +24,12 @@ public class PropertyDTO {
     private Integer numberOfUnits;
     private Long managedBy;
     private UserDTO managedByDetails;
+    // Set when user-service was unavailable: the details are the last known ones, or missing
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean managedByDetailsStale;
     private List<FloorDTO> floors;
     private List<UnitDTO> units;
+
+    // Read-only; also sent as the ETag header
+    private Long version;
 }
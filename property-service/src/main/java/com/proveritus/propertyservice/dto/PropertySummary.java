@@ -0,0 +1,17 @@
+package com.proveritus.propertyservice.dto;
+
+import com.proveritus.propertyservice.enums.PropertyType;
+
+/**
+ * A property as streamed by the reactive listing: its own columns only, without floors, units or the
+ * manager's user details.
+ */
+public record PropertySummary(Long id,
+                              String name,
+                              PropertyType propertyType,
+                              String address,
+                              Integer numberOfFloors,
+                              Integer numberOfUnits,
+                              Long managedBy,
+                              Long version) {
+}
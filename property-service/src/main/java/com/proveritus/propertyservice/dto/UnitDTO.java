@@ -36,4 +36,7 @@ public class UnitDTO {
     private Long propertyId;
 
     private Long floorId;
+
+    // Read-only; also sent as the ETag header
+    private Long version;
 }
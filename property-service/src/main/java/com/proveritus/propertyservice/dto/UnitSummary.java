@@ -0,0 +1,20 @@
+package com.proveritus.propertyservice.dto;
+
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.RentType;
+
+/**
+ * A unit as streamed by the reactive listing.
+ */
+public record UnitSummary(Long id,
+                          Long propertyId,
+                          Long floorId,
+                          String name,
+                          Double size,
+                          RentType rentType,
+                          Double ratePerSqm,
+                          Double monthlyRent,
+                          OccupancyStatus occupancyStatus,
+                          String tenant,
+                          Long version) {
+}
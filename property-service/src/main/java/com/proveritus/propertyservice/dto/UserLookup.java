@@ -0,0 +1,16 @@
+package com.proveritus.propertyservice.dto;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+
+import java.util.Map;
+
+/**
+ * Users found for a set of ids, keyed by id. When user-service could not be reached the users are the
+ * last known values, which may be out of date, and ids never seen before are missing.
+ */
+public record UserLookup(Map<Long, UserDTO> users, boolean stale) {
+
+    public UserDTO get(Long id) {
+        return users.get(id);
+    }
+}
@@ -1,18 +1,26 @@
 package com.proveritus.propertyservice.entity;
 
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import com.proveritus.cloudutility.exception.PreconditionFailedException;
+import com.proveritus.cloudutility.jpa.PooledId;
+import jakarta.persistence.Column;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import java.io.Serializable;
 
 @MappedSuperclass
 public abstract class BaseEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     private Long id;
 
+    // Primitive, so rows that predate the column read as version 0 and Spring Data still tells new
+    // entities apart by their id
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Long getId() {
         return id;
     }
@@ -20,4 +28,23 @@ public abstract class BaseEntity implements Serializable {
     public void setId(Long id) {
         this.id = id;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Fails unless the entity is still at the version the caller last saw. A {@code null} expected
+     * version skips the check.
+     */
+    public void checkVersion(Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != version) {
+            throw new PreconditionFailedException(getClass().getSimpleName() + " " + id
+                    + " was modified, current version is " + version);
+        }
+    }
 }
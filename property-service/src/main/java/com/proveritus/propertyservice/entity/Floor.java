@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "floors")
+@Table(name = "floors", indexes = @Index(name = "idx_floors_property_name", columnList = "property_id, name, id"))
 @Getter
 @Setter
 @NoArgsConstructor
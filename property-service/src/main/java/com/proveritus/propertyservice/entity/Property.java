@@ -3,8 +3,11 @@ package com.proveritus.propertyservice.entity;
 import com.proveritus.propertyservice.entity.BaseEntity;
 import com.proveritus.propertyservice.dto.PropertyStatsDTO;
 import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.config.SearchAnalysisConfigurer;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,8 +19,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Indexed
 public class Property extends BaseEntity {
     @Column(nullable = false)
+    @FullTextField(analyzer = SearchAnalysisConfigurer.TEXT)
+    @FullTextField(name = "name_prefix", analyzer = SearchAnalysisConfigurer.TEXT_PREFIX,
+            searchAnalyzer = SearchAnalysisConfigurer.TEXT)
     private String name;
 
     @Enumerated(EnumType.STRING)
@@ -25,6 +32,9 @@ public class Property extends BaseEntity {
     private PropertyType propertyType;
 
     @Column(nullable = false)
+    @FullTextField(analyzer = SearchAnalysisConfigurer.TEXT)
+    @FullTextField(name = "address_prefix", analyzer = SearchAnalysisConfigurer.TEXT_PREFIX,
+            searchAnalyzer = SearchAnalysisConfigurer.TEXT)
     private String address;
 
     private Integer numberOfFloors;
@@ -0,0 +1,54 @@
+package com.proveritus.propertyservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Read model holding the aggregated unit and floor figures of one property. It is kept up to date
+ * in the same transaction as every floor and unit write, so reading it is a primary-key lookup.
+ */
+@Entity
+@Table(name = "property_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyStats implements Serializable {
+
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(nullable = false)
+    private long totalFloors;
+
+    @Column(nullable = false)
+    private long totalUnits;
+
+    @Column(nullable = false)
+    private long occupiedUnits;
+
+    @Column(nullable = false)
+    private long vacantUnits;
+
+    @Column(nullable = false)
+    private long reservedUnits;
+
+    @Column(nullable = false)
+    private long notAvailableUnits;
+
+    @Column(nullable = false)
+    private long underMaintenanceUnits;
+
+    @Column(nullable = false)
+    private double totalRentalIncome;
+
+    @Column(nullable = false)
+    private double potentialRentalIncome;
+}
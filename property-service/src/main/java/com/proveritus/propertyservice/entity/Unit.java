@@ -1,5 +1,6 @@
 package com.proveritus.propertyservice.entity;
 
+import com.proveritus.propertyservice.config.SearchAnalysisConfigurer;
 import com.proveritus.propertyservice.entity.BaseEntity;
 import com.proveritus.propertyservice.enums.OccupancyStatus;
 import com.proveritus.propertyservice.enums.RentType;
@@ -8,18 +9,27 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 @Entity
-@Table(name = "units")
+@Table(name = "units", indexes = {
+        @Index(name = "idx_units_property_name", columnList = "property_id, name, id"),
+        @Index(name = "idx_units_floor_name", columnList = "floor_id, name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Indexed
 public class Unit extends BaseEntity {
 
     @NotBlank
     @Column(nullable = false)
+    @FullTextField(analyzer = SearchAnalysisConfigurer.TEXT)
+    @FullTextField(name = "name_prefix", analyzer = SearchAnalysisConfigurer.TEXT_PREFIX,
+            searchAnalyzer = SearchAnalysisConfigurer.TEXT)
     private String name;
 
     @Positive
@@ -37,6 +47,9 @@ public class Unit extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private OccupancyStatus occupancyStatus;
 
+    @FullTextField(analyzer = SearchAnalysisConfigurer.TEXT)
+    @FullTextField(name = "tenant_prefix", analyzer = SearchAnalysisConfigurer.TEXT_PREFIX,
+            searchAnalyzer = SearchAnalysisConfigurer.TEXT)
     private String tenant;
 
     @NotNull
@@ -0,0 +1,10 @@
+package com.proveritus.propertyservice.export;
+
+import java.util.function.Function;
+
+/**
+ * A named value extracted from each exported row. The name is used as the CSV header and as the
+ * NDJSON field name.
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {
+}
@@ -0,0 +1,105 @@
+package com.proveritus.propertyservice.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.enums.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes rows one at a time straight to an output stream, so nothing but the current row is held
+ * in memory. Closing the writer flushes it but leaves the underlying stream open.
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+    protected final List<ExportColumn<T>> columns;
+
+    protected ExportWriter(List<ExportColumn<T>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> ExportWriter<T> create(ExportFormat format, List<ExportColumn<T>> columns,
+                                             OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter<>(columns, out, objectMapper);
+            case CSV -> new CsvWriter<>(columns, out);
+        };
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    private static final class NdjsonWriter<T> extends ExportWriter<T> {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(List<ExportColumn<T>> columns, OutputStream out, ObjectMapper objectMapper) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeObjectField(column.name(), column.value().apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter<T> extends ExportWriter<T> {
+        private final Writer writer;
+
+        private CsvWriter(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(columns.get(i).name()));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.proveritus.propertyservice.mapper;
+
+import com.proveritus.cloudutility.mapper.EntityMapper;
+import com.proveritus.propertyservice.dto.FloorDTO;
+import com.proveritus.propertyservice.entity.Floor;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Mapper for the entity {@link Floor} and its DTO {@link FloorDTO}.
+ * The owning property and the unit collection are managed by the service, and the version by JPA, never
+ * from the DTO.
+ */
+@Mapper(componentModel = "spring", uses = UnitMapper.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface FloorMapper extends EntityMapper<FloorDTO, Floor> {
+
+    @Mapping(target = "propertyId", source = "property.id")
+    FloorDTO toDto(Floor floor);
+
+    @Mapping(target = "property", ignore = true)
+    @Mapping(target = "units", ignore = true)
+    Floor toEntity(FloorDTO floorDTO);
+}
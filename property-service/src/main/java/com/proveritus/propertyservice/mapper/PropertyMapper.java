@@ -0,0 +1,36 @@
+package com.proveritus.propertyservice.mapper;
+
+import com.proveritus.cloudutility.mapper.EntityMapper;
+import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.entity.Property;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Mapper for the entity {@link Property} and its DTO {@link PropertyDTO}.
+ * Floors and units are created through their own endpoints, so they are only mapped outwards, as is
+ * the version.
+ */
+@Mapper(componentModel = "spring", uses = {FloorMapper.class, UnitMapper.class},
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PropertyMapper extends EntityMapper<PropertyDTO, Property> {
+
+    @Mapping(target = "managedByDetails", ignore = true)
+    PropertyDTO toDto(Property property);
+
+    @Mapping(target = "floors", ignore = true)
+    @Mapping(target = "units", ignore = true)
+    Property toEntity(PropertyDTO propertyDTO);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "floors", ignore = true)
+    @Mapping(target = "units", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(PropertyDTO propertyDTO, @MappingTarget Property property);
+}
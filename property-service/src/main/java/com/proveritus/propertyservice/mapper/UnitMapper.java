@@ -0,0 +1,33 @@
+package com.proveritus.propertyservice.mapper;
+
+import com.proveritus.cloudutility.mapper.EntityMapper;
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.entity.Unit;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Mapper for the entity {@link Unit} and its DTO {@link UnitDTO}.
+ * The owning property and floor are resolved by the service, and the version by JPA, never from the DTO.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UnitMapper extends EntityMapper<UnitDTO, Unit> {
+
+    @Mapping(target = "propertyId", source = "property.id")
+    @Mapping(target = "floorId", source = "floor.id")
+    UnitDTO toDto(Unit unit);
+
+    @Mapping(target = "property", ignore = true)
+    @Mapping(target = "floor", ignore = true)
+    Unit toEntity(UnitDTO unitDTO);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "property", ignore = true)
+    @Mapping(target = "floor", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(UnitDTO unitDTO, @MappingTarget Unit unit);
+}
@@ -0,0 +1,154 @@
+package com.proveritus.propertyservice.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.dto.CursorPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination for list endpoints. Instead of an offset, each page continues after the
+ * sort key and id of the last row of the previous page, so deep pages cost the same as the first
+ * one and no total count is run. The continuation token is an opaque Base64 string that carries the
+ * sort order and the last row's key values, so later requests do not need to repeat the sort.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorPaginator {
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    public <E, D> CursorPage<D> fetch(JpaSpecificationExecutor<E> repository, Class<E> entityType,
+                                      Specification<E> specification, String cursor, int size, Sort sort,
+                                      Function<List<E>, List<D>> converter) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0 when using a cursor");
+        }
+
+        Sort keysetSort;
+        ScrollPosition position;
+        if (cursor == null || cursor.isBlank()) {
+            keysetSort = withIdTieBreaker(sort);
+            validateSort(entityType, keysetSort);
+            position = ScrollPosition.keyset();
+        } else {
+            CursorToken token = decode(cursor);
+            keysetSort = toSort(token.sort());
+            validateSort(entityType, keysetSort);
+            position = ScrollPosition.forward(toKeys(entityType, token.keys()));
+        }
+
+        Window<E> window = repository.findBy(specification, query -> query
+                .sortBy(keysetSort)
+                .limit(size)
+                .scroll(position));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode(keysetSort, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPage<>(converter.apply(window.getContent()), window.size(), nextCursor, nextCursor != null);
+    }
+
+    private static Sort withIdTieBreaker(Sort sort) {
+        return sort.getOrderFor(ID) != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, ID));
+    }
+
+    /**
+     * Only plain columns of the entity itself can be used as keys; associations and collections
+     * would require joins that the keyset predicate cannot use an index for. Nullable columns are
+     * rejected too: a {@code null} key compares as unknown, so the rows after it would be skipped.
+     */
+    private void validateSort(Class<?> entityType, Sort sort) {
+        for (Sort.Order order : sort) {
+            if (singularAttribute(entityType, order.getProperty()).isOptional()) {
+                throw new IllegalArgumentException("Cannot paginate by cursor on nullable property: "
+                        + order.getProperty());
+            }
+        }
+    }
+
+    private SingularAttribute<?, ?> singularAttribute(Class<?> entityType, String property) {
+        try {
+            Attribute<?, ?> attribute = entityManager.getMetamodel().entity(entityType).getAttribute(property);
+            if (attribute instanceof SingularAttribute<?, ?> singular
+                    && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                return singular;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Cannot paginate by cursor on property: " + property);
+    }
+
+    private Map<String, Object> toKeys(Class<?> entityType, Map<String, String> encodedKeys) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        encodedKeys.forEach((property, value) -> keys.put(property,
+                conversionService.convert(value, singularAttribute(entityType, property).getJavaType())));
+        return keys;
+    }
+
+    private String encode(Sort sort, KeysetScrollPosition position) {
+        List<String> orders = new ArrayList<>();
+        sort.forEach(order -> orders.add(order.getProperty() + "," + order.getDirection()));
+
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, conversionService.convert(value, String.class)));
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new CursorToken(orders, keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    private CursorToken decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            CursorToken token = objectMapper.readValue(new String(json, StandardCharsets.UTF_8), CursorToken.class);
+            if (token.sort() == null || token.sort().isEmpty() || token.keys() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return token;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Sort toSort(List<String> orders) {
+        List<Sort.Order> sortOrders = new ArrayList<>();
+        for (String order : orders) {
+            String[] parts = order.split(",", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            sortOrders.add(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]));
+        }
+        return Sort.by(sortOrders);
+    }
+
+    private record CursorToken(List<String> sort, Map<String, String> keys) {
+    }
+}
@@ -1,10 +1,12 @@
 package com.proveritus.propertyservice.repository;
 
 import com.proveritus.cloudutility.jpa.BaseDao;
+import com.proveritus.propertyservice.dto.OccupancyStatusCount;
 import com.proveritus.propertyservice.entity.Floor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Repository;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.*;
@@ -17,4 +19,80 @@ public interface FloorRepository extends BaseDao<Floor, Long> {
 
     @Query("SELECT COUNT(f) FROM Floor f WHERE f.property.id = :propertyId")
     long countByPropertyId(@Param("propertyId") Long propertyId);
+
+    @Query("SELECT f.version FROM Floor f WHERE f.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Unit counts per floor and occupancy status for every floor of a property. Floors without
+     * units are included as a single row with a {@code null} status and a count of zero.
+     */
+    @Query("""
+            SELECT new com.proveritus.propertyservice.dto.OccupancyStatusCount(f.id, u.occupancyStatus, COUNT(u))
+            FROM Floor f
+            LEFT JOIN f.units u
+            WHERE f.property.id = :propertyId
+            GROUP BY f.id, u.occupancyStatus
+            ORDER BY f.id
+            """)
+    List<OccupancyStatusCount> countUnitsByPropertyIdGroupedByFloorAndOccupancy(@Param("propertyId") Long propertyId);
+
+    /**
+     * Applies relative changes to the cached occupancy counters of a floor in a single UPDATE,
+     * so concurrent unit writes on the same floor never overwrite each other's changes. The version
+     * is bumped even when all deltas are zero, as a unit of the floor was written. Like the other
+     * counter updates, it flushes pending writes first and then clears the persistence context, so
+     * no floor loaded before keeps its old counters or version.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE Floor f SET
+                f.version = f.version + 1,
+                f.numberOfUnits = COALESCE(f.numberOfUnits, 0) + :unitsDelta,
+                f.occupiedUnits = COALESCE(f.occupiedUnits, 0) + :occupiedDelta,
+                f.vacantUnits = COALESCE(f.vacantUnits, 0) + :vacantDelta
+            WHERE f.id = :floorId
+            """)
+    int adjustOccupancyCounters(@Param("floorId") Long floorId,
+                                @Param("unitsDelta") int unitsDelta,
+                                @Param("occupiedDelta") int occupiedDelta,
+                                @Param("vacantDelta") int vacantDelta);
+
+    /**
+     * Recomputes the occupancy counters of one floor from its units.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE Floor f SET
+                f.version = f.version + 1,
+                f.numberOfUnits = (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id),
+                f.occupiedUnits = (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id
+                        AND u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED),
+                f.vacantUnits = (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id
+                        AND u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.AVAILABLE)
+            WHERE f.id = :floorId
+            """)
+    int recalculateOccupancyCounters(@Param("floorId") Long floorId);
+
+    /**
+     * Recomputes the occupancy counters of every floor whose cached values have drifted
+     * from its units, leaving floors that are already correct untouched.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE Floor f SET
+                f.version = f.version + 1,
+                f.numberOfUnits = (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id),
+                f.occupiedUnits = (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id
+                        AND u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED),
+                f.vacantUnits = (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id
+                        AND u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.AVAILABLE)
+            WHERE f.numberOfUnits IS NULL OR f.occupiedUnits IS NULL OR f.vacantUnits IS NULL
+                OR f.numberOfUnits <> (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id)
+                OR f.occupiedUnits <> (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id
+                        AND u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED)
+                OR f.vacantUnits <> (SELECT COUNT(u) FROM Unit u WHERE u.floor.id = f.id
+                        AND u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.AVAILABLE)
+            """)
+    int reconcileOccupancyCounters();
 }
@@ -0,0 +1,110 @@
+package com.proveritus.propertyservice.repository;
+
+import com.proveritus.propertyservice.dto.FloorSummary;
+import com.proveritus.propertyservice.dto.PropertySummary;
+import com.proveritus.propertyservice.dto.UnitSummary;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.enums.RentType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads listing rows through R2DBC, one keyset batch at a time in id order. Each call holds a connection
+ * of the R2DBC pool only while its batch is read, and never one of the JDBC pool used by JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<PropertySummary> findProperties(PropertyType propertyType, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, name, property_type, address, number_of_floors,"
+                + " number_of_units, managed_by, version FROM properties WHERE id > :afterId");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("afterId", afterId);
+        if (propertyType != null) {
+            sql.append(" AND property_type = :propertyType");
+            params.put("propertyType", propertyType.name());
+        }
+        return query(sql, params, limit)
+                .map(row -> new PropertySummary(
+                        row.get("id", Long.class),
+                        row.get("name", String.class),
+                        enumValue(PropertyType.class, row.get("property_type", String.class)),
+                        row.get("address", String.class),
+                        row.get("number_of_floors", Integer.class),
+                        row.get("number_of_units", Integer.class),
+                        row.get("managed_by", Long.class),
+                        row.get("version", Long.class)))
+                .all();
+    }
+
+    public Flux<FloorSummary> findFloors(Long propertyId, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, property_id, name, number_of_units, occupied_units,"
+                + " vacant_units, version FROM floors WHERE property_id = :propertyId AND id > :afterId");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("propertyId", propertyId);
+        params.put("afterId", afterId);
+        return query(sql, params, limit)
+                .map(row -> new FloorSummary(
+                        row.get("id", Long.class),
+                        row.get("property_id", Long.class),
+                        row.get("name", String.class),
+                        row.get("number_of_units", Integer.class),
+                        row.get("occupied_units", Integer.class),
+                        row.get("vacant_units", Integer.class),
+                        row.get("version", Long.class)))
+                .all();
+    }
+
+    public Flux<UnitSummary> findUnits(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                                       long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, property_id, floor_id, name, size, rent_type,"
+                + " rate_per_sqm, monthly_rent, occupancy_status, tenant, version FROM units WHERE id > :afterId");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("afterId", afterId);
+        if (propertyId != null) {
+            sql.append(" AND property_id = :propertyId");
+            params.put("propertyId", propertyId);
+        }
+        if (floorId != null) {
+            sql.append(" AND floor_id = :floorId");
+            params.put("floorId", floorId);
+        }
+        if (occupancyStatus != null) {
+            sql.append(" AND occupancy_status = :occupancyStatus");
+            params.put("occupancyStatus", occupancyStatus.name());
+        }
+        return query(sql, params, limit)
+                .map(row -> new UnitSummary(
+                        row.get("id", Long.class),
+                        row.get("property_id", Long.class),
+                        row.get("floor_id", Long.class),
+                        row.get("name", String.class),
+                        row.get("size", Double.class),
+                        enumValue(RentType.class, row.get("rent_type", String.class)),
+                        row.get("rate_per_sqm", Double.class),
+                        row.get("monthly_rent", Double.class),
+                        enumValue(OccupancyStatus.class, row.get("occupancy_status", String.class)),
+                        row.get("tenant", String.class),
+                        row.get("version", Long.class)))
+                .all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec query(StringBuilder sql, Map<String, Object> params, int limit) {
+        // The limit is an int, so it is inlined rather than bound
+        sql.append(" ORDER BY id LIMIT ").append(limit);
+        return databaseClient.sql(sql.toString()).bindValues(params);
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.proveritus.propertyservice.repository;
+
+import com.proveritus.cloudutility.jpa.BaseDao;
+import com.proveritus.propertyservice.entity.PropertyStats;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PropertyStatsRepository extends BaseDao<PropertyStats, Long> {
+
+    @Modifying
+    @Query("UPDATE PropertyStats s SET s.totalFloors = s.totalFloors + :floorsDelta WHERE s.propertyId = :propertyId")
+    int adjustFloorCount(@Param("propertyId") Long propertyId, @Param("floorsDelta") long floorsDelta);
+
+    @Modifying
+    @Query("""
+            UPDATE PropertyStats s SET
+                s.totalUnits = s.totalUnits + :unitsDelta,
+                s.occupiedUnits = s.occupiedUnits + :occupiedDelta,
+                s.vacantUnits = s.vacantUnits + :vacantDelta,
+                s.reservedUnits = s.reservedUnits + :reservedDelta,
+                s.notAvailableUnits = s.notAvailableUnits + :notAvailableDelta,
+                s.underMaintenanceUnits = s.underMaintenanceUnits + :underMaintenanceDelta,
+                s.totalRentalIncome = s.totalRentalIncome + :rentalIncomeDelta,
+                s.potentialRentalIncome = s.potentialRentalIncome + :potentialRentalIncomeDelta
+            WHERE s.propertyId = :propertyId
+            """)
+    int adjustUnitCounters(@Param("propertyId") Long propertyId,
+                           @Param("unitsDelta") long unitsDelta,
+                           @Param("occupiedDelta") long occupiedDelta,
+                           @Param("vacantDelta") long vacantDelta,
+                           @Param("reservedDelta") long reservedDelta,
+                           @Param("notAvailableDelta") long notAvailableDelta,
+                           @Param("underMaintenanceDelta") long underMaintenanceDelta,
+                           @Param("rentalIncomeDelta") double rentalIncomeDelta,
+                           @Param("potentialRentalIncomeDelta") double potentialRentalIncomeDelta);
+
+    @Modifying
+    @Query("DELETE FROM PropertyStats s WHERE s.propertyId = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
+
+    /**
+     * Computes the figures of one property from its floors and units without storing them.
+     */
+    @Query("""
+            SELECT new com.proveritus.propertyservice.entity.PropertyStats(p.id,
+                (SELECT COUNT(f) FROM Floor f WHERE f.property.id = p.id),
+                COUNT(u),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.AVAILABLE THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.RESERVED THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.NOT_AVAILABLE THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.UNDER_MAINTENANCE THEN 1 ELSE 0 END),
+                COALESCE(SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED THEN u.monthlyRent ELSE 0.0 END), 0.0),
+                COALESCE(SUM(u.monthlyRent), 0.0))
+            FROM Property p
+            LEFT JOIN p.units u
+            WHERE p.id = :propertyId
+            GROUP BY p.id
+            """)
+    Optional<PropertyStats> computeByPropertyId(@Param("propertyId") Long propertyId);
+
+    /**
+     * Recomputes the stats row of one property from its floors and units. An existing row, e.g. one
+     * another transaction inserted since this one found none, is overwritten with the recount. Native,
+     * since HQL has no upsert for an insert from a select.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO property_stats (property_id, total_floors, total_units, occupied_units, vacant_units,
+                    reserved_units, not_available_units, under_maintenance_units, total_rental_income,
+                    potential_rental_income)
+            SELECT p.id,
+                (SELECT COUNT(*) FROM floors f WHERE f.property_id = p.id),
+                COUNT(u.id),
+                COALESCE(SUM(CASE WHEN u.occupancy_status = 'OCCUPIED' THEN 1 ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN u.occupancy_status = 'AVAILABLE' THEN 1 ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN u.occupancy_status = 'RESERVED' THEN 1 ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN u.occupancy_status = 'NOT_AVAILABLE' THEN 1 ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN u.occupancy_status = 'UNDER_MAINTENANCE' THEN 1 ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN u.occupancy_status = 'OCCUPIED' THEN u.monthly_rent ELSE 0 END), 0),
+                COALESCE(SUM(u.monthly_rent), 0)
+            FROM properties p
+            LEFT JOIN units u ON u.property_id = p.id
+            WHERE p.id = :propertyId
+            GROUP BY p.id
+            ON DUPLICATE KEY UPDATE
+                total_floors = VALUES(total_floors),
+                total_units = VALUES(total_units),
+                occupied_units = VALUES(occupied_units),
+                vacant_units = VALUES(vacant_units),
+                reserved_units = VALUES(reserved_units),
+                not_available_units = VALUES(not_available_units),
+                under_maintenance_units = VALUES(under_maintenance_units),
+                total_rental_income = VALUES(total_rental_income),
+                potential_rental_income = VALUES(potential_rental_income)
+            """)
+    int rebuildByPropertyId(@Param("propertyId") Long propertyId);
+
+    /**
+     * Recomputes the stats rows of every property. Expects the table to have been emptied first.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO PropertyStats (propertyId, totalFloors, totalUnits, occupiedUnits, vacantUnits,
+                    reservedUnits, notAvailableUnits, underMaintenanceUnits, totalRentalIncome, potentialRentalIncome)
+            SELECT p.id,
+                (SELECT COUNT(f) FROM Floor f WHERE f.property.id = p.id),
+                COUNT(u),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.AVAILABLE THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.RESERVED THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.NOT_AVAILABLE THEN 1 ELSE 0 END),
+                SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.UNDER_MAINTENANCE THEN 1 ELSE 0 END),
+                COALESCE(SUM(CASE WHEN u.occupancyStatus = com.proveritus.propertyservice.enums.OccupancyStatus.OCCUPIED THEN u.monthlyRent ELSE 0 END), 0),
+                COALESCE(SUM(u.monthlyRent), 0)
+            FROM Property p
+            LEFT JOIN p.units u
+            GROUP BY p.id
+            """)
+    int rebuildAll();
+}
@@ -1,10 +1,13 @@
 package com.proveritus.propertyservice.repository;
 
 import com.proveritus.cloudutility.jpa.BaseDao;
+import com.proveritus.propertyservice.dto.OccupancyStatusCount;
 import com.proveritus.propertyservice.entity.Unit;
 import com.proveritus.propertyservice.enums.OccupancyStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +23,13 @@ public interface UnitRepository extends BaseDao<Unit, Long> {
 
     Optional<Unit> findByNameAndPropertyId(String name, Long propertyId);
 
+    @Query("SELECT u.version FROM Unit u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Unit u WHERE u.id = :id")
+    Optional<Unit> findByIdForUpdate(@Param("id") Long id);
+
     Page<Unit> findByPropertyId(Long propertyId, Pageable pageable);
 
     Page<Unit> findByFloorId(Long floorId, Pageable pageable);
@@ -27,7 +37,18 @@ public interface UnitRepository extends BaseDao<Unit, Long> {
     long countByFloorId(Long floorId);
 
     @Query("SELECT COUNT(u) FROM Unit u WHERE u.floor.id = :floorId AND u.occupancyStatus = :occupancyStatus")
-    long countByFloorIdAndOccupancy(@Param("floorId") Long floorId, @Param("occupancy") OccupancyStatus occupancyStatus);
+    long countByFloorIdAndOccupancy(@Param("floorId") Long floorId, @Param("occupancyStatus") OccupancyStatus occupancyStatus);
+
+    @Query("""
+            SELECT new com.proveritus.propertyservice.dto.OccupancyStatusCount(u.floor.id, u.occupancyStatus, COUNT(u))
+            FROM Unit u
+            WHERE u.floor.id = :floorId
+            GROUP BY u.floor.id, u.occupancyStatus
+            """)
+    List<OccupancyStatusCount> countByFloorIdGroupedByOccupancy(@Param("floorId") Long floorId);
+
+    @Query("SELECT u.occupancyStatus, COUNT(u) FROM Unit u GROUP BY u.occupancyStatus")
+    List<Object[]> countGroupedByOccupancyStatus();
 
     List<Unit> findByOccupancyStatus(OccupancyStatus occupancyStatus);
 
@@ -39,12 +60,9 @@ public interface UnitRepository extends BaseDao<Unit, Long> {
             "(:occupancyStatus IS NULL OR u.occupancyStatus = :occupancyStatus)")
     Page<Unit> findWithFilters(@Param("propertyId") Long propertyId,
                                @Param("floorId") Long floorId,
-                               @Param("occupancy") OccupancyStatus occupancyStatus,
+                               @Param("occupancyStatus") OccupancyStatus occupancyStatus,
                                Pageable pageable);
 
-    @Query("SELECT u FROM Unit u WHERE " + "LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " + "LOWER(u.tenant) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<Unit> searchUnits(@Param("query") String query, Pageable pageable);
-
     @Query("SELECT COALESCE(SUM(u.monthlyRent), 0) FROM Unit u WHERE u.property.id = :propertyId AND u.occupancyStatus = 'OCCUPIED'")
     Double calculateTotalRentalIncome(@Param("propertyId") Long propertyId);
 
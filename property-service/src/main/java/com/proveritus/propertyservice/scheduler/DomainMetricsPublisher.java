@@ -0,0 +1,57 @@
+package com.proveritus.propertyservice.scheduler;
+
+import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.repository.UnitRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes unit counts by occupancy status and property counts by type as gauges. The counts are
+ * refreshed on a schedule rather than on every scrape, so scrapes never hit the database.
+ */
+@Slf4j
+@Component
+public class DomainMetricsPublisher {
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final PropertyRepository propertyRepository;
+    private final UnitRepository unitRepository;
+    private final MultiGauge unitsByOccupancy;
+    private final MultiGauge propertiesByType;
+
+    public DomainMetricsPublisher(PropertyRepository propertyRepository, UnitRepository unitRepository,
+                                  MeterRegistry meterRegistry) {
+        this.propertyRepository = propertyRepository;
+        this.unitRepository = unitRepository;
+        this.unitsByOccupancy = MultiGauge.builder("property.units")
+                .description("Units by occupancy status")
+                .register(meterRegistry);
+        this.propertiesByType = MultiGauge.builder("property.properties")
+                .description("Properties by type")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${metrics.domain.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            unitsByOccupancy.register(rows("occupancy_status", unitRepository.countGroupedByOccupancyStatus()), true);
+            propertiesByType.register(rows("type", propertyRepository.countGroupedByPropertyType()), true);
+        } catch (Exception e) {
+            log.error("Refreshing domain metrics failed", e);
+        }
+    }
+
+    private List<MultiGauge.Row<?>> rows(String tag, List<Object[]> counts) {
+        return counts.stream()
+                .<MultiGauge.Row<?>>map(count -> MultiGauge.Row.of(
+                        Tags.of(tag, count[0] != null ? count[0].toString() : UNKNOWN),
+                        ((Number) count[1]).longValue()))
+                .toList();
+    }
+}
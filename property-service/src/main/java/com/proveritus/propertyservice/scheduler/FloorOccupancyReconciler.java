@@ -0,0 +1,30 @@
+package com.proveritus.propertyservice.scheduler;
+
+import com.proveritus.propertyservice.service.FloorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes floor occupancy counters that have drifted from the units they describe,
+ * e.g. after manual database edits or a failed write that bypassed the service layer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FloorOccupancyReconciler {
+
+    private final FloorService floorService;
+
+    @Scheduled(initialDelayString = "${occupancy.reconciler.interval-ms:600000}",
+            fixedDelayString = "${occupancy.reconciler.interval-ms:600000}")
+    public void reconcile() {
+        log.debug("Reconciling floor occupancy stats");
+        try {
+            floorService.reconcileFloorOccupancyStats();
+        } catch (Exception e) {
+            log.error("Floor occupancy reconciliation failed", e);
+        }
+    }
+}
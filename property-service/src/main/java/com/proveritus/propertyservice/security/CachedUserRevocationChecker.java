@@ -0,0 +1,47 @@
+package com.proveritus.propertyservice.security;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+import com.proveritus.cloudutility.exception.UserServiceNotAvailableException;
+import com.proveritus.cloudutility.security.CustomPrincipal;
+import com.proveritus.cloudutility.security.TokenRevocationChecker;
+import com.proveritus.propertyservice.service.UserCacheService;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the token claims with the user details cache, so a disabled, locked, deleted or re-roled
+ * user loses access within the cache TTL, or immediately when user-service reports the change. If
+ * user-service cannot be reached the token is accepted on its signature alone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jwt.revocation-check.enabled", havingValue = "true")
+public class CachedUserRevocationChecker implements TokenRevocationChecker {
+
+    private final UserCacheService userCacheService;
+
+    @Override
+    public boolean isRevoked(CustomPrincipal principal) {
+        UserDTO user;
+        try {
+            user = userCacheService.getUser(principal.getId());
+        } catch (FeignException.NotFound e) {
+            return true;
+        } catch (FeignException | UserServiceNotAvailableException e) {
+            log.warn("Unable to check token revocation for user id: {}", principal.getId(), e);
+            return false;
+        }
+
+        return user == null
+                || !user.isEnabled()
+                || !user.isAccountNonExpired()
+                || !user.isAccountNonLocked()
+                || !user.isCredentialsNonExpired()
+                || !principal.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    }
+}
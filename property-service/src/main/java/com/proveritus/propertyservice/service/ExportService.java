@@ -0,0 +1,26 @@
+package com.proveritus.propertyservice.service;
+
+import com.proveritus.propertyservice.enums.ExportFormat;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    /**
+     * Writes every unit matching the filters to {@code out}; {@code null} filters are ignored.
+     *
+     * @return the number of exported units
+     */
+    long exportUnits(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                     ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Writes every property, or only those of {@code propertyType} when given, to {@code out}.
+     *
+     * @return the number of exported properties
+     */
+    long exportProperties(PropertyType propertyType, ExportFormat format, OutputStream out) throws IOException;
+}
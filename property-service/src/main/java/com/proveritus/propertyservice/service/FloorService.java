@@ -1,12 +1,16 @@
 package com.proveritus.propertyservice.service;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.FloorDTO;
 import com.proveritus.propertyservice.dto.FloorOccupancyStats;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
 import com.proveritus.cloudutility.exception.EntityNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Map;
 
 public interface FloorService {
     FloorDTO createFloor(FloorDTO floorDTO);
@@ -15,14 +19,38 @@ public interface FloorService {
 
     List<FloorDTO> getFloorsByPropertyId(Long propertyId);
 
-    FloorDTO updateFloor(Long id, FloorDTO floorDTO) throws EntityNotFoundException;
+    /**
+     * Current version of the floor, read without loading it. It changes with the floor and with any of
+     * its units, so it also versions the floor's occupancy statistics.
+     */
+    long getFloorVersion(Long id) throws EntityNotFoundException;
+
+    /**
+     * Updates the floor, failing with {@code PreconditionFailedException} unless it is still at
+     * {@code expectedVersion}. A {@code null} expected version updates unconditionally.
+     */
+    FloorDTO updateFloor(Long id, FloorDTO floorDTO, Long expectedVersion) throws EntityNotFoundException;
 
     Page<FloorDTO> getFloorsByPropertyId(Long propertyId, Pageable pageable);
 
+    CursorPage<FloorDTO> getFloorsByPropertyId(Long propertyId, String cursor, int size, Sort sort);
+
     void deleteFloor(Long id) throws EntityNotFoundException;
 
     FloorOccupancyStats getFloorOccupancyStats(Long id) throws EntityNotFoundException;
 
+    Map<Long, FloorOccupancyStats> getFloorOccupancyStatsByPropertyId(Long propertyId) throws EntityNotFoundException;
+
     void updateFloorOccupancyStats(Long floorId);
+
+    /**
+     * Moves a unit's contribution to the floor occupancy counters from its previous floor and
+     * status to its current ones, and bumps the version of both floors. Pass {@code null} floor ids
+     * for units that are created or deleted.
+     */
+    void applyUnitOccupancyChange(Long previousFloorId, OccupancyStatus previousStatus,
+                                  Long currentFloorId, OccupancyStatus currentStatus);
+
+    int reconcileFloorOccupancyStats();
 }
 
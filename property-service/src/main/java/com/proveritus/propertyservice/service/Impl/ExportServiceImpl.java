@@ -0,0 +1,129 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.ExportFormat;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.export.ExportColumn;
+import com.proveritus.propertyservice.export.ExportWriter;
+import com.proveritus.propertyservice.service.ExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+
+    // Associations are read through their proxies' ids only, so exporting never triggers lazy loads
+    private static final List<ExportColumn<Unit>> UNIT_COLUMNS = List.of(
+            new ExportColumn<>("id", Unit::getId),
+            new ExportColumn<>("name", Unit::getName),
+            new ExportColumn<>("size", Unit::getSize),
+            new ExportColumn<>("rentType", Unit::getRentType),
+            new ExportColumn<>("ratePerSqm", Unit::getRatePerSqm),
+            new ExportColumn<>("monthlyRent", Unit::getMonthlyRent),
+            new ExportColumn<>("occupancyStatus", Unit::getOccupancyStatus),
+            new ExportColumn<>("tenant", Unit::getTenant),
+            new ExportColumn<>("propertyId", unit -> unit.getProperty().getId()),
+            new ExportColumn<>("floorId", unit -> unit.getFloor() != null ? unit.getFloor().getId() : null));
+
+    private static final List<ExportColumn<Property>> PROPERTY_COLUMNS = List.of(
+            new ExportColumn<>("id", Property::getId),
+            new ExportColumn<>("name", Property::getName),
+            new ExportColumn<>("propertyType", Property::getPropertyType),
+            new ExportColumn<>("address", Property::getAddress),
+            new ExportColumn<>("numberOfFloors", Property::getNumberOfFloors),
+            new ExportColumn<>("numberOfUnits", Property::getNumberOfUnits),
+            new ExportColumn<>("managedBy", Property::getManagedBy));
+
+    private static final String UNITS_QUERY = "SELECT u FROM Unit u WHERE " +
+            "(:propertyId IS NULL OR u.property.id = :propertyId) AND " +
+            "(:floorId IS NULL OR u.floor.id = :floorId) AND " +
+            "(:occupancyStatus IS NULL OR u.occupancyStatus = :occupancyStatus) " +
+            "ORDER BY u.id";
+
+    private static final String PROPERTIES_QUERY =
+            "SELECT p FROM Property p WHERE (:propertyType IS NULL OR p.propertyType = :propertyType) ORDER BY p.id";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportServiceImpl(EntityManager entityManager, ObjectMapper objectMapper,
+                             @Value("${export.fetch-size:-2147483648}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long exportUnits(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                            ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting units as {} - Property ID: {}, Floor ID: {}, Occupancy Status: {}",
+                format, propertyId, floorId, occupancyStatus);
+        TypedQuery<Unit> query = entityManager.createQuery(UNITS_QUERY, Unit.class)
+                .setParameter("propertyId", propertyId)
+                .setParameter("floorId", floorId)
+                .setParameter("occupancyStatus", occupancyStatus);
+        try (Stream<Unit> units = stream(query)) {
+            long exported = export(units, UNIT_COLUMNS, format, out);
+            log.info("Exported {} units", exported);
+            return exported;
+        }
+    }
+
+    @Override
+    public long exportProperties(PropertyType propertyType, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting properties as {} - Property type: {}", format, propertyType);
+        TypedQuery<Property> query = entityManager.createQuery(PROPERTIES_QUERY, Property.class)
+                .setParameter("propertyType", propertyType);
+        try (Stream<Property> properties = stream(query)) {
+            long exported = export(properties, PROPERTY_COLUMNS, format, out);
+            log.info("Exported {} properties", exported);
+            return exported;
+        }
+    }
+
+    /**
+     * The fetch size only applies to this statement. MySQL Connector/J streams a result row by row when
+     * it is {@link Integer#MIN_VALUE} and otherwise reads it whole, so other databases need a positive size.
+     * Must be consumed inside the transaction and closed afterwards.
+     */
+    private <T> Stream<T> stream(TypedQuery<T> query) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Each row is detached once written so the persistence context does not grow with the export.
+     */
+    private <T> long export(Stream<T> rows, List<ExportColumn<T>> columns, ExportFormat format,
+                            OutputStream out) throws IOException {
+        long exported = 0;
+        try (ExportWriter<T> writer = ExportWriter.create(format, columns, out, objectMapper)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.write(row);
+                entityManager.detach(row);
+                exported++;
+            }
+        }
+        return exported;
+    }
+}
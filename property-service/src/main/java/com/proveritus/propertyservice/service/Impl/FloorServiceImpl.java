@@ -1,24 +1,33 @@
 package com.proveritus.propertyservice.service.Impl;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.FloorDTO;
 import com.proveritus.propertyservice.dto.FloorOccupancyStats;
+import com.proveritus.propertyservice.dto.OccupancyStatusCount;
 import com.proveritus.propertyservice.entity.Floor;
 import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.mapper.FloorMapper;
+import com.proveritus.propertyservice.pagination.CursorPaginator;
 import com.proveritus.propertyservice.enums.OccupancyStatus;
 import com.proveritus.cloudutility.exception.EntityNotFoundException;
 import com.proveritus.propertyservice.repository.FloorRepository;
 import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.repository.UnitRepository;
 import com.proveritus.propertyservice.service.FloorService;
+import com.proveritus.propertyservice.service.PropertyStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,7 +37,10 @@ import java.util.stream.Collectors;
 public class FloorServiceImpl implements FloorService {
     private final FloorRepository floorRepository;
     private final PropertyRepository propertyRepository;
-    private final ModelMapper modelMapper;
+    private final UnitRepository unitRepository;
+    private final FloorMapper floorMapper;
+    private final PropertyStatsService propertyStatsService;
+    private final CursorPaginator cursorPaginator;
 
     @Override
     public FloorDTO createFloor(FloorDTO floorDTO) {
@@ -36,13 +48,18 @@ public class FloorServiceImpl implements FloorService {
         validateFloor(floorDTO);
 
         Property property = validatePropertyExists(floorDTO.getPropertyId());
-        Floor floor = modelMapper.map(floorDTO, Floor.class);
+        Floor floor = floorMapper.toEntity(floorDTO);
         floor.setProperty(property);
+        floor.setNumberOfUnits(0);
+        floor.setOccupiedUnits(0);
+        floor.setVacantUnits(0);
 
         Floor savedFloor = floorRepository.save(floor);
+        propertyStatsService.applyFloorChange(null, property.getId());
+        propertyRepository.incrementVersion(property.getId());
         log.debug("Floor created successfully with ID: {}", savedFloor.getId());
 
-        return modelMapper.map(savedFloor, FloorDTO.class);
+        return floorMapper.toDto(savedFloor);
     }
 
     @Override
@@ -54,7 +71,14 @@ public class FloorServiceImpl implements FloorService {
                     log.error("Floor not found with ID: {}", id);
                     return new EntityNotFoundException("Floor not found with id: " + id);
                 });
-        return modelMapper.map(floor, FloorDTO.class);
+        return floorMapper.toDto(floor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getFloorVersion(Long id) {
+        return floorRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Floor not found with id: " + id));
     }
 
     @Override
@@ -62,9 +86,7 @@ public class FloorServiceImpl implements FloorService {
     public List<FloorDTO> getFloorsByPropertyId(Long propertyId) {
         log.debug("Fetching all floors for property ID: {}", propertyId);
         validatePropertyExists(propertyId);
-        return floorRepository.findByPropertyId(propertyId).stream()
-                .map(floor -> modelMapper.map(floor, FloorDTO.class))
-                .collect(Collectors.toList());
+        return floorMapper.toDto(floorRepository.findByPropertyId(propertyId));
     }
 
     @Override
@@ -73,19 +95,31 @@ public class FloorServiceImpl implements FloorService {
         log.debug("Fetching paginated floors for property ID: {}", propertyId);
         validatePropertyExists(propertyId);
         return floorRepository.findByPropertyId(propertyId, pageable)
-                .map(floor -> modelMapper.map(floor, FloorDTO.class));
+                .map(floorMapper::toDto);
     }
 
     @Override
-    public FloorDTO updateFloor(Long id, FloorDTO floorDTO) {
+    @Transactional(readOnly = true)
+    public CursorPage<FloorDTO> getFloorsByPropertyId(Long propertyId, String cursor, int size, Sort sort) {
+        log.debug("Fetching floors for property ID: {} after cursor: {}", propertyId, cursor);
+        validatePropertyExists(propertyId);
+        return cursorPaginator.fetch(floorRepository, Floor.class,
+                (root, query, cb) -> cb.equal(root.get("property").get("id"), propertyId),
+                cursor, size, sort, floorMapper::toDto);
+    }
+
+    @Override
+    public FloorDTO updateFloor(Long id, FloorDTO floorDTO, Long expectedVersion) {
         log.info("Updating floor with ID: {}", id);
 
         Floor existingFloor = floorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Floor not found with id: " + id));
+        existingFloor.checkVersion(expectedVersion);
 
         Property property = validatePropertyExists(floorDTO.getPropertyId());
+        Long previousPropertyId = existingFloor.getProperty().getId();
 
-        if (!existingFloor.getProperty().getId().equals(property.getId())) {
+        if (!previousPropertyId.equals(property.getId())) {
             existingFloor.setProperty(property);
         }
 
@@ -94,10 +128,16 @@ public class FloorServiceImpl implements FloorService {
         }
 
         updateFloorFields(existingFloor, floorDTO);
-        Floor updatedFloor = floorRepository.save(existingFloor);
+        // Flushed so the returned version is the new one
+        Floor updatedFloor = floorRepository.saveAndFlush(existingFloor);
+        propertyStatsService.applyFloorChange(previousPropertyId, property.getId());
+        propertyRepository.incrementVersion(property.getId());
+        if (!previousPropertyId.equals(property.getId())) {
+            propertyRepository.incrementVersion(previousPropertyId);
+        }
 
         log.debug("Floor updated successfully with ID: {}", id);
-        return modelMapper.map(updatedFloor, FloorDTO.class);
+        return floorMapper.toDto(updatedFloor);
     }
 
     @Override
@@ -112,6 +152,8 @@ public class FloorServiceImpl implements FloorService {
         }
 
         floorRepository.deleteById(id);
+        propertyStatsService.applyFloorChange(floor.getProperty().getId(), null);
+        propertyRepository.incrementVersion(floor.getProperty().getId());
         log.debug("Floor deleted successfully with ID: {}", id);
     }
 
@@ -119,59 +161,108 @@ public class FloorServiceImpl implements FloorService {
     @Transactional(readOnly = true)
     public FloorOccupancyStats getFloorOccupancyStats(Long id) {
         log.debug("Fetching occupancy stats for floor ID: {}", id);
-        val floor = floorRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Floor not found with id: " + id));
+        if (!floorRepository.existsById(id)) {
+            throw new EntityNotFoundException("Floor not found with id: " + id);
+        }
+        return toOccupancyStats(unitRepository.countByFloorIdGroupedByOccupancy(id));
+    }
 
-        int totalUnits = floor.getUnits().size();
-        int occupiedUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.OCCUPIED)
-                .count();
-        int vacantUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.AVAILABLE)
-                .count();
-        int reservedUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.RESERVED)
-                .count();
-        int notAvailableUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.NOT_AVAILABLE)
-                .count();
-        int underMaintenanceUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.UNDER_MAINTENANCE)
-                .count();
-
-        double occupancyRate = totalUnits > 0 ? (occupiedUnits * 100.0) / totalUnits : 0;
-        double vacancyRate = totalUnits > 0 ? (vacantUnits * 100.0) / totalUnits : 0;
-        double reservedRate = totalUnits > 0 ? (reservedUnits * 100.0) / totalUnits : 0;
-        double notAvailableRate = totalUnits > 0 ? (notAvailableUnits * 100.0) / totalUnits : 0;
-        double underMaintenanceRate = totalUnits > 0 ? (underMaintenanceUnits * 100.0) / totalUnits : 0;
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, FloorOccupancyStats> getFloorOccupancyStatsByPropertyId(Long propertyId) {
+        log.debug("Fetching occupancy stats for all floors of property ID: {}", propertyId);
+        List<OccupancyStatusCount> counts = floorRepository.countUnitsByPropertyIdGroupedByFloorAndOccupancy(propertyId);
+        if (counts.isEmpty()) {
+            validatePropertyExists(propertyId);
+        }
 
-        return new FloorOccupancyStats(totalUnits, occupiedUnits, vacantUnits, reservedUnits,
-                notAvailableUnits, underMaintenanceUnits, occupancyRate, vacancyRate,
-                reservedRate, notAvailableRate, underMaintenanceRate);
+        Map<Long, List<OccupancyStatusCount>> countsByFloor = counts.stream()
+                .collect(Collectors.groupingBy(OccupancyStatusCount::getFloorId, LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, FloorOccupancyStats> statsByFloor = new LinkedHashMap<>();
+        countsByFloor.forEach((floorId, floorCounts) -> statsByFloor.put(floorId, toOccupancyStats(floorCounts)));
+        return statsByFloor;
     }
 
     @Override
     public void updateFloorOccupancyStats(Long floorId) {
         log.debug("Updating occupancy stats for floor ID: {}", floorId);
-        Floor floor = floorRepository.findById(floorId)
-                .orElseThrow(() -> new EntityNotFoundException("Floor not found with id: " + floorId));
-
-        int totalUnits = floor.getUnits().size();
-        int occupiedUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.OCCUPIED)
-                .count();
-        int vacantUnits = (int) floor.getUnits().stream()
-                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.AVAILABLE)
-                .count();
-
-        floor.setNumberOfUnits(totalUnits);
-        floor.setOccupiedUnits(occupiedUnits);
-        floor.setVacantUnits(vacantUnits);
-
-        floorRepository.save(floor);
+        if (floorRepository.recalculateOccupancyCounters(floorId) == 0) {
+            throw new EntityNotFoundException("Floor not found with id: " + floorId);
+        }
         log.debug("Updated occupancy stats for floor ID: {}", floorId);
     }
 
+    @Override
+    public void applyUnitOccupancyChange(Long previousFloorId, OccupancyStatus previousStatus,
+                                         Long currentFloorId, OccupancyStatus currentStatus) {
+        if (Objects.equals(previousFloorId, currentFloorId)) {
+            if (currentFloorId != null) {
+                adjustOccupancyCounters(currentFloorId, 0,
+                        countOf(currentStatus, OccupancyStatus.OCCUPIED) - countOf(previousStatus, OccupancyStatus.OCCUPIED),
+                        countOf(currentStatus, OccupancyStatus.AVAILABLE) - countOf(previousStatus, OccupancyStatus.AVAILABLE));
+            }
+            return;
+        }
+
+        if (previousFloorId != null) {
+            adjustOccupancyCounters(previousFloorId, -1,
+                    -countOf(previousStatus, OccupancyStatus.OCCUPIED),
+                    -countOf(previousStatus, OccupancyStatus.AVAILABLE));
+        }
+        if (currentFloorId != null) {
+            adjustOccupancyCounters(currentFloorId, 1,
+                    countOf(currentStatus, OccupancyStatus.OCCUPIED),
+                    countOf(currentStatus, OccupancyStatus.AVAILABLE));
+        }
+    }
+
+    @Override
+    public int reconcileFloorOccupancyStats() {
+        int correctedFloors = floorRepository.reconcileOccupancyCounters();
+        if (correctedFloors > 0) {
+            log.warn("Corrected drifted occupancy stats on {} floor(s)", correctedFloors);
+        }
+        return correctedFloors;
+    }
+
+    private void adjustOccupancyCounters(Long floorId, int unitsDelta, int occupiedDelta, int vacantDelta) {
+        // Runs even without deltas, since it also bumps the floor version
+        log.debug("Adjusting occupancy stats for floor ID: {} by units: {}, occupied: {}, vacant: {}",
+                floorId, unitsDelta, occupiedDelta, vacantDelta);
+        floorRepository.adjustOccupancyCounters(floorId, unitsDelta, occupiedDelta, vacantDelta);
+    }
+
+    private FloorOccupancyStats toOccupancyStats(List<OccupancyStatusCount> counts) {
+        Map<OccupancyStatus, Integer> unitsByStatus = new EnumMap<>(OccupancyStatus.class);
+        int totalUnits = 0;
+        for (OccupancyStatusCount count : counts) {
+            totalUnits += (int) count.getUnitCount();
+            if (count.getOccupancyStatus() != null) {
+                unitsByStatus.put(count.getOccupancyStatus(), (int) count.getUnitCount());
+            }
+        }
+
+        int occupiedUnits = unitsByStatus.getOrDefault(OccupancyStatus.OCCUPIED, 0);
+        int vacantUnits = unitsByStatus.getOrDefault(OccupancyStatus.AVAILABLE, 0);
+        int reservedUnits = unitsByStatus.getOrDefault(OccupancyStatus.RESERVED, 0);
+        int notAvailableUnits = unitsByStatus.getOrDefault(OccupancyStatus.NOT_AVAILABLE, 0);
+        int underMaintenanceUnits = unitsByStatus.getOrDefault(OccupancyStatus.UNDER_MAINTENANCE, 0);
+
+        return new FloorOccupancyStats(totalUnits, occupiedUnits, vacantUnits, reservedUnits,
+                notAvailableUnits, underMaintenanceUnits,
+                rate(occupiedUnits, totalUnits), rate(vacantUnits, totalUnits), rate(reservedUnits, totalUnits),
+                rate(notAvailableUnits, totalUnits), rate(underMaintenanceUnits, totalUnits));
+    }
+
+    private static double rate(int units, int totalUnits) {
+        return totalUnits > 0 ? (units * 100.0) / totalUnits : 0;
+    }
+
+    private static int countOf(OccupancyStatus status, OccupancyStatus counted) {
+        return status == counted ? 1 : 0;
+    }
+
     private void checkForDuplicateFloorName(String name, Long propertyId) {
         if (floorRepository.findByNameAndPropertyId(name, propertyId).isPresent()) {
             log.error("Floor with name '{}' already exists in property ID: {}", name, propertyId);
@@ -182,10 +273,8 @@ public class FloorServiceImpl implements FloorService {
     }
 
     private void updateFloorFields(Floor existingFloor, FloorDTO floorDTO) {
+        // Occupancy counters are maintained from unit writes and are not client-editable
         existingFloor.setName(floorDTO.getName());
-        existingFloor.setNumberOfUnits(floorDTO.getNumberOfUnits());
-        existingFloor.setOccupiedUnits(floorDTO.getOccupiedUnits());
-        existingFloor.setVacantUnits(floorDTO.getVacantUnits());
     }
 
     private void validateFloor(FloorDTO floorDTO) {
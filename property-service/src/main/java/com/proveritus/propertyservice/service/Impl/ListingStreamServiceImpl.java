@@ -0,0 +1,90 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.propertyservice.dto.FloorSummary;
+import com.proveritus.propertyservice.dto.PropertySummary;
+import com.proveritus.propertyservice.dto.UnitSummary;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.repository.ListingReadRepository;
+import com.proveritus.propertyservice.service.ListingStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+@Slf4j
+@Service
+public class ListingStreamServiceImpl implements ListingStreamService {
+
+    private final ListingReadRepository listingReadRepository;
+    private final int batchSize;
+
+    public ListingStreamServiceImpl(ListingReadRepository listingReadRepository,
+                                    @Value("${reactive-read.batch-size:200}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("reactive-read.batch-size must be greater than 0");
+        }
+        this.listingReadRepository = listingReadRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Flux<PropertySummary> streamProperties(PropertyType propertyType, long afterId, int limit) {
+        log.debug("Streaming properties of type: {} after ID: {}, limit: {}", propertyType, afterId, limit);
+        return stream(afterId, limit, (after, size) -> listingReadRepository.findProperties(propertyType, after, size),
+                PropertySummary::id);
+    }
+
+    @Override
+    public Flux<FloorSummary> streamFloors(Long propertyId, long afterId, int limit) {
+        log.debug("Streaming floors for property ID: {} after ID: {}, limit: {}", propertyId, afterId, limit);
+        return stream(afterId, limit, (after, size) -> listingReadRepository.findFloors(propertyId, after, size),
+                FloorSummary::id);
+    }
+
+    @Override
+    public Flux<UnitSummary> streamUnits(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                                         long afterId, int limit) {
+        log.debug("Streaming units - Property ID: {}, Floor ID: {}, Occupancy: {} after ID: {}, limit: {}",
+                propertyId, floorId, occupancyStatus, afterId, limit);
+        return stream(afterId, limit,
+                (after, size) -> listingReadRepository.findUnits(propertyId, floorId, occupancyStatus, after, size),
+                UnitSummary::id);
+    }
+
+    /**
+     * Each batch is collected before it is emitted, so its connection goes back to the pool at once. A
+     * batch is only handed on once the client has taken every row of the one before, and the next query
+     * only runs once a batch has been handed on, so reading stays at most two batches ahead of the client.
+     * No batch asks for more rows than the limit leaves, and none is queried once it is reached.
+     */
+    private <T> Flux<T> stream(long afterId, int limit, BatchQuery<T> query, ToLongFunction<T> idOf) {
+        return Flux.defer(() -> {
+            AtomicLong remaining = new AtomicLong(limit > 0 ? limit : Long.MAX_VALUE);
+            return batch(query, afterId, remaining)
+                    .expand(batch -> remaining.get() == 0
+                            ? Mono.empty()
+                            : batch(query, idOf.applyAsLong(batch.get(batch.size() - 1)), remaining))
+                    .concatMapIterable(batch -> batch, 1);
+        });
+    }
+
+    /**
+     * A batch shorter than asked for is the last one, so it leaves nothing remaining.
+     */
+    private <T> Mono<List<T>> batch(BatchQuery<T> query, long afterId, AtomicLong remaining) {
+        int size = (int) Math.min(batchSize, remaining.get());
+        return query.find(afterId, size).collectList()
+                .doOnNext(rows -> remaining.set(rows.size() < size ? 0 : remaining.get() - rows.size()));
+    }
+
+    @FunctionalInterface
+    private interface BatchQuery<T> {
+        Flux<T> find(long afterId, int size);
+    }
+}
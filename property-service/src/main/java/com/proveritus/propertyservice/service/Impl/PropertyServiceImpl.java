@@ -1,29 +1,41 @@
 package com.proveritus.propertyservice.service.Impl;
 
-import com.proveritus.cloudutility.dto.UserDTO;
-import com.proveritus.propertyservice.client.UserClient;
+import com.proveritus.propertyservice.dto.CursorPage;
+import com.proveritus.propertyservice.dto.FloorDTO;
 import com.proveritus.propertyservice.dto.PropertyDTO;
 import com.proveritus.propertyservice.dto.PropertyStatsDTO;
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.dto.UserLookup;
+import com.proveritus.propertyservice.entity.Floor;
 import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
 import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.mapper.FloorMapper;
+import com.proveritus.propertyservice.mapper.PropertyMapper;
+import com.proveritus.propertyservice.mapper.UnitMapper;
+import com.proveritus.propertyservice.pagination.CursorPaginator;
 import com.proveritus.cloudutility.exception.EntityNotFoundException;
 import com.proveritus.propertyservice.repository.PropertyRepository;
 import com.proveritus.propertyservice.service.PropertyService;
+import com.proveritus.propertyservice.service.PropertyStatsService;
+import com.proveritus.propertyservice.service.SearchIndexService;
+import com.proveritus.propertyservice.service.UserCacheService;
 import com.proveritus.propertyservice.validator.PropertyValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.proveritus.cloudutility.exception.UserServiceNotAvailableException;
-import feign.FeignException;
-
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,16 +44,21 @@ import java.util.stream.Collectors;
 @Transactional
 public class PropertyServiceImpl implements PropertyService {
     private final PropertyRepository propertyRepository;
-    private final ModelMapper modelMapper;
-    private final UserClient userClient;
+    private final PropertyMapper propertyMapper;
+    private final FloorMapper floorMapper;
+    private final UnitMapper unitMapper;
+    private final UserCacheService userCacheService;
     private final PropertyValidator propertyValidator;
+    private final PropertyStatsService propertyStatsService;
+    private final SearchIndexService searchIndexService;
+    private final CursorPaginator cursorPaginator;
 
     @Override
     public PropertyDTO createProperty(PropertyDTO propertyDTO) {
         log.info("Creating new property: {}", propertyDTO.getName());
         propertyValidator.validate(propertyDTO);
 
-        Property property = modelMapper.map(propertyDTO, Property.class);
+        Property property = propertyMapper.toEntity(propertyDTO);
 
         // Initialize collections to avoid null pointers
         if (property.getFloors() == null) {
@@ -52,11 +69,48 @@ public class PropertyServiceImpl implements PropertyService {
         }
 
         Property savedProperty = propertyRepository.save(property);
+        propertyStatsService.initializePropertyStats(savedProperty.getId());
 
         log.debug("Property created successfully with ID: {}", savedProperty.getId());
         return convertToDto(savedProperty);
     }
 
+    @Override
+    public PropertyDTO createPropertyTree(PropertyDTO propertyDTO) {
+        log.info("Creating property tree: {}", propertyDTO.getName());
+        propertyValidator.validateTree(propertyDTO);
+
+        Property property = propertyMapper.toEntity(propertyDTO);
+        property.setFloors(new ArrayList<>());
+        property.setUnits(new ArrayList<>());
+
+        if (propertyDTO.getFloors() != null) {
+            for (FloorDTO floorDTO : propertyDTO.getFloors()) {
+                Floor floor = floorMapper.toEntity(floorDTO);
+                floor.setProperty(property);
+                floor.setUnits(new ArrayList<>());
+                property.getFloors().add(floor);
+                if (floorDTO.getUnits() != null) {
+                    floorDTO.getUnits().forEach(unitDTO -> addUnit(property, floor, unitDTO));
+                }
+                setOccupancyCounters(floor);
+            }
+        }
+        if (propertyDTO.getUnits() != null) {
+            propertyDTO.getUnits().forEach(unitDTO -> addUnit(property, null, unitDTO));
+        }
+        property.setNumberOfFloors(property.getFloors().size());
+        property.setNumberOfUnits(property.getUnits().size());
+
+        // Ids come from the pooled generator, so the whole tree is flushed as batched inserts
+        Property savedProperty = propertyRepository.saveAndFlush(property);
+        propertyStatsService.rebuildPropertyStats(savedProperty.getId());
+
+        log.debug("Property tree created with ID: {}, {} floors and {} units", savedProperty.getId(),
+                savedProperty.getFloors().size(), savedProperty.getUnits().size());
+        return convertToDto(savedProperty);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PropertyDTO getPropertyById(Long id) {
@@ -66,6 +120,19 @@ public class PropertyServiceImpl implements PropertyService {
         return convertToDto(property);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long getPropertyVersion(Long id) {
+        return propertyRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Property not found with id: " + id));
+    }
+
+    @Override
+    public void managerChanged(Long userId) {
+        int updated = propertyRepository.incrementVersionsManagedBy(userId);
+        log.debug("Bumped the version of {} properties managed by user id: {}", updated, userId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> getAllProperties(Pageable pageable) {
@@ -74,6 +141,17 @@ public class PropertyServiceImpl implements PropertyService {
         return enrichPropertiesWithUserDetails(properties);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PropertyDTO> getProperties(PropertyType propertyType, String cursor, int size, Sort sort) {
+        log.debug("Fetching properties of type: {} after cursor: {}", propertyType, cursor);
+        Specification<Property> specification = propertyType == null
+                ? Specification.allOf()
+                : (root, query, cb) -> cb.equal(root.get("propertyType"), propertyType);
+        return cursorPaginator.fetch(propertyRepository, Property.class, specification, cursor, size, sort,
+                this::enrichPropertiesWithUserDetails);
+    }
+
 
     @Override
     @Transactional(readOnly = true)
@@ -84,10 +162,11 @@ public class PropertyServiceImpl implements PropertyService {
     }
 
     @Override
-    public PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO) {
+    public PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO, Long expectedVersion) {
         log.info("Updating property with ID: {}", id);
         Property existingProperty = propertyRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Property not found with id: " + id));
+        existingProperty.checkVersion(expectedVersion);
 
         // Check if name is being changed and if new name already exists
         if (!existingProperty.getName().equals(propertyDTO.getName()) &&
@@ -96,10 +175,11 @@ public class PropertyServiceImpl implements PropertyService {
         }
 
         // Preserve the ID and only update allowed fields
-        modelMapper.map(propertyDTO, existingProperty);
+        propertyMapper.updateEntity(propertyDTO, existingProperty);
         existingProperty.setId(id);
 
-        Property updatedProperty = propertyRepository.save(existingProperty);
+        // Flushed so the returned version is the new one
+        Property updatedProperty = propertyRepository.saveAndFlush(existingProperty);
         log.debug("Property updated successfully with ID: {}", id);
         return convertToDto(updatedProperty);
     }
@@ -120,6 +200,7 @@ public class PropertyServiceImpl implements PropertyService {
         }
 
         propertyRepository.deleteById(id);
+        propertyStatsService.deletePropertyStats(id);
         log.debug("Property deleted successfully with ID: {}", id);
     }
 
@@ -127,7 +208,7 @@ public class PropertyServiceImpl implements PropertyService {
     @Transactional(readOnly = true)
     public Page<PropertyDTO> searchProperties(String query, Pageable pageable) {
         log.debug("Searching properties by query: {}", query);
-        Page<Property> properties = propertyRepository.searchProperties(query, pageable);
+        Page<Property> properties = searchIndexService.searchProperties(query, pageable);
         return enrichPropertiesWithUserDetails(properties);
     }
 
@@ -135,7 +216,25 @@ public class PropertyServiceImpl implements PropertyService {
     @Transactional(readOnly = true)
     public PropertyStatsDTO getPropertyStats(Long id) {
         log.debug("Fetching stats for property ID: {}", id);
-        return propertyRepository.getPropertyStats(id);
+        return propertyStatsService.getPropertyStats(id);
+    }
+
+    @Override
+    public PropertyStatsDTO rebuildPropertyStats(Long id) {
+        log.info("Rebuilding stats for property ID: {}", id);
+        return propertyStatsService.rebuildPropertyStats(id);
+    }
+
+    @Override
+    public int rebuildAllPropertyStats() {
+        log.info("Rebuilding stats for all properties");
+        return propertyStatsService.rebuildAllPropertyStats();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildSearchIndex() {
+        searchIndexService.rebuildIndex();
     }
 
     @Override
@@ -145,48 +244,68 @@ public class PropertyServiceImpl implements PropertyService {
         return propertyRepository.countAllProperties();
     }
 
+    private void addUnit(Property property, Floor floor, UnitDTO unitDTO) {
+        UnitRents.calculateMonthlyRent(unitDTO);
+        Unit unit = unitMapper.toEntity(unitDTO);
+        unit.setProperty(property);
+        unit.setFloor(floor);
+        property.getUnits().add(unit);
+        if (floor != null) {
+            floor.getUnits().add(unit);
+        }
+    }
+
+    private static void setOccupancyCounters(Floor floor) {
+        floor.setNumberOfUnits(floor.getUnits().size());
+        floor.setOccupiedUnits((int) floor.getUnits().stream()
+                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.OCCUPIED).count());
+        floor.setVacantUnits((int) floor.getUnits().stream()
+                .filter(unit -> unit.getOccupancyStatus() == OccupancyStatus.AVAILABLE).count());
+    }
+
     private PropertyDTO convertToDto(Property property) {
-        PropertyDTO propertyDTO = modelMapper.map(property, PropertyDTO.class);
+        PropertyDTO propertyDTO = propertyMapper.toDto(property);
         enrichPropertyDTOWithUserDetails(property, propertyDTO);
         return propertyDTO;
     }
 
     private void enrichPropertyDTOWithUserDetails(Property property, PropertyDTO propertyDTO) {
         if (property.getManagedBy() != null) {
-            try {
-                UserDTO userDTO = userClient.getUserById(property.getManagedBy());
-                propertyDTO.setManagedByDetails(userDTO);
-            } catch (FeignException e) {
-                log.error("Unable to fetch user details for user id: {}", property.getManagedBy(), e);
-                throw new UserServiceNotAvailableException("User service is currently unavailable. Please try again later.");
-            }
+            UserLookup users = userCacheService.lookupUsers(Set.of(property.getManagedBy()));
+            setUserDetails(propertyDTO, property.getManagedBy(), users);
         }
     }
 
     private Page<PropertyDTO> enrichPropertiesWithUserDetails(Page<Property> properties) {
-        List<Long> userIds = properties.getContent().stream()
+        return new PageImpl<>(enrichPropertiesWithUserDetails(properties.getContent()),
+                properties.getPageable(), properties.getTotalElements());
+    }
+
+    private List<PropertyDTO> enrichPropertiesWithUserDetails(List<Property> properties) {
+        List<Long> userIds = properties.stream()
                 .map(Property::getManagedBy)
                 .collect(Collectors.toList());
 
         if (userIds.isEmpty()) {
-            return properties.map(this::convertToDto);
+            return properties.stream().map(this::convertToDto).collect(Collectors.toList());
         }
 
-        try {
-            List<UserDTO> userDTOs = userClient.getUsersByIds(userIds);
-            Map<Long, UserDTO> userMap = userDTOs.stream()
-                    .collect(Collectors.toMap(UserDTO::getId, user -> user));
+        // Never fails: while user-service is unavailable the last known users are used
+        UserLookup users = userCacheService.lookupUsers(userIds);
 
-            return properties.map(property -> {
-                PropertyDTO dto = modelMapper.map(property, PropertyDTO.class);
-                if (property.getManagedBy() != null) {
-                    dto.setManagedByDetails(userMap.get(property.getManagedBy()));
-                }
-                return dto;
-            });
-        } catch (FeignException e) {
-            log.error("Unable to fetch user details for user ids: {}", userIds, e);
-            throw new UserServiceNotAvailableException("User service is currently unavailable. Please try again later.");
+        return properties.stream().map(property -> {
+            PropertyDTO dto = propertyMapper.toDto(property);
+            if (property.getManagedBy() != null) {
+                setUserDetails(dto, property.getManagedBy(), users);
+            }
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    private static void setUserDetails(PropertyDTO propertyDTO, Long userId, UserLookup users) {
+        propertyDTO.setManagedByDetails(users.get(userId));
+        if (users.stale()) {
+            propertyDTO.setManagedByDetailsStale(true);
         }
     }
 }
@@ -0,0 +1,165 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.cloudutility.exception.EntityNotFoundException;
+import com.proveritus.propertyservice.dto.PropertyStatsDTO;
+import com.proveritus.propertyservice.entity.PropertyStats;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.repository.PropertyStatsRepository;
+import com.proveritus.propertyservice.service.PropertyStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PropertyStatsServiceImpl implements PropertyStatsService {
+    private final PropertyStatsRepository propertyStatsRepository;
+    private final PropertyRepository propertyRepository;
+
+    /**
+     * A missing row is computed for this read only and not stored, so concurrent reads never race to
+     * insert it. The next write to the property's floors or units, or a rebuild, creates it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PropertyStatsDTO getPropertyStats(Long propertyId) {
+        log.debug("Fetching stats for property ID: {}", propertyId);
+        return propertyStatsRepository.findById(propertyId)
+                .or(() -> propertyStatsRepository.computeByPropertyId(propertyId))
+                .map(this::toDto)
+                .orElseThrow(() -> new EntityNotFoundException("Property not found with id: " + propertyId));
+    }
+
+    @Override
+    public void initializePropertyStats(Long propertyId) {
+        propertyStatsRepository.save(PropertyStats.builder().propertyId(propertyId).build());
+    }
+
+    @Override
+    public void deletePropertyStats(Long propertyId) {
+        propertyStatsRepository.deleteByPropertyId(propertyId);
+    }
+
+    @Override
+    public void applyFloorChange(Long previousPropertyId, Long currentPropertyId) {
+        if (Objects.equals(previousPropertyId, currentPropertyId)) {
+            return;
+        }
+        if (previousPropertyId != null && propertyStatsRepository.adjustFloorCount(previousPropertyId, -1) == 0) {
+            rebuildMissingStats(previousPropertyId);
+        }
+        if (currentPropertyId != null && propertyStatsRepository.adjustFloorCount(currentPropertyId, 1) == 0) {
+            rebuildMissingStats(currentPropertyId);
+        }
+    }
+
+    @Override
+    public void applyUnitChange(Long previousPropertyId, OccupancyStatus previousStatus, Double previousMonthlyRent,
+                                Long currentPropertyId, OccupancyStatus currentStatus, Double currentMonthlyRent) {
+        UnitContribution previous = previousPropertyId != null
+                ? UnitContribution.of(previousStatus, previousMonthlyRent) : UnitContribution.NONE;
+        UnitContribution current = currentPropertyId != null
+                ? UnitContribution.of(currentStatus, currentMonthlyRent) : UnitContribution.NONE;
+
+        if (Objects.equals(previousPropertyId, currentPropertyId)) {
+            adjustUnitCounters(currentPropertyId, current.minus(previous));
+            return;
+        }
+        adjustUnitCounters(previousPropertyId, UnitContribution.NONE.minus(previous));
+        adjustUnitCounters(currentPropertyId, current);
+    }
+
+    @Override
+    public PropertyStatsDTO rebuildPropertyStats(Long propertyId) {
+        log.info("Rebuilding stats for property ID: {}", propertyId);
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new EntityNotFoundException("Property not found with id: " + propertyId);
+        }
+        propertyStatsRepository.flush();
+        propertyStatsRepository.rebuildByPropertyId(propertyId);
+        return propertyStatsRepository.findById(propertyId)
+                .map(this::toDto)
+                .orElseThrow(() -> new EntityNotFoundException("Property not found with id: " + propertyId));
+    }
+
+    @Override
+    public int rebuildAllPropertyStats() {
+        log.info("Rebuilding stats for all properties");
+        propertyStatsRepository.flush();
+        propertyStatsRepository.deleteAllInBatch();
+        int rebuilt = propertyStatsRepository.rebuildAll();
+        log.info("Rebuilt stats for {} properties", rebuilt);
+        return rebuilt;
+    }
+
+    private void adjustUnitCounters(Long propertyId, UnitContribution delta) {
+        if (propertyId == null || delta.isZero()) {
+            return;
+        }
+        int updated = propertyStatsRepository.adjustUnitCounters(propertyId, delta.units(), delta.occupied(),
+                delta.vacant(), delta.reserved(), delta.notAvailable(), delta.underMaintenance(),
+                delta.rentalIncome(), delta.potentialRentalIncome());
+        if (updated == 0) {
+            rebuildMissingStats(propertyId);
+        }
+    }
+
+    /**
+     * Properties created before the stats table existed have no row yet. Building it from the
+     * current data already includes the pending change, so no delta has to be applied afterwards.
+     * Concurrent writes may both find the row missing; the rebuild overwrites a row inserted in the
+     * meantime instead of failing on its key.
+     */
+    private void rebuildMissingStats(Long propertyId) {
+        log.warn("No stats row for property ID: {}, rebuilding it", propertyId);
+        propertyStatsRepository.flush();
+        propertyStatsRepository.rebuildByPropertyId(propertyId);
+    }
+
+    private PropertyStatsDTO toDto(PropertyStats stats) {
+        long totalUnits = stats.getTotalUnits();
+        double occupancyRate = totalUnits > 0 ? (stats.getOccupiedUnits() * 100.0) / totalUnits : 0;
+        double vacancyRate = totalUnits > 0 ? (stats.getVacantUnits() * 100.0) / totalUnits : 0;
+
+        return new PropertyStatsDTO(stats.getTotalFloors(), totalUnits, stats.getOccupiedUnits(),
+                stats.getVacantUnits(), stats.getReservedUnits(), stats.getNotAvailableUnits(),
+                stats.getUnderMaintenanceUnits(), occupancyRate, vacancyRate,
+                stats.getTotalRentalIncome(), stats.getPotentialRentalIncome());
+    }
+
+    private record UnitContribution(long units, long occupied, long vacant, long reserved, long notAvailable,
+                                    long underMaintenance, double rentalIncome, double potentialRentalIncome) {
+
+        static final UnitContribution NONE = new UnitContribution(0, 0, 0, 0, 0, 0, 0, 0);
+
+        static UnitContribution of(OccupancyStatus status, Double monthlyRent) {
+            double rent = monthlyRent != null ? monthlyRent : 0;
+            return new UnitContribution(1,
+                    status == OccupancyStatus.OCCUPIED ? 1 : 0,
+                    status == OccupancyStatus.AVAILABLE ? 1 : 0,
+                    status == OccupancyStatus.RESERVED ? 1 : 0,
+                    status == OccupancyStatus.NOT_AVAILABLE ? 1 : 0,
+                    status == OccupancyStatus.UNDER_MAINTENANCE ? 1 : 0,
+                    status == OccupancyStatus.OCCUPIED ? rent : 0,
+                    rent);
+        }
+
+        UnitContribution minus(UnitContribution other) {
+            return new UnitContribution(units - other.units, occupied - other.occupied, vacant - other.vacant,
+                    reserved - other.reserved, notAvailable - other.notAvailable,
+                    underMaintenance - other.underMaintenance, rentalIncome - other.rentalIncome,
+                    potentialRentalIncome - other.potentialRentalIncome);
+        }
+
+        boolean isZero() {
+            return units == 0 && occupied == 0 && vacant == 0 && reserved == 0 && notAvailable == 0
+                    && underMaintenance == 0 && rentalIncome == 0 && potentialRentalIncome == 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.service.SearchIndexService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.engine.search.query.SearchFetchable;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.mapping.SearchMapping;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchIndexServiceImpl implements SearchIndexService {
+    private static final String PREFIX_FIELD_SUFFIX = "_prefix";
+    private static final String[] PROPERTY_FIELDS = {"name", "address"};
+    private static final String[] UNIT_FIELDS = {"name", "tenant"};
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${search.index.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public Page<Property> searchProperties(String query, Pageable pageable) {
+        log.debug("Searching property index for: {}", query);
+        return fetchPage(Search.session(entityManager).search(Property.class)
+                .where(f -> textMatch(f, query, PROPERTY_FIELDS)), pageable);
+    }
+
+    @Override
+    public List<Unit> searchUnits(String query) {
+        log.debug("Searching unit index for: {}", query);
+        return Search.session(entityManager).search(Unit.class)
+                .where(f -> textMatch(f, query, UNIT_FIELDS))
+                .fetchAllHits();
+    }
+
+    @Override
+    public Page<Unit> searchUnits(String query, Pageable pageable) {
+        log.debug("Searching unit index with pagination for: {}", query);
+        return fetchPage(Search.session(entityManager).search(Unit.class)
+                .where(f -> textMatch(f, query, UNIT_FIELDS)), pageable);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildIndex() {
+        log.info("Rebuilding property and unit search index");
+        try {
+            searchMapping().scope(Object.class)
+                    .massIndexer()
+                    .startAndWait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search index rebuild was interrupted", e);
+        }
+        log.info("Search index rebuilt");
+    }
+
+    /**
+     * The index lives on the local filesystem of each instance, so a fresh instance starts with an
+     * empty index. Reindexing runs in the background; searches return partial results until it completes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildIndexOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        log.info("Rebuilding search index in the background");
+        searchMapping().scope(Object.class)
+                .massIndexer()
+                .start()
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.error("Search index rebuild on startup failed", error);
+                    } else {
+                        log.info("Search index rebuilt on startup");
+                    }
+                });
+    }
+
+    /**
+     * Whole words are boosted above fuzzy matches (one typo per word) and prefix matches on the
+     * edge n-gram fields, so the most exact hits come first. A blank query matches everything.
+     */
+    private static PredicateFinalStep textMatch(SearchPredicateFactory f, String query, String... fields) {
+        if (query == null || query.isBlank()) {
+            return f.matchAll();
+        }
+        String[] prefixFields = Arrays.stream(fields)
+                .map(field -> field + PREFIX_FIELD_SUFFIX)
+                .toArray(String[]::new);
+        return f.bool()
+                .should(f.match().fields(fields).matching(query).boost(3.0f))
+                .should(f.match().fields(prefixFields).matching(query).boost(2.0f))
+                .should(f.match().fields(fields).matching(query).fuzzy(1, 1));
+    }
+
+    /**
+     * Hits are always ranked by relevance; the index has no sortable fields, so a requested sort is
+     * rejected rather than silently ignored.
+     */
+    private static <T> Page<T> fetchPage(SearchFetchable<T> query, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            throw new IllegalArgumentException("Search results are ordered by relevance and cannot be sorted by: "
+                    + pageable.getSort());
+        }
+        if (pageable.isUnpaged()) {
+            List<T> hits = query.fetchAllHits();
+            return new PageImpl<>(hits, pageable, hits.size());
+        }
+        SearchResult<T> result = query.fetch((int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(result.hits(), pageable, result.total().hitCount());
+    }
+
+    private SearchMapping searchMapping() {
+        return Search.mapping(entityManagerFactory);
+    }
+}
@@ -0,0 +1,26 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.enums.RentType;
+
+/**
+ * The monthly rent of units let per square metre, shared by the single unit writes and the property
+ * tree import.
+ */
+final class UnitRents {
+
+    private UnitRents() {
+    }
+
+    /**
+     * Derives the monthly rent from the rate and size of a {@link RentType#PSM} unit. Other units
+     * keep the rent they were given.
+     */
+    static void calculateMonthlyRent(UnitDTO unitDTO) {
+        if (unitDTO.getRentType() == RentType.PSM &&
+                unitDTO.getRatePerSqm() != null &&
+                unitDTO.getSize() != null) {
+            unitDTO.setMonthlyRent(unitDTO.getRatePerSqm() * unitDTO.getSize());
+        }
+    }
+}
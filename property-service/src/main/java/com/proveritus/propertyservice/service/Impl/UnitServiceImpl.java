@@ -1,25 +1,32 @@
 package com.proveritus.propertyservice.service.Impl;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.UnitDTO;
 import com.proveritus.propertyservice.entity.Floor;
 import com.proveritus.propertyservice.entity.Property;
 import com.proveritus.propertyservice.entity.Unit;
 import com.proveritus.propertyservice.enums.OccupancyStatus;
 import com.proveritus.propertyservice.enums.RentType;
+import com.proveritus.propertyservice.mapper.UnitMapper;
+import com.proveritus.propertyservice.pagination.CursorPaginator;
 import com.proveritus.cloudutility.exception.EntityNotFoundException;
 import com.proveritus.propertyservice.repository.FloorRepository;
 import com.proveritus.propertyservice.repository.PropertyRepository;
 import com.proveritus.propertyservice.repository.UnitRepository;
 import com.proveritus.propertyservice.service.FloorService;
+import com.proveritus.propertyservice.service.PropertyStatsService;
+import com.proveritus.propertyservice.service.SearchIndexService;
 import com.proveritus.propertyservice.service.UnitService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,8 +38,11 @@ public class UnitServiceImpl implements UnitService {
     private final UnitRepository unitRepository;
     private final PropertyRepository propertyRepository;
     private final FloorRepository floorRepository;
-    private final ModelMapper modelMapper;
+    private final UnitMapper unitMapper;
     private final FloorService floorService;
+    private final PropertyStatsService propertyStatsService;
+    private final SearchIndexService searchIndexService;
+    private final CursorPaginator cursorPaginator;
 
     @Override
     public UnitDTO createUnit(UnitDTO unitDTO) {
@@ -42,24 +52,34 @@ public class UnitServiceImpl implements UnitService {
         Property property = getPropertyById(unitDTO.getPropertyId());
         Floor floor = getFloorIfProvided(unitDTO.getFloorId());
 
-        calculateMonthlyRent(unitDTO);
+        UnitRents.calculateMonthlyRent(unitDTO);
 
-        Unit unit = modelMapper.map(unitDTO, Unit.class);
+        Unit unit = unitMapper.toEntity(unitDTO);
         unit.setProperty(property);
         unit.setFloor(floor);
 
         Unit savedUnit = unitRepository.save(unit);
-        updateFloorOccupancyIfNeeded(unitDTO.getFloorId());
+        floorService.applyUnitOccupancyChange(null, null, floorIdOf(savedUnit), savedUnit.getOccupancyStatus());
+        propertyStatsService.applyUnitChange(null, null, null,
+                property.getId(), savedUnit.getOccupancyStatus(), savedUnit.getMonthlyRent());
+        incrementPropertyVersions(null, property.getId());
 
         log.debug("Unit created successfully with ID: {}", savedUnit.getId());
-        return modelMapper.map(savedUnit, UnitDTO.class);
+        return unitMapper.toDto(savedUnit);
     }
 
     @Override
     @Transactional(readOnly = true)
     public UnitDTO getUnitById(Long id) {
         log.debug("Fetching unit with ID: {}", id);
-        return modelMapper.map(findUnitById(id), UnitDTO.class);
+        return unitMapper.toDto(findUnitById(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getUnitVersion(Long id) {
+        return unitRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Unit not found with id: " + id));
     }
 
     @Override
@@ -71,7 +91,7 @@ public class UnitServiceImpl implements UnitService {
                     log.error("Unit not found with name: {} in property ID: {}", name, propertyId);
                     return new EntityNotFoundException("Unit not found with name: " + name + " in property ID: " + propertyId);
                 });
-        return modelMapper.map(unit, UnitDTO.class);
+        return unitMapper.toDto(unit);
     }
 
     @Override
@@ -80,7 +100,7 @@ public class UnitServiceImpl implements UnitService {
         log.debug("Fetching all units for property ID: {}", propertyId);
         validatePropertyExists(propertyId);
         return unitRepository.findByPropertyId(propertyId).stream()
-                .map(unit -> modelMapper.map(unit, UnitDTO.class))
+                .map(unitMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -90,7 +110,7 @@ public class UnitServiceImpl implements UnitService {
         log.debug("Fetching paginated units for property ID: {}", propertyId);
         validatePropertyExists(propertyId);
         return unitRepository.findByPropertyId(propertyId, pageable)
-                .map(unit -> modelMapper.map(unit, UnitDTO.class));
+                .map(unitMapper::toDto);
     }
 
     @Override
@@ -99,7 +119,7 @@ public class UnitServiceImpl implements UnitService {
         log.debug("Fetching all units for floor ID: {}", floorId);
         validateFloorExists(floorId);
         return unitRepository.findByFloorId(floorId).stream()
-                .map(unit -> modelMapper.map(unit, UnitDTO.class))
+                .map(unitMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -109,7 +129,7 @@ public class UnitServiceImpl implements UnitService {
         log.debug("Fetching paginated units for floor ID: {}", floorId);
         validateFloorExists(floorId);
         return unitRepository.findByFloorId(floorId, pageable)
-                .map(unit -> modelMapper.map(unit, UnitDTO.class));
+                .map(unitMapper::toDto);
     }
 
     @Override
@@ -122,64 +142,106 @@ public class UnitServiceImpl implements UnitService {
         if (floorId != null) validateFloorExists(floorId);
 
         return unitRepository.findWithFilters(propertyId, floorId, occupancyStatus, pageable)
-                .map(unit -> modelMapper.map(unit, UnitDTO.class));
+                .map(unitMapper::toDto);
     }
 
     @Override
-    public UnitDTO updateUnit(Long id, UnitDTO unitDTO) {
+    @Transactional(readOnly = true)
+    public CursorPage<UnitDTO> getUnitsWithFilters(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                                                   String cursor, int size, Sort sort) {
+        log.debug("Fetching units with filters - Property ID: {}, Floor ID: {}, Occupancy Status: {} after cursor: {}",
+                propertyId, floorId, occupancyStatus, cursor);
+
+        List<Specification<Unit>> filters = new ArrayList<>();
+        if (propertyId != null) {
+            validatePropertyExists(propertyId);
+            filters.add((root, query, cb) -> cb.equal(root.get("property").get("id"), propertyId));
+        }
+        if (floorId != null) {
+            validateFloorExists(floorId);
+            filters.add((root, query, cb) -> cb.equal(root.get("floor").get("id"), floorId));
+        }
+        if (occupancyStatus != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("occupancyStatus"), occupancyStatus));
+        }
+
+        return cursorPaginator.fetch(unitRepository, Unit.class, Specification.allOf(filters), cursor, size, sort,
+                unitMapper::toDto);
+    }
+
+    @Override
+    public UnitDTO updateUnit(Long id, UnitDTO unitDTO, Long expectedVersion) {
         log.info("Updating unit with ID: {}", id);
-        Unit existingUnit = findUnitById(id);
+        Unit existingUnit = findUnitForUpdate(id);
+        existingUnit.checkVersion(expectedVersion);
         validateUnit(unitDTO, id);
+        Long previousFloorId = floorIdOf(existingUnit);
+        OccupancyStatus previousStatus = existingUnit.getOccupancyStatus();
+        Long previousPropertyId = existingUnit.getProperty().getId();
+        Double previousMonthlyRent = existingUnit.getMonthlyRent();
 
         Property property = getPropertyById(unitDTO.getPropertyId());
         Floor floor = getFloorIfProvided(unitDTO.getFloorId());
 
-        calculateMonthlyRent(unitDTO);
+        UnitRents.calculateMonthlyRent(unitDTO);
 
-        modelMapper.map(unitDTO, existingUnit);
+        unitMapper.updateEntity(unitDTO, existingUnit);
         existingUnit.setProperty(property);
         existingUnit.setFloor(floor);
 
-        Unit updatedUnit = unitRepository.save(existingUnit);
-        updateFloorOccupancyIfNeeded(unitDTO.getFloorId());
+        // Flushed so the returned version is the new one
+        Unit updatedUnit = unitRepository.saveAndFlush(existingUnit);
+        floorService.applyUnitOccupancyChange(previousFloorId, previousStatus,
+                floorIdOf(updatedUnit), updatedUnit.getOccupancyStatus());
+        propertyStatsService.applyUnitChange(previousPropertyId, previousStatus, previousMonthlyRent,
+                property.getId(), updatedUnit.getOccupancyStatus(), updatedUnit.getMonthlyRent());
+        incrementPropertyVersions(previousPropertyId, property.getId());
 
         log.debug("Unit updated successfully with ID: {}", id);
-        return modelMapper.map(updatedUnit, UnitDTO.class);
+        return unitMapper.toDto(updatedUnit);
     }
 
     @Override
     public void deleteUnit(Long id) {
         log.info("Deleting unit with ID: {}", id);
-        Unit unit = findUnitById(id);
-        Long floorId = (unit.getFloor() != null) ? unit.getFloor().getId() : null;
+        Unit unit = findUnitForUpdate(id);
 
-        unitRepository.deleteById(id);
-        updateFloorOccupancyIfNeeded(floorId);
+        unitRepository.delete(unit);
+        floorService.applyUnitOccupancyChange(floorIdOf(unit), unit.getOccupancyStatus(), null, null);
+        propertyStatsService.applyUnitChange(unit.getProperty().getId(), unit.getOccupancyStatus(),
+                unit.getMonthlyRent(), null, null, null);
+        incrementPropertyVersions(unit.getProperty().getId(), null);
 
         log.debug("Unit deleted successfully with ID: {}", id);
     }
 
     @Override
-    public UnitDTO updateOccupancyStatus(Long id, OccupancyStatus occupancyStatus, String tenant) {
+    public UnitDTO updateOccupancyStatus(Long id, OccupancyStatus occupancyStatus, String tenant, Long expectedVersion) {
         log.info("Updating occupancy status for unit ID: {} to {}", id, occupancyStatus);
-        Unit unit = findUnitById(id);
+        Unit unit = findUnitForUpdate(id);
+        unit.checkVersion(expectedVersion);
+        OccupancyStatus previousStatus = unit.getOccupancyStatus();
 
         unit.setOccupancyStatus(occupancyStatus);
         unit.setTenant(OccupancyStatus.OCCUPIED.equals(occupancyStatus) ? tenant : null);
 
-        Unit updatedUnit = unitRepository.save(unit);
-        updateFloorOccupancyIfNeeded(unit.getFloor() != null ? unit.getFloor().getId() : null);
+        Unit updatedUnit = unitRepository.saveAndFlush(unit);
+        floorService.applyUnitOccupancyChange(floorIdOf(unit), previousStatus, floorIdOf(unit), occupancyStatus);
+        Long propertyId = unit.getProperty().getId();
+        propertyStatsService.applyUnitChange(propertyId, previousStatus, unit.getMonthlyRent(),
+                propertyId, occupancyStatus, unit.getMonthlyRent());
+        incrementPropertyVersions(propertyId, propertyId);
 
         log.debug("Occupancy status updated successfully for unit ID: {}", id);
-        return modelMapper.map(updatedUnit, UnitDTO.class);
+        return unitMapper.toDto(updatedUnit);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<UnitDTO> searchUnits(String query) {
         log.debug("Searching units by query: {}", query);
-        return unitRepository.searchUnits(query, Pageable.unpaged()).getContent().stream()
-                .map(unit -> modelMapper.map(unit, UnitDTO.class))
+        return searchIndexService.searchUnits(query).stream()
+                .map(unitMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -187,8 +249,8 @@ public class UnitServiceImpl implements UnitService {
     @Transactional(readOnly = true)
     public Page<UnitDTO> searchUnits(String query, Pageable pageable) {
         log.debug("Searching units by query with pagination: {}", query);
-        return unitRepository.searchUnits(query, pageable)
-                .map(unit -> modelMapper.map(unit, UnitDTO.class));
+        return searchIndexService.searchUnits(query, pageable)
+                .map(unitMapper::toDto);
     }
 
     @Override
@@ -207,14 +269,6 @@ public class UnitServiceImpl implements UnitService {
         return unitRepository.countByPropertyId(propertyId);
     }
 
-    private void calculateMonthlyRent(UnitDTO unitDTO) {
-        if (unitDTO.getRentType() == RentType.PSM &&
-                unitDTO.getRatePerSqm() != null &&
-                unitDTO.getSize() != null) {
-            unitDTO.setMonthlyRent(unitDTO.getRatePerSqm() * unitDTO.getSize());
-        }
-    }
-
     private void validateUnit(UnitDTO unitDTO, Long excludedUnitId) {
         unitRepository.findByNameAndPropertyId(unitDTO.getName(), unitDTO.getPropertyId())
                 .ifPresent(existingUnit -> {
@@ -261,6 +315,35 @@ public class UnitServiceImpl implements UnitService {
                 });
     }
 
+    /**
+     * Loads a unit with a row lock so that concurrent writes to the same unit see each other's
+     * occupancy status, which keeps the floor counter deltas exact.
+     */
+    private Unit findUnitForUpdate(Long id) {
+        return unitRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> {
+                    log.error("Unit not found with ID: {}", id);
+                    return new EntityNotFoundException("Unit not found with id: " + id);
+                });
+    }
+
+    /**
+     * Bumps the version of the properties a unit belonged to before and after a write, as their
+     * representation lists the unit. Floors are bumped by the occupancy counter update.
+     */
+    private void incrementPropertyVersions(Long previousPropertyId, Long currentPropertyId) {
+        if (previousPropertyId != null) {
+            propertyRepository.incrementVersion(previousPropertyId);
+        }
+        if (currentPropertyId != null && !currentPropertyId.equals(previousPropertyId)) {
+            propertyRepository.incrementVersion(currentPropertyId);
+        }
+    }
+
+    private static Long floorIdOf(Unit unit) {
+        return unit.getFloor() != null ? unit.getFloor().getId() : null;
+    }
+
     private Property getPropertyById(Long propertyId) {
         return propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new EntityNotFoundException("Property not found with id: " + propertyId));
@@ -272,12 +355,6 @@ public class UnitServiceImpl implements UnitService {
                 .orElseThrow(() -> new EntityNotFoundException("Floor not found with id: " + floorId));
     }
 
-    private void updateFloorOccupancyIfNeeded(Long floorId) {
-        if (floorId != null) {
-            floorService.updateFloorOccupancyStats(floorId);
-        }
-    }
-
     private void validatePropertyExists(Long propertyId) {
         if (!propertyRepository.existsById(propertyId)) {
             log.error("Property not found with ID: {}", propertyId);
@@ -0,0 +1,117 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proveritus.cloudutility.dto.UserDTO;
+import com.proveritus.cloudutility.exception.UserServiceNotAvailableException;
+import com.proveritus.propertyservice.client.UserBatchLoader;
+import com.proveritus.propertyservice.dto.UserLookup;
+import com.proveritus.propertyservice.service.UserCacheService;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class UserCacheServiceImpl implements UserCacheService {
+    static final String CACHE_NAME = "users";
+
+    private final UserBatchLoader userBatchLoader;
+    private final Cache<Long, UserDTO> cache;
+    // Last known users, kept well past the cache TTL to answer reads while user-service is unavailable
+    private final Cache<Long, UserDTO> lastKnown;
+    private final Counter staleLookups;
+
+    public UserCacheServiceImpl(UserBatchLoader userBatchLoader,
+                                MeterRegistry meterRegistry,
+                                @Value("${user-cache.maximum-size:10000}") long maximumSize,
+                                @Value("${user-cache.expire-after-write:PT5M}") Duration expireAfterWrite,
+                                @Value("${user-cache.stale-retention:PT24H}") Duration staleRetention) {
+        this.userBatchLoader = userBatchLoader;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(staleRetention)
+                .build();
+        this.staleLookups = Counter.builder("user.cache.stale.lookups")
+                .description("User lookups answered with last known users because user-service was unavailable")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public UserDTO getUser(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return cache.get(id, this::fetchUser);
+    }
+
+    @Override
+    public Map<Long, UserDTO> getUsers(Collection<Long> ids) {
+        Set<Long> keys = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return cache.getAll(keys, this::fetchUsers);
+    }
+
+    @Override
+    public UserLookup lookupUsers(Collection<Long> ids) {
+        try {
+            return new UserLookup(getUsers(ids), false);
+        } catch (FeignException | UserServiceNotAvailableException e) {
+            log.warn("User service unavailable, using last known details for user ids: {}", ids, e);
+            staleLookups.increment();
+            Set<Long> keys = ids.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            return new UserLookup(lastKnown.getAllPresent(keys), true);
+        }
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        log.debug("Invalidating cached user: {}", id);
+        cache.invalidate(id);
+        lastKnown.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        log.debug("Invalidating all cached users");
+        cache.invalidateAll();
+    }
+
+    private UserDTO fetchUser(Long id) {
+        UserDTO user = userBatchLoader.load(id);
+        if (user != null) {
+            lastKnown.put(id, user);
+        }
+        return user;
+    }
+
+    private Map<Long, UserDTO> fetchUsers(Set<? extends Long> missing) {
+        log.debug("Fetching {} uncached users from user-service", missing.size());
+        Map<Long, UserDTO> users = userBatchLoader.loadAll(Set.copyOf(missing));
+        lastKnown.putAll(users);
+        return users;
+    }
+}
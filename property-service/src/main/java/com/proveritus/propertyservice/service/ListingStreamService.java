@@ -0,0 +1,24 @@
+package com.proveritus.propertyservice.service;
+
+import com.proveritus.propertyservice.dto.FloorSummary;
+import com.proveritus.propertyservice.dto.PropertySummary;
+import com.proveritus.propertyservice.dto.UnitSummary;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking listings read over R2DBC, in id order. Rows are read in batches as the subscriber
+ * requests them, so a slow client delays the next query instead of holding a connection. Every method
+ * continues after {@code afterId} and stops after {@code limit} rows, or at the end when it is not
+ * positive.
+ */
+public interface ListingStreamService {
+
+    Flux<PropertySummary> streamProperties(PropertyType propertyType, long afterId, int limit);
+
+    Flux<FloorSummary> streamFloors(Long propertyId, long afterId, int limit);
+
+    Flux<UnitSummary> streamUnits(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                                  long afterId, int limit);
+}
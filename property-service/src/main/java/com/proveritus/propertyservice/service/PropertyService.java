@@ -1,29 +1,61 @@
 package com.proveritus.propertyservice.service;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.PropertyDTO;
 import com.proveritus.propertyservice.dto.PropertyStatsDTO;
 import com.proveritus.propertyservice.enums.PropertyType;
 import com.proveritus.cloudutility.exception.EntityNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 public interface PropertyService {
     PropertyDTO createProperty(PropertyDTO propertyDTO);
 
+    /**
+     * Creates a property together with the floors and units nested in the DTO, including the
+     * units listed under each floor, in a single transaction.
+     */
+    PropertyDTO createPropertyTree(PropertyDTO propertyDTO);
+
     PropertyDTO getPropertyById(Long id) throws EntityNotFoundException;
 
     Page<PropertyDTO> getAllPropertiesByType(PropertyType propertyType, Pageable pageable);
 
-    PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO) throws EntityNotFoundException;
+    /**
+     * Current version of the property, read without loading it. It changes with the property, with any
+     * of its floors and units, and with its manager.
+     */
+    long getPropertyVersion(Long id) throws EntityNotFoundException;
+
+    /**
+     * Changes the version of every property managed by the user, whose details user-service reported
+     * as changed, so ETags issued with the previous details no longer match.
+     */
+    void managerChanged(Long userId);
+
+    /**
+     * Updates the property, failing with {@code PreconditionFailedException} unless it is still at
+     * {@code expectedVersion}. A {@code null} expected version updates unconditionally.
+     */
+    PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO, Long expectedVersion) throws EntityNotFoundException;
 
     void deleteProperty(Long id) throws EntityNotFoundException;
 
     Page<PropertyDTO> getAllProperties(Pageable pageable);
 
+    CursorPage<PropertyDTO> getProperties(PropertyType propertyType, String cursor, int size, Sort sort);
+
     Page<PropertyDTO> searchProperties(String query, Pageable pageable);
 
     PropertyStatsDTO getPropertyStats(Long id) throws EntityNotFoundException;
 
+    PropertyStatsDTO rebuildPropertyStats(Long id) throws EntityNotFoundException;
+
+    int rebuildAllPropertyStats();
+
+    void rebuildSearchIndex();
+
     long getTotalPropertiesCount();
 }
 
@@ -0,0 +1,31 @@
+package com.proveritus.propertyservice.service;
+
+import com.proveritus.cloudutility.exception.EntityNotFoundException;
+import com.proveritus.propertyservice.dto.PropertyStatsDTO;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+
+public interface PropertyStatsService {
+
+    PropertyStatsDTO getPropertyStats(Long propertyId) throws EntityNotFoundException;
+
+    void initializePropertyStats(Long propertyId);
+
+    void deletePropertyStats(Long propertyId);
+
+    /**
+     * Moves a floor from its previous property to its current one. Pass {@code null} property ids
+     * for floors that are created or deleted.
+     */
+    void applyFloorChange(Long previousPropertyId, Long currentPropertyId);
+
+    /**
+     * Moves a unit's contribution to the property stats from its previous state to its current one.
+     * Pass {@code null} property ids for units that are created or deleted.
+     */
+    void applyUnitChange(Long previousPropertyId, OccupancyStatus previousStatus, Double previousMonthlyRent,
+                         Long currentPropertyId, OccupancyStatus currentStatus, Double currentMonthlyRent);
+
+    PropertyStatsDTO rebuildPropertyStats(Long propertyId) throws EntityNotFoundException;
+
+    int rebuildAllPropertyStats();
+}
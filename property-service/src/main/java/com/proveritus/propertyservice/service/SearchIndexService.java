@@ -0,0 +1,27 @@
+package com.proveritus.propertyservice.service;
+
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Full-text search over property names/addresses and unit names/tenants. Results are ordered by
+ * relevance; exact word matches rank above partially typed words and misspellings. A pageable with a
+ * sort is rejected with {@link IllegalArgumentException}.
+ */
+public interface SearchIndexService {
+
+    Page<Property> searchProperties(String query, Pageable pageable);
+
+    List<Unit> searchUnits(String query);
+
+    Page<Unit> searchUnits(String query, Pageable pageable);
+
+    /**
+     * Drops the index and reindexes every property and unit from the database.
+     */
+    void rebuildIndex();
+}
@@ -1,10 +1,12 @@
 package com.proveritus.propertyservice.service;
 
+import com.proveritus.propertyservice.dto.CursorPage;
 import com.proveritus.propertyservice.dto.UnitDTO;
 import com.proveritus.propertyservice.enums.OccupancyStatus;
 import com.proveritus.cloudutility.exception.EntityNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 
@@ -25,11 +27,24 @@ public interface UnitService {
 
     Page<UnitDTO> getUnitsWithFilters(Long propertyId, Long floorId, OccupancyStatus occupancyStatus, Pageable pageable);
 
-    UnitDTO updateUnit(Long id, UnitDTO unitDTO) throws EntityNotFoundException;
+    CursorPage<UnitDTO> getUnitsWithFilters(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                                            String cursor, int size, Sort sort);
+
+    /**
+     * Current version of the unit, read without loading it.
+     */
+    long getUnitVersion(Long id) throws EntityNotFoundException;
+
+    /**
+     * Updates the unit, failing with {@code PreconditionFailedException} unless it is still at
+     * {@code expectedVersion}. A {@code null} expected version updates unconditionally.
+     */
+    UnitDTO updateUnit(Long id, UnitDTO unitDTO, Long expectedVersion) throws EntityNotFoundException;
 
     void deleteUnit(Long id) throws EntityNotFoundException;
 
-    UnitDTO updateOccupancyStatus(Long id, OccupancyStatus occupancyStatus, String tenant) throws EntityNotFoundException;
+    UnitDTO updateOccupancyStatus(Long id, OccupancyStatus occupancyStatus, String tenant, Long expectedVersion)
+            throws EntityNotFoundException;
 
     List<UnitDTO> searchUnits(String query);
 
@@ -0,0 +1,32 @@
+package com.proveritus.propertyservice.service;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+import com.proveritus.propertyservice.dto.UserLookup;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Near-cache of the user details fetched from user-service. Entries expire after a fixed TTL and are
+ * evicted early when user-service reports that a user changed.
+ */
+public interface UserCacheService {
+
+    UserDTO getUser(Long id);
+
+    /**
+     * Returns the cached users and fetches only the missing ones in a single call. Ids unknown to
+     * user-service are left out of the result; {@code null} ids are ignored.
+     */
+    Map<Long, UserDTO> getUsers(Collection<Long> ids);
+
+    /**
+     * Like {@link #getUsers}, but when user-service is unavailable it answers with the last known
+     * values instead of failing, marked as stale.
+     */
+    UserLookup lookupUsers(Collection<Long> ids);
+
+    void invalidate(Long id);
+
+    void invalidateAll();
+}
@@ -1,10 +1,16 @@
 package com.proveritus.propertyservice.validator;
 
+import com.proveritus.propertyservice.dto.FloorDTO;
 import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.dto.UnitDTO;
 import com.proveritus.propertyservice.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class PropertyValidator {
@@ -28,4 +34,47 @@ public class PropertyValidator {
             throw new IllegalArgumentException("Property type cannot be null");
         }
     }
+
+    /**
+     * Validates a property together with the floors and units nested under it. The nested objects
+     * are checked in memory since none of them exist in the database yet.
+     */
+    public void validateTree(PropertyDTO propertyDTO) {
+        validate(propertyDTO);
+
+        Set<String> floorNames = new HashSet<>();
+        Set<String> unitNames = new HashSet<>();
+        for (FloorDTO floorDTO : nullSafe(propertyDTO.getFloors())) {
+            if (floorDTO.getName() == null || floorDTO.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Floor name cannot be empty");
+            }
+            if (!floorNames.add(floorDTO.getName())) {
+                throw new IllegalArgumentException("Floor with name " + floorDTO.getName() + " is listed more than once");
+            }
+            nullSafe(floorDTO.getUnits()).forEach(unitDTO -> validateUnit(unitDTO, unitNames));
+        }
+        nullSafe(propertyDTO.getUnits()).forEach(unitDTO -> validateUnit(unitDTO, unitNames));
+    }
+
+    private void validateUnit(UnitDTO unitDTO, Set<String> unitNames) {
+        if (unitDTO.getName() == null || unitDTO.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Unit name cannot be empty");
+        }
+        if (!unitNames.add(unitDTO.getName())) {
+            throw new IllegalArgumentException("Unit with name " + unitDTO.getName() + " is listed more than once");
+        }
+        if (unitDTO.getSize() != null && unitDTO.getSize() <= 0) {
+            throw new IllegalArgumentException("Unit size must be greater than 0");
+        }
+        if (unitDTO.getMonthlyRent() != null && unitDTO.getMonthlyRent() < 0) {
+            throw new IllegalArgumentException("Monthly rent cannot be negative");
+        }
+        if (unitDTO.getRatePerSqm() != null && unitDTO.getRatePerSqm() < 0) {
+            throw new IllegalArgumentException("Rate per square meter cannot be negative");
+        }
+    }
+
+    private static <T> List<T> nullSafe(List<T> items) {
+        return items != null ? items : List.of();
+    }
 }
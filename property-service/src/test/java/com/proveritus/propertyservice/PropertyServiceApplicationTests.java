@@ -3,7 +3,7 @@ package com.proveritus.propertyservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "internal.api-token=test-token")
 class PropertyServiceApplicationTests {
 
     @Test
@@ -0,0 +1,239 @@
+package com.proveritus.propertyservice.audit.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.audit.entity.AuditLog;
+import com.proveritus.propertyservice.audit.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class AuditLogWriterTest {
+
+    private static final PlatformTransactionManager NO_TRANSACTIONS = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingRepository repository = new RecordingRepository();
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void stopWriter() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void spillPolicyAppendsOverflowToTheFileAndReplaysItWhenIdle() throws Exception {
+        writer = writer(1, AuditOverflowPolicy.SPILL, Duration.ZERO);
+
+        submit("first", "second", "third");
+
+        assertEquals(2, count("audit.records.spilled"));
+        assertEquals(2, Files.readAllLines(spillFile()).size());
+
+        writer.start();
+        awaitWritten(3);
+        assertEquals(List.of("first", "second", "third"), repository.saved);
+        assertFalse(Files.exists(spillFile()));
+        assertFalse(Files.exists(spillFile().resolveSibling("audit-spill.ndjson.replay")));
+    }
+
+    @Test
+    void dropPolicyDiscardsOverflowAtOnce() {
+        writer = writer(1, AuditOverflowPolicy.DROP, Duration.ZERO);
+
+        submit("first", "second", "third");
+
+        assertEquals(2, count("audit.records.dropped"));
+        assertFalse(Files.exists(spillFile()));
+
+        writer.start();
+        writer.stop();
+        assertEquals(List.of("first"), repository.saved);
+    }
+
+    @Test
+    void blockPolicyWaitsForRoomInTheQueue() throws Exception {
+        repository.gate = new CountDownLatch(1);
+        writer = writer(1, AuditOverflowPolicy.BLOCK, Duration.ofSeconds(10));
+        writer.start();
+
+        submit("first");
+        assertTrue(repository.entered.await(10, TimeUnit.SECONDS));
+        // The writer holds the first record, the second fills the queue and the third has to wait
+        submit("second");
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> submit("third"));
+        Thread.sleep(100);
+        assertFalse(third.isDone());
+
+        repository.gate.countDown();
+        third.get(10, TimeUnit.SECONDS);
+        awaitWritten(3);
+        assertEquals(List.of("first", "second", "third"), repository.saved);
+        assertEquals(0, count("audit.records.dropped"));
+    }
+
+    @Test
+    void blockPolicyDropsTheRecordAfterTheTimeout() {
+        writer = writer(1, AuditOverflowPolicy.BLOCK, Duration.ofMillis(50));
+
+        submit("first");
+        long started = System.nanoTime();
+        submit("second");
+
+        assertTrue(System.nanoTime() - started >= Duration.ofMillis(50).toNanos());
+        assertEquals(1, count("audit.records.dropped"));
+        assertFalse(Files.exists(spillFile()));
+    }
+
+    @Test
+    void stopWritesEveryQueuedRecordInOrderBeforeReturning() {
+        repository.delay = Duration.ofMillis(5);
+        writer = writer(100, AuditOverflowPolicy.SPILL, Duration.ZERO);
+        writer.start();
+
+        List<String> methods = IntStream.rangeClosed(1, 20).mapToObj(i -> "call" + i).toList();
+        methods.forEach(this::submit);
+        writer.stop();
+
+        assertEquals(methods, repository.saved);
+        assertEquals(0, count("audit.records.spilled"));
+        assertFalse(writer.isRunning());
+    }
+
+    @Test
+    void recordsThatCannotBeWrittenAtShutdownAreSpilled() throws Exception {
+        repository.failure = new IllegalStateException("database is down");
+        writer = writer(100, AuditOverflowPolicy.SPILL, Duration.ZERO);
+        writer.start();
+
+        submit("first", "second");
+        writer.stop();
+
+        assertEquals(2, count("audit.records.spilled"));
+        List<String> spilled = Files.readAllLines(spillFile());
+        assertEquals(2, spilled.size());
+        assertTrue(spilled.get(0).contains("\"first\""), spilled.get(0));
+    }
+
+    @Test
+    void stopsOnlyAfterTheWebServer() {
+        writer = writer(1, AuditOverflowPolicy.SPILL, Duration.ZERO);
+
+        // Higher phases stop first; Spring Boot stops the web server at DEFAULT_PHASE - 2048
+        assertTrue(writer.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+
+    private AuditLogWriter writer(int queueCapacity, AuditOverflowPolicy policy, Duration blockTimeout) {
+        return new AuditLogWriter(repository.proxy(), NO_TRANSACTIONS, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry, queueCapacity, 3, Duration.ofMillis(10), policy, blockTimeout, spillFile());
+    }
+
+    private void submit(String... methodNames) {
+        for (String methodName : methodNames) {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setMethodName(methodName);
+            auditLog.setUserName("admin");
+            auditLog.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0));
+            writer.submit(auditLog);
+        }
+    }
+
+    private Path spillFile() {
+        return directory.resolve("audit-spill.ndjson");
+    }
+
+    private double count(String counter) {
+        return meterRegistry.counter(counter).count();
+    }
+
+    private void awaitWritten(int records) throws InterruptedException {
+        await(() -> repository.saved.size() >= records);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for the audit writer");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Only {@code saveAll} is used by the writer. Records the method names of saved records in order.
+     */
+    private static class RecordingRepository {
+        private final List<String> saved = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile Duration delay = Duration.ZERO;
+        private volatile RuntimeException failure;
+
+        AuditLogRepository proxy() {
+            return (AuditLogRepository) Proxy.newProxyInstance(AuditLogRepository.class.getClassLoader(),
+                    new Class<?>[]{AuditLogRepository.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("saveAll")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        @SuppressWarnings("unchecked")
+                        Iterable<AuditLog> records = (Iterable<AuditLog>) args[0];
+                        saveAll(records);
+                        return records;
+                    });
+        }
+
+        private void saveAll(Iterable<AuditLog> records) throws InterruptedException {
+            entered.countDown();
+            if (gate != null) {
+                gate.await();
+            }
+            Thread.sleep(delay.toMillis());
+            if (failure != null) {
+                throw failure;
+            }
+            records.forEach(auditLog -> saved.add(auditLog.getMethodName()));
+        }
+    }
+}
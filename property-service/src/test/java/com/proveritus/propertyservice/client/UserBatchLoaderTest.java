@@ -0,0 +1,202 @@
+package com.proveritus.propertyservice.client;
+
+import com.proveritus.cloudutility.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserBatchLoaderTest {
+
+    private static final int CALLERS = 50;
+
+    @Test
+    void concurrentLookupsShareOneCall() throws Exception {
+        RecordingUserClient userClient = new RecordingUserClient(null);
+        UserBatchLoader loader = new UserBatchLoader(userClient, unhedged(), new SimpleMeterRegistry(),
+                Duration.ofMillis(200), 100);
+
+        List<UserDTO> users = runConcurrently(index -> loader.load(index % 10 + 1L));
+
+        for (int i = 0; i < CALLERS; i++) {
+            assertEquals(i % 10 + 1L, users.get(i).getId());
+        }
+        // Stragglers that miss the first window form a second batch at most
+        assertTrue(userClient.calls.size() <= 2, "Expected the lookups to be coalesced: " + userClient.calls);
+        for (List<Long> call : userClient.calls) {
+            assertEquals(new HashSet<>(call).size(), call.size(), "Ids are sent once per call");
+        }
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() throws Exception {
+        RecordingUserClient userClient = new RecordingUserClient(null);
+        UserBatchLoader loader = new UserBatchLoader(userClient, unhedged(), new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), CALLERS);
+
+        long started = System.nanoTime();
+        runConcurrently(index -> loader.load(index + 1L));
+
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(30).toNanos());
+    }
+
+    @Test
+    void unknownUsersAreLeftOut() {
+        UserBatchLoader loader = new UserBatchLoader(new RecordingUserClient(null), unhedged(), new SimpleMeterRegistry(),
+                Duration.ZERO, 100);
+
+        assertNull(loader.load(RecordingUserClient.UNKNOWN_ID));
+        assertEquals(1, loader.loadAll(List.of(1L, RecordingUserClient.UNKNOWN_ID)).size());
+    }
+
+    @Test
+    void failureReachesEveryCaller() throws Exception {
+        IllegalStateException failure = new IllegalStateException("user-service is down");
+        UserBatchLoader loader = new UserBatchLoader(new RecordingUserClient(failure), unhedged(), new SimpleMeterRegistry(),
+                Duration.ofMillis(200), 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                long id = i + 1L;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(id);
+                }));
+            }
+            start.countDown();
+            for (Future<UserDTO> result : results) {
+                ExecutionException thrown = assertThrows(ExecutionException.class, result::get);
+                assertSame(failure, thrown.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void errorsReachEveryCallerInsteadOfLeavingThemWaiting() throws Exception {
+        StackOverflowError failure = new StackOverflowError();
+        UserBatchLoader loader = new UserBatchLoader(new RecordingUserClient(failure), unhedged(), new SimpleMeterRegistry(),
+                Duration.ofMillis(200), 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                long id = i + 1L;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(id);
+                }));
+            }
+            start.countDown();
+            for (Future<UserDTO> result : results) {
+                ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertTrue(causedBy(thrown, failure), "Expected the error as the cause: " + thrown);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean causedBy(Throwable thrown, Throwable failure) {
+        for (Throwable cause = thrown; cause != null; cause = cause.getCause()) {
+            if (cause == failure) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static UserServiceGuard unhedged() {
+        return new UserServiceGuard(new SimpleMeterRegistry(), Duration.ofSeconds(5), false, 0.95,
+                Duration.ofMillis(50), Integer.MAX_VALUE, Duration.ofSeconds(30));
+    }
+
+    private static List<UserDTO> runConcurrently(IndexedLookup lookup) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                int index = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return lookup.load(index);
+                }));
+            }
+            start.countDown();
+            List<UserDTO> users = new ArrayList<>();
+            for (Future<UserDTO> result : results) {
+                users.add(result.get());
+            }
+            return users;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface IndexedLookup {
+        UserDTO load(int index);
+    }
+
+    private static class RecordingUserClient implements UserClient {
+        static final long UNKNOWN_ID = 404L;
+
+        private final List<List<Long>> calls = new CopyOnWriteArrayList<>();
+        private final Throwable failure;
+
+        RecordingUserClient(Throwable failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public UserDTO getUserById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UserDTO getUserByUsername(String username) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<UserDTO> getUsersByIds(List<Long> ids) {
+            calls.add(List.copyOf(ids));
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            return ids.stream()
+                    .filter(id -> id != UNKNOWN_ID)
+                    .map(id -> {
+                        UserDTO user = new UserDTO();
+                        user.setId(id);
+                        return user;
+                    })
+                    .toList();
+        }
+    }
+}
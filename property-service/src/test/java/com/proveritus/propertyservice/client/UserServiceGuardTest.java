@@ -0,0 +1,70 @@
+package com.proveritus.propertyservice.client;
+
+import com.proveritus.cloudutility.exception.UserServiceNotAvailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserServiceGuardTest {
+
+    @Test
+    void slowAttemptIsHedged() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserServiceGuard guard = new UserServiceGuard(meterRegistry, Duration.ofSeconds(5), true, 0.95,
+                Duration.ofMillis(20), 5, Duration.ofSeconds(30));
+        AtomicInteger attempts = new AtomicInteger();
+
+        long started = System.nanoTime();
+        String result = guard.call(() -> attempts.incrementAndGet() == 1 ? sleepThen(3_000, "slow") : "hedged");
+
+        assertEquals("hedged", result);
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(2).toNanos());
+        assertEquals(1, meterRegistry.get("user.service.hedges").counter().count());
+        guard.shutdown();
+    }
+
+    @Test
+    void callsSlowerThanTheTimeoutFail() {
+        UserServiceGuard guard = new UserServiceGuard(new SimpleMeterRegistry(), Duration.ofMillis(100), true, 0.95,
+                Duration.ofMillis(20), 5, Duration.ofSeconds(30));
+
+        assertThrows(UserServiceNotAvailableException.class, () -> guard.call(() -> sleepThen(1_000, "late")));
+        guard.shutdown();
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndClosesAfterProbe() throws Exception {
+        UserServiceGuard guard = new UserServiceGuard(new SimpleMeterRegistry(), Duration.ofSeconds(1), false, 0.95,
+                Duration.ofMillis(20), 3, Duration.ofMillis(200));
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("user-service is down");
+            }));
+        }
+        assertEquals(UserServiceGuard.State.OPEN, guard.state());
+        assertThrows(UserServiceNotAvailableException.class, () -> guard.call(calls::incrementAndGet));
+        assertEquals(3, calls.get(), "An open circuit does not call user-service");
+
+        Thread.sleep(300);
+        assertEquals(4, (int) guard.call(calls::incrementAndGet));
+        assertEquals(UserServiceGuard.State.CLOSED, guard.state());
+    }
+
+    private static String sleepThen(long millis, String result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package com.proveritus.propertyservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleInstanceGuardTest {
+    private static final String SERVICE_ID = "property-service";
+
+    @Test
+    void startupFailsWhileAnotherInstanceIsRegistered() {
+        RegistryAnswers registry = new RegistryAnswers(List.of(instance("other")));
+
+        assertThrows(IllegalStateException.class,
+                () -> new SingleInstanceGuard(registry, self("self"), SERVICE_ID, true, Duration.ZERO));
+    }
+
+    @Test
+    void ownRegistrationIsNotAnotherInstance() {
+        RegistryAnswers registry = new RegistryAnswers(List.of(instance("self")));
+
+        assertDoesNotThrow(() -> new SingleInstanceGuard(registry, self("self"), SERVICE_ID, true, Duration.ZERO));
+    }
+
+    @Test
+    void startupWaitsForAPreviousInstanceToLeave() {
+        RegistryAnswers registry = new RegistryAnswers(List.of(instance("previous")), List.of());
+
+        assertDoesNotThrow(() -> new SingleInstanceGuard(registry, self("self"), SERVICE_ID, true, Duration.ofSeconds(10)));
+        assertEquals(2, registry.calls);
+    }
+
+    @Test
+    void disabledCheckDoesNotAskTheRegistry() {
+        RegistryAnswers registry = new RegistryAnswers(List.of(instance("other")));
+
+        assertDoesNotThrow(() -> new SingleInstanceGuard(registry, self("self"), SERVICE_ID, false, Duration.ZERO));
+        assertEquals(0, registry.calls);
+    }
+
+    private static ServiceInstance instance(String instanceId) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, instanceId + ".local", 8082, false);
+    }
+
+    private static ObjectProvider<Registration> self(String instanceId) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("registration", new SelfRegistration(instanceId));
+        return beans.getBeanProvider(Registration.class);
+    }
+
+    private static class SelfRegistration extends DefaultServiceInstance implements Registration {
+        SelfRegistration(String instanceId) {
+            super(instanceId, SERVICE_ID, instanceId + ".local", 8082, false);
+        }
+    }
+
+    /**
+     * Answers each lookup with the next of the given instance lists, repeating the last one.
+     */
+    private static class RegistryAnswers implements DiscoveryClient {
+        private final Deque<List<ServiceInstance>> answers;
+        private int calls;
+
+        @SafeVarargs
+        RegistryAnswers(List<ServiceInstance>... answers) {
+            this.answers = new ArrayDeque<>(List.of(answers));
+        }
+
+        @Override
+        public List<ServiceInstance> getInstances(String serviceId) {
+            calls++;
+            return answers.size() > 1 ? answers.poll() : answers.peek();
+        }
+
+        @Override
+        public List<String> getServices() {
+            return List.of(SERVICE_ID);
+        }
+
+        @Override
+        public String description() {
+            return "Registry answers";
+        }
+    }
+}
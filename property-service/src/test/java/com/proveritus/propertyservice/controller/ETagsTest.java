@@ -0,0 +1,35 @@
+package com.proveritus.propertyservice.controller;
+
+import com.proveritus.cloudutility.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String eTag = ETags.of(7);
+
+        assertTrue(ETags.matches("\"7\"", eTag));
+        assertTrue(ETags.matches("W/\"7\"", eTag));
+        assertTrue(ETags.matches("\"6\", \"7\"", eTag));
+        assertTrue(ETags.matches("*", eTag));
+        assertFalse(ETags.matches("\"6\"", eTag));
+        assertFalse(ETags.matches(null, eTag));
+    }
+
+    @Test
+    void ifMatchRequiresASingleStrongTag() {
+        assertEquals(7L, ETags.expectedVersion("\"7\""));
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion("*"));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("W/\"7\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("\"6\", \"7\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("7"));
+    }
+}
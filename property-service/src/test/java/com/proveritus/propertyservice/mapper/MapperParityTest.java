@@ -0,0 +1,157 @@
+package com.proveritus.propertyservice.mapper;
+
+import com.proveritus.propertyservice.dto.FloorDTO;
+import com.proveritus.propertyservice.dto.PropertyDTO;
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.enums.RentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compares the generated mappers with the reflective {@link ModelMapper} setup they replaced, and
+ * checks that both produce the same DTOs.
+ */
+class MapperParityTest {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ModelMapper modelMapper;
+    private UnitMapper unitMapper;
+    private PropertyMapper propertyMapper;
+    private List<Unit> units;
+    private List<Property> properties;
+
+    @BeforeEach
+    void setUp() {
+        modelMapper = legacyModelMapper();
+        unitMapper = new UnitMapperImpl();
+        propertyMapper = new PropertyMapperImpl(new FloorMapperImpl(unitMapper), unitMapper);
+
+        units = new ArrayList<>();
+        properties = new ArrayList<>();
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            Property property = property(i);
+            Floor floor = floor(i, property);
+            Unit unit = unit(i, property, floor);
+            floor.getUnits().add(unit);
+            property.getFloors().add(floor);
+            property.getUnits().add(unit);
+            units.add(unit);
+            properties.add(property);
+        }
+    }
+
+    @Test
+    void generatedMappersMatchModelMapper() {
+        for (Unit unit : units) {
+            UnitDTO expected = modelMapper.map(unit, UnitDTO.class);
+            UnitDTO actual = unitMapper.toDto(unit);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getMonthlyRent(), actual.getMonthlyRent());
+            assertEquals(expected.getOccupancyStatus(), actual.getOccupancyStatus());
+            assertEquals(unit.getProperty().getId(), actual.getPropertyId());
+            assertEquals(unit.getFloor().getId(), actual.getFloorId());
+        }
+
+        Property property = properties.get(0);
+        PropertyDTO expected = modelMapper.map(property, PropertyDTO.class);
+        PropertyDTO actual = propertyMapper.toDto(property);
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getManagedBy(), actual.getManagedBy());
+        assertEquals(expected.getFloors().size(), actual.getFloors().size());
+        assertEquals(expected.getUnits().size(), actual.getUnits().size());
+        assertEquals(property.getId(), actual.getFloors().get(0).getPropertyId());
+        assertEquals(property.getFloors().get(0).getId(), actual.getUnits().get(0).getFloorId());
+    }
+
+    @Test
+    void updateSkipsNullsAndRelationships() {
+        Unit unit = units.get(0);
+        Floor floor = unit.getFloor();
+        UnitDTO patch = UnitDTO.builder().tenant("New Tenant").propertyId(999L).floorId(999L).build();
+
+        unitMapper.updateEntity(patch, unit);
+
+        assertEquals("New Tenant", unit.getTenant());
+        assertEquals("Unit 1", unit.getName());
+        assertEquals(floor, unit.getFloor());
+        assertEquals(1L, unit.getProperty().getId());
+
+        Unit created = unitMapper.toEntity(patch);
+        assertNull(created.getProperty());
+        assertNull(created.getFloor());
+    }
+
+    /**
+     * The configuration that used to live in {@code ModelMapperConfig}.
+     */
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        modelMapper.typeMap(FloorDTO.class, Floor.class).addMappings(mapper -> {
+            mapper.skip(Floor::setProperty);
+            mapper.skip(Floor::setUnits);
+        });
+        modelMapper.typeMap(UnitDTO.class, Unit.class).addMappings(mapper -> {
+            mapper.skip(Unit::setProperty);
+            mapper.skip(Unit::setFloor);
+        });
+        return modelMapper;
+    }
+
+    private static Property property(long id) {
+        Property property = Property.builder()
+                .name("Property " + id)
+                .propertyType(PropertyType.RESIDENTIAL)
+                .address(id + " Samora Machel Ave")
+                .numberOfFloors(1)
+                .numberOfUnits(1)
+                .managedBy(id)
+                .build();
+        property.setId(id);
+        return property;
+    }
+
+    private static Floor floor(long id, Property property) {
+        Floor floor = Floor.builder()
+                .name("Floor " + id)
+                .numberOfUnits(1)
+                .occupiedUnits(1)
+                .vacantUnits(0)
+                .property(property)
+                .build();
+        floor.setId(id);
+        return floor;
+    }
+
+    private static Unit unit(long id, Property property, Floor floor) {
+        Unit unit = Unit.builder()
+                .name("Unit " + id)
+                .size(80.0)
+                .rentType(RentType.PSM)
+                .ratePerSqm(12.5)
+                .monthlyRent(1000.0)
+                .occupancyStatus(OccupancyStatus.OCCUPIED)
+                .tenant("Tenant " + id)
+                .property(property)
+                .floor(floor)
+                .build();
+        unit.setId(id);
+        return unit;
+    }
+}
@@ -0,0 +1,139 @@
+package com.proveritus.propertyservice.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.dto.CursorPage;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.repository.JpaTestConfig;
+import com.proveritus.propertyservice.repository.UnitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("jpa-test")
+class CursorPaginatorTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    private CursorPaginator paginator;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        paginator = new CursorPaginator(entityManager.getEntityManager(), new ObjectMapper());
+        property = entityManager.persist(Property.builder()
+                .name("Harbour View")
+                .propertyType(PropertyType.COMMERCIAL)
+                .address("Harbour Road 1")
+                .build());
+    }
+
+    @Test
+    void pagesFollowEachOtherWithoutGapsOrRepeats() {
+        List<Unit> units = units("C", "A", "B", "E", "D");
+
+        List<Unit> fetched = fetchAll(Sort.by("name"), 2);
+
+        assertEquals(sorted(units, Comparator.comparing(Unit::getName)), ids(fetched));
+    }
+
+    @Test
+    void rowsWithEqualKeysAreOrderedByIdAcrossPageBoundaries() {
+        List<Unit> units = units("B", "A", "B", "B", "A", "B");
+
+        List<Unit> ascending = fetchAll(Sort.by("name"), 2);
+        List<Unit> descending = fetchAll(Sort.by(Sort.Direction.DESC, "name"), 3);
+
+        assertEquals(sorted(units, Comparator.comparing(Unit::getName).thenComparing(Unit::getId)), ids(ascending));
+        assertEquals(sorted(units, Comparator.comparing(Unit::getName).reversed().thenComparing(Unit::getId)),
+                ids(descending));
+    }
+
+    @Test
+    void theSortIsCarriedInTheCursor() {
+        List<Unit> units = units("A", "B", "C");
+
+        CursorPage<Unit> first = fetch("", Sort.by(Sort.Direction.DESC, "name"), 2);
+        CursorPage<Unit> second = fetch(first.getNextCursor(), Sort.unsorted(), 2);
+
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(units.get(0).getId()), ids(second.getContent()));
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void nullableAssociationAndUnknownKeysAreRejected() {
+        units("A");
+
+        for (String property : List.of("tenant", "monthlyRent", "property", "floor", "unknown")) {
+            assertThrows(IllegalArgumentException.class, () -> fetch("", Sort.by(property), 10), property);
+        }
+        assertThrows(IllegalArgumentException.class, () -> fetch("not-a-cursor", Sort.unsorted(), 10));
+        assertThrows(IllegalArgumentException.class, () -> fetch("", Sort.by("name"), 0));
+    }
+
+    private List<Unit> fetchAll(Sort sort, int size) {
+        List<Unit> fetched = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<Unit> page = fetch(cursor, sort, size);
+            assertTrue(page.getContent().size() <= size);
+            fetched.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return fetched;
+    }
+
+    private CursorPage<Unit> fetch(String cursor, Sort sort, int size) {
+        Specification<Unit> ofProperty = (root, query, cb) -> cb.equal(root.get("property").get("id"), property.getId());
+        return paginator.fetch(unitRepository, Unit.class, ofProperty, cursor, size, sort, rows -> rows);
+    }
+
+    private List<Unit> units(String... names) {
+        List<Unit> units = new ArrayList<>();
+        for (String name : names) {
+            units.add(entityManager.persist(Unit.builder()
+                    .name(name)
+                    .property(property)
+                    .occupancyStatus(OccupancyStatus.AVAILABLE)
+                    .build()));
+        }
+        entityManager.flush();
+        return units;
+    }
+
+    private static List<Long> sorted(List<Unit> units, Comparator<Unit> order) {
+        return ids(units.stream().sorted(order).toList());
+    }
+
+    private static List<Long> ids(List<Unit> units) {
+        return units.stream().map(Unit::getId).toList();
+    }
+}
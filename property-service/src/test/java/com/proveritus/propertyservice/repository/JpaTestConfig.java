@@ -0,0 +1,17 @@
+package com.proveritus.propertyservice.repository;
+
+import com.proveritus.propertyservice.entity.Property;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Context of the {@code @DataJpaTest}s, with the service's entities and repositories only. The
+ * application class would also start Feign clients and discovery, which a JPA slice cannot provide.
+ * Used together with the {@code jpa-test} profile.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+@EntityScan(basePackageClasses = Property.class)
+@EnableJpaRepositories(basePackageClasses = PropertyRepository.class)
+public class JpaTestConfig {
+}
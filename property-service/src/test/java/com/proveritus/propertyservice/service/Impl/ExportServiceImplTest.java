@@ -0,0 +1,101 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.ExportFormat;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.repository.JpaTestConfig;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("jpa-test")
+class ExportServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private ExportServiceImpl service;
+    private Property property;
+    private Floor floor;
+
+    @BeforeEach
+    void setUp() {
+        // H2 rejects the negative fetch size used for MySQL
+        service = new ExportServiceImpl(entityManager.getEntityManager(), new ObjectMapper(), 2);
+        property = property("Harbour View", PropertyType.COMMERCIAL);
+        floor = entityManager.persist(Floor.builder().name("Ground").property(property).build());
+    }
+
+    @Test
+    void unitsAreExportedInIdOrderWithTheFiltersApplied() throws IOException {
+        Unit first = unit("A1", floor, OccupancyStatus.OCCUPIED);
+        unit("A2", floor, OccupancyStatus.AVAILABLE);
+        Unit third = unit("A3", null, OccupancyStatus.OCCUPIED);
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = service.exportUnits(property.getId(), null, OccupancyStatus.OCCUPIED, ExportFormat.CSV, out);
+
+        assertEquals(2, exported);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith(first.getId() + ",A1,"), lines.get(1));
+        assertTrue(lines.get(2).startsWith(third.getId() + ",A3,"), lines.get(2));
+    }
+
+    @Test
+    void exportedRowsAreNotKeptInThePersistenceContext() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            unit("B" + i, floor, OccupancyStatus.AVAILABLE);
+        }
+        property("Old Mill", PropertyType.RESIDENTIAL);
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(5, service.exportUnits(null, floor.getId(), null, ExportFormat.NDJSON, out));
+        assertEquals(5, out.toString(StandardCharsets.UTF_8).lines().count());
+        assertEquals(1, service.exportProperties(PropertyType.RESIDENTIAL, ExportFormat.NDJSON, new ByteArrayOutputStream()));
+
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private Property property(String name, PropertyType type) {
+        return entityManager.persist(Property.builder()
+                .name(name)
+                .propertyType(type)
+                .address(name + " Road 1")
+                .build());
+    }
+
+    private Unit unit(String name, Floor floor, OccupancyStatus status) {
+        return entityManager.persist(Unit.builder()
+                .name(name)
+                .property(entityManager.find(Property.class, property.getId()))
+                .floor(floor != null ? entityManager.find(Floor.class, floor.getId()) : null)
+                .occupancyStatus(status)
+                .build());
+    }
+}
@@ -0,0 +1,173 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proveritus.cloudutility.exception.EntityNotFoundException;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.mapper.FloorMapperImpl;
+import com.proveritus.propertyservice.mapper.UnitMapperImpl;
+import com.proveritus.propertyservice.pagination.CursorPaginator;
+import com.proveritus.propertyservice.repository.FloorRepository;
+import com.proveritus.propertyservice.repository.JpaTestConfig;
+import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.repository.PropertyStatsRepository;
+import com.proveritus.propertyservice.repository.UnitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("jpa-test")
+class FloorServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FloorRepository floorRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private PropertyStatsRepository propertyStatsRepository;
+
+    private FloorServiceImpl service;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        service = new FloorServiceImpl(floorRepository, propertyRepository, unitRepository,
+                new FloorMapperImpl(new UnitMapperImpl()),
+                new PropertyStatsServiceImpl(propertyStatsRepository, propertyRepository),
+                new CursorPaginator(entityManager.getEntityManager(), new ObjectMapper()));
+        property = entityManager.persist(Property.builder()
+                .name("Harbour View")
+                .propertyType(PropertyType.COMMERCIAL)
+                .address("Harbour Road 1")
+                .build());
+    }
+
+    @Test
+    void countersFollowEveryUnitChange() {
+        Floor ground = floor("Ground", 0, 0, 0);
+        Floor first = floor("First", 0, 0, 0);
+
+        Unit shop = unit(ground, OccupancyStatus.AVAILABLE);
+        service.applyUnitOccupancyChange(null, null, ground.getId(), OccupancyStatus.AVAILABLE);
+        unit(ground, OccupancyStatus.OCCUPIED);
+        service.applyUnitOccupancyChange(null, null, ground.getId(), OccupancyStatus.OCCUPIED);
+        assertCounters(ground.getId(), 2, 1, 1);
+
+        shop = entityManager.find(Unit.class, shop.getId());
+        shop.setOccupancyStatus(OccupancyStatus.RESERVED);
+        service.applyUnitOccupancyChange(ground.getId(), OccupancyStatus.AVAILABLE,
+                ground.getId(), OccupancyStatus.RESERVED);
+        assertCounters(ground.getId(), 2, 1, 0);
+
+        shop = entityManager.find(Unit.class, shop.getId());
+        shop.setFloor(entityManager.find(Floor.class, first.getId()));
+        shop.setOccupancyStatus(OccupancyStatus.OCCUPIED);
+        service.applyUnitOccupancyChange(ground.getId(), OccupancyStatus.RESERVED,
+                first.getId(), OccupancyStatus.OCCUPIED);
+        assertCounters(ground.getId(), 1, 1, 0);
+        assertCounters(first.getId(), 1, 1, 0);
+
+        entityManager.remove(entityManager.find(Unit.class, shop.getId()));
+        service.applyUnitOccupancyChange(first.getId(), OccupancyStatus.OCCUPIED, null, null);
+        assertCounters(first.getId(), 0, 0, 0);
+
+        // Nothing has drifted from the units
+        assertEquals(0, service.reconcileFloorOccupancyStats());
+    }
+
+    @Test
+    void floorsLoadedBeforeAnAdjustmentAreNotLeftStale() {
+        Floor floor = floor("Ground", 0, 0, 0);
+        entityManager.flush();
+        entityManager.clear();
+        Floor loaded = floorRepository.findById(floor.getId()).orElseThrow();
+        long version = loaded.getVersion();
+
+        // Not flushed yet: the update must flush it before it runs
+        unit(loaded, OccupancyStatus.OCCUPIED);
+        service.applyUnitOccupancyChange(null, null, floor.getId(), OccupancyStatus.OCCUPIED);
+
+        Floor reloaded = floorRepository.findById(floor.getId()).orElseThrow();
+        assertEquals(List.of(1, 1, 0), List.of(reloaded.getNumberOfUnits(), reloaded.getOccupiedUnits(),
+                reloaded.getVacantUnits()));
+        assertEquals(version + 1, reloaded.getVersion());
+        assertEquals(1L, unitRepository.count());
+    }
+
+    @Test
+    void recalculationCountsPendingUnits() {
+        Floor floor = floor("Ground", 0, 0, 0);
+        unit(floor, OccupancyStatus.AVAILABLE);
+        unit(floor, OccupancyStatus.UNDER_MAINTENANCE);
+
+        service.updateFloorOccupancyStats(floor.getId());
+
+        assertCounters(floor.getId(), 2, 0, 1);
+    }
+
+    @Test
+    void reconciliationOnlyCorrectsDriftedFloors() {
+        Floor drifted = floor("Drifted", 5, 3, 2);
+        Floor correct = floor("Correct", 1, 0, 1);
+        unit(correct, OccupancyStatus.AVAILABLE);
+
+        assertEquals(1, service.reconcileFloorOccupancyStats());
+        assertCounters(drifted.getId(), 0, 0, 0);
+        assertCounters(correct.getId(), 1, 0, 1);
+        assertEquals(0, service.reconcileFloorOccupancyStats());
+    }
+
+    @Test
+    void recalculatingAnUnknownFloorFails() {
+        assertThrows(EntityNotFoundException.class, () -> service.updateFloorOccupancyStats(-1L));
+    }
+
+    private Floor floor(String name, int units, int occupied, int vacant) {
+        return entityManager.persist(Floor.builder()
+                .name(name)
+                .property(entityManager.find(Property.class, property.getId()))
+                .numberOfUnits(units)
+                .occupiedUnits(occupied)
+                .vacantUnits(vacant)
+                .build());
+    }
+
+    private Unit unit(Floor floor, OccupancyStatus status) {
+        return entityManager.persist(Unit.builder()
+                .name("Unit " + status)
+                .property(entityManager.find(Property.class, property.getId()))
+                .floor(entityManager.find(Floor.class, floor.getId()))
+                .occupancyStatus(status)
+                .build());
+    }
+
+    private void assertCounters(Long floorId, int units, int occupied, int vacant) {
+        Floor floor = floorRepository.findById(floorId).orElseThrow();
+        assertEquals(List.of(units, occupied, vacant),
+                List.of(floor.getNumberOfUnits(), floor.getOccupiedUnits(), floor.getVacantUnits()));
+    }
+}
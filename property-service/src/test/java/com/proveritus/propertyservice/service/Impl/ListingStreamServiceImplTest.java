@@ -0,0 +1,85 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.propertyservice.dto.UnitSummary;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.repository.ListingReadRepository;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingStreamServiceImplTest {
+
+    private final InMemoryListingRepository repository = new InMemoryListingRepository(5);
+
+    @Test
+    void streamsAllRowsInKeysetBatches() {
+        ListingStreamServiceImpl service = new ListingStreamServiceImpl(repository, 2);
+
+        List<UnitSummary> units = service.streamUnits(1L, null, null, 0, 0).collectList().block();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), units.stream().map(UnitSummary::id).toList());
+        assertEquals(List.of(0L, 2L, 4L), repository.queriedAfter);
+    }
+
+    @Test
+    void stopsAtTheLimitAndContinuesAfterTheGivenId() {
+        ListingStreamServiceImpl service = new ListingStreamServiceImpl(repository, 200);
+
+        List<UnitSummary> units = service.streamUnits(1L, null, null, 1, 3).collectList().block();
+
+        assertEquals(List.of(2L, 3L, 4L), units.stream().map(UnitSummary::id).toList());
+        assertEquals(List.of(1L), repository.queriedAfter);
+    }
+
+    @Test
+    void readsAtMostOneBatchAheadOfTheSubscriber() {
+        ListingStreamServiceImpl service = new ListingStreamServiceImpl(repository, 1);
+        List<UnitSummary> received = new ArrayList<>();
+
+        service.streamUnits(1L, null, null, 0, 0).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(UnitSummary unit) {
+                received.add(unit);
+            }
+        });
+
+        assertEquals(1, received.size());
+        assertTrue(repository.queriedAfter.size() <= 3, "Expected reads to wait for the subscriber: "
+                + repository.queriedAfter);
+    }
+
+    private static final class InMemoryListingRepository extends ListingReadRepository {
+        private final List<UnitSummary> units;
+        private final List<Long> queriedAfter = new ArrayList<>();
+
+        InMemoryListingRepository(int count) {
+            super(null);
+            this.units = LongStream.rangeClosed(1, count)
+                    .mapToObj(id -> new UnitSummary(id, 1L, null, "Unit " + id, 50.0, null, null, null,
+                            OccupancyStatus.AVAILABLE, null, 0L))
+                    .toList();
+        }
+
+        @Override
+        public Flux<UnitSummary> findUnits(Long propertyId, Long floorId, OccupancyStatus occupancyStatus,
+                                           long afterId, int limit) {
+            queriedAfter.add(afterId);
+            return Flux.fromIterable(units)
+                    .filter(unit -> unit.id() > afterId)
+                    .take(limit);
+        }
+    }
+}
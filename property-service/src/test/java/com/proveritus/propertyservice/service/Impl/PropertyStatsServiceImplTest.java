@@ -0,0 +1,204 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.cloudutility.exception.EntityNotFoundException;
+import com.proveritus.propertyservice.dto.PropertyStatsDTO;
+import com.proveritus.propertyservice.entity.Floor;
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.PropertyStats;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.repository.JpaTestConfig;
+import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.repository.PropertyStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("jpa-test")
+class PropertyStatsServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PropertyStatsRepository propertyStatsRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private PropertyStatsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PropertyStatsServiceImpl(propertyStatsRepository, propertyRepository);
+    }
+
+    @Test
+    void countersFollowEveryChangeAndMatchARecount() {
+        Property first = property("First");
+        Property second = property("Second");
+        service.initializePropertyStats(first.getId());
+        service.initializePropertyStats(second.getId());
+
+        Floor floor = entityManager.persist(Floor.builder().name("Ground").property(first).build());
+        service.applyFloorChange(null, first.getId());
+        Unit occupied = unit(first, floor, "A1", OccupancyStatus.OCCUPIED, 1000.0);
+        service.applyUnitChange(null, null, null, first.getId(), OccupancyStatus.OCCUPIED, 1000.0);
+        Unit available = unit(first, floor, "A2", OccupancyStatus.AVAILABLE, 500.0);
+        service.applyUnitChange(null, null, null, first.getId(), OccupancyStatus.AVAILABLE, 500.0);
+
+        // Let, and its rent raised
+        available.setOccupancyStatus(OccupancyStatus.OCCUPIED);
+        available.setMonthlyRent(600.0);
+        service.applyUnitChange(first.getId(), OccupancyStatus.AVAILABLE, 500.0,
+                first.getId(), OccupancyStatus.OCCUPIED, 600.0);
+
+        // Moved to the other property and reserved there
+        occupied.setProperty(second);
+        occupied.setFloor(null);
+        occupied.setOccupancyStatus(OccupancyStatus.RESERVED);
+        service.applyUnitChange(first.getId(), OccupancyStatus.OCCUPIED, 1000.0,
+                second.getId(), OccupancyStatus.RESERVED, 1000.0);
+
+        assertMatchesRecount(first.getId());
+        assertMatchesRecount(second.getId());
+        assertEquals(new PropertyStatsDTO(1, 1, 1, 0, 0, 0, 0, 100, 0, 600, 600),
+                service.getPropertyStats(first.getId()));
+        assertEquals(new PropertyStatsDTO(0, 1, 0, 0, 1, 0, 0, 0, 0, 0, 1000),
+                service.getPropertyStats(second.getId()));
+
+        entityManager.remove(entityManager.find(Unit.class, available.getId()));
+        service.applyUnitChange(first.getId(), OccupancyStatus.OCCUPIED, 600.0, null, null, null);
+        entityManager.remove(entityManager.find(Floor.class, floor.getId()));
+        service.applyFloorChange(first.getId(), null);
+
+        assertMatchesRecount(first.getId());
+        assertEquals(new PropertyStatsDTO(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0),
+                service.getPropertyStats(first.getId()));
+    }
+
+    @Test
+    void missingRowIsComputedWithoutBeingStored() {
+        Property property = property("Legacy");
+        Floor floor = entityManager.persist(Floor.builder().name("Ground").property(property).build());
+        unit(property, floor, "A1", OccupancyStatus.OCCUPIED, 800.0);
+        unit(property, floor, "A2", OccupancyStatus.UNDER_MAINTENANCE, null);
+        entityManager.flush();
+
+        assertEquals(new PropertyStatsDTO(1, 2, 1, 0, 0, 0, 1, 50, 0, 800, 800),
+                service.getPropertyStats(property.getId()));
+        assertTrue(propertyStatsRepository.findById(property.getId()).isEmpty());
+    }
+
+    @Test
+    void changeToAPropertyWithoutARowRebuildsItOnce() {
+        Property property = property("Legacy");
+        unit(property, null, "A1", OccupancyStatus.AVAILABLE, 300.0);
+        entityManager.flush();
+
+        // The rebuild already sees the new unit, so its delta must not be added on top
+        unit(property, null, "A2", OccupancyStatus.OCCUPIED, 700.0);
+        service.applyUnitChange(null, null, null, property.getId(), OccupancyStatus.OCCUPIED, 700.0);
+
+        assertMatchesRecount(property.getId());
+        assertEquals(2, propertyStatsRepository.findById(property.getId()).orElseThrow().getTotalUnits());
+    }
+
+    @Test
+    void rowInsertedAfterTheFailedAdjustmentIsOverwrittenWithTheRecount() {
+        Property property = property("Legacy");
+        unit(property, null, "A1", OccupancyStatus.AVAILABLE, 300.0);
+        unit(property, null, "A2", OccupancyStatus.OCCUPIED, 700.0);
+        entityManager.flush();
+
+        // A concurrent write also found no row and inserted its own before this one rebuilds
+        PropertyStatsServiceImpl racing = new PropertyStatsServiceImpl(
+                insertingBeforeFirstAdjustment(PropertyStats.builder()
+                        .propertyId(property.getId())
+                        .totalUnits(1)
+                        .vacantUnits(1)
+                        .potentialRentalIncome(300.0)
+                        .build()),
+                propertyRepository);
+        racing.applyUnitChange(null, null, null, property.getId(), OccupancyStatus.OCCUPIED, 700.0);
+
+        assertMatchesRecount(property.getId());
+        assertEquals(2, propertyStatsRepository.findById(property.getId()).orElseThrow().getTotalUnits());
+    }
+
+    @Test
+    void statsOfAnUnknownPropertyAreNotFound() {
+        assertThrows(EntityNotFoundException.class, () -> service.getPropertyStats(-1L));
+        assertThrows(EntityNotFoundException.class, () -> service.rebuildPropertyStats(-1L));
+    }
+
+    /**
+     * The real repository, except that the first unit counter adjustment stores {@code concurrentRow} and
+     * reports that no row was updated, as if another transaction inserted it right after the update ran.
+     */
+    private PropertyStatsRepository insertingBeforeFirstAdjustment(PropertyStats concurrentRow) {
+        AtomicBoolean inserted = new AtomicBoolean();
+        return (PropertyStatsRepository) Proxy.newProxyInstance(PropertyStatsRepository.class.getClassLoader(),
+                new Class<?>[]{PropertyStatsRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("adjustUnitCounters") && inserted.compareAndSet(false, true)) {
+                        propertyStatsRepository.saveAndFlush(concurrentRow);
+                        return 0;
+                    }
+                    try {
+                        return method.invoke(propertyStatsRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private Property property(String name) {
+        return entityManager.persist(Property.builder()
+                .name(name)
+                .propertyType(PropertyType.RESIDENTIAL)
+                .address(name + " Street 1")
+                .build());
+    }
+
+    private Unit unit(Property property, Floor floor, String name, OccupancyStatus status, Double monthlyRent) {
+        return entityManager.persist(Unit.builder()
+                .name(name)
+                .property(property)
+                .floor(floor)
+                .occupancyStatus(status)
+                .monthlyRent(monthlyRent)
+                .build());
+    }
+
+    private void assertMatchesRecount(Long propertyId) {
+        entityManager.flush();
+        entityManager.clear();
+        PropertyStats stored = propertyStatsRepository.findById(propertyId).orElseThrow();
+        PropertyStats recount = propertyStatsRepository.computeByPropertyId(propertyId).orElseThrow();
+        assertEquals(figures(recount), figures(stored));
+    }
+
+    private static List<Number> figures(PropertyStats stats) {
+        return List.of(stats.getTotalFloors(), stats.getTotalUnits(), stats.getOccupiedUnits(),
+                stats.getVacantUnits(), stats.getReservedUnits(), stats.getNotAvailableUnits(),
+                stats.getUnderMaintenanceUnits(), stats.getTotalRentalIncome(), stats.getPotentialRentalIncome());
+    }
+}
@@ -0,0 +1,166 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.propertyservice.entity.Property;
+import com.proveritus.propertyservice.entity.Unit;
+import com.proveritus.propertyservice.enums.OccupancyStatus;
+import com.proveritus.propertyservice.enums.PropertyType;
+import com.proveritus.propertyservice.repository.JpaTestConfig;
+import com.proveritus.propertyservice.repository.PropertyRepository;
+import com.proveritus.propertyservice.repository.UnitRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs against an in-memory index. Changes are committed, since the index is only updated on commit.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.search.enabled=true",
+        "spring.jpa.properties.hibernate.search.backend.directory.type=local-heap",
+        "spring.jpa.properties.hibernate.search.indexing.plan.synchronization.strategy=sync"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("jpa-test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SearchIndexServiceImplTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SearchIndexServiceImpl service;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        service = new SearchIndexServiceImpl(entityManager, entityManagerFactory);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transaction.executeWithoutResult(status -> {
+            unitRepository.deleteAll();
+            propertyRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void wholeWordsRankAbovePrefixesAndTypos() {
+        property("Harbourside Lofts");
+        property("Harbour View");
+        property("Old Mill");
+
+        assertEquals(List.of("Harbour View", "Harbourside Lofts"), propertyNames("harbour"));
+        assertEquals(List.of("Harbour View"), propertyNames("harbuor view"));
+        assertEquals(List.of("Old Mill"), propertyNames("mil"));
+        assertEquals(3, inTransaction(() -> service.searchProperties(" ", Pageable.unpaged())).getTotalElements());
+    }
+
+    @Test
+    void updatesAndDeletesReachTheIndexOnCommit() {
+        Property property = property("Harbour View");
+
+        transaction.executeWithoutResult(status -> propertyRepository.findById(property.getId()).orElseThrow()
+                .setName("Quayside House"));
+        assertEquals(List.of(), propertyNames("harbour"));
+        assertEquals(List.of("Quayside House"), propertyNames("quayside"));
+
+        transaction.executeWithoutResult(status -> propertyRepository.deleteById(property.getId()));
+        assertEquals(List.of(), propertyNames("quayside"));
+    }
+
+    @Test
+    void unitsAreFoundByTenantAndPaged() {
+        Property property = property("Harbour View");
+        for (int i = 1; i <= 3; i++) {
+            unit(property, "Unit " + i, "Acme Corp");
+        }
+        unit(property, "Unit 4", "Globex");
+
+        Page<Unit> page = inTransaction(() -> service.searchUnits("acme", PageRequest.of(1, 2)));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals(List.of("Unit 4"), inTransaction(() -> service.searchUnits("globex")).stream()
+                .map(Unit::getName).toList());
+    }
+
+    @Test
+    void rebuildRestoresAPurgedIndex() {
+        property("Harbour View");
+        Search.mapping(entityManagerFactory).scope(Object.class).workspace().purge();
+        assertEquals(List.of(), propertyNames("harbour"));
+
+        service.rebuildIndex();
+
+        assertEquals(List.of("Harbour View"), propertyNames("harbour"));
+    }
+
+    @Test
+    void sortedSearchIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> inTransaction(() ->
+                service.searchProperties("harbour", PageRequest.of(0, 10, Sort.by("name")))));
+    }
+
+    private List<String> propertyNames(String query) {
+        return inTransaction(() -> service.searchProperties(query, PageRequest.of(0, 10))).getContent().stream()
+                .map(Property::getName)
+                .toList();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transaction.execute(status -> work.get());
+    }
+
+    private Property property(String name) {
+        return inTransaction(() -> propertyRepository.save(Property.builder()
+                .name(name)
+                .propertyType(PropertyType.RESIDENTIAL)
+                .address("1 Main Road")
+                .build()));
+    }
+
+    private void unit(Property property, String name, String tenant) {
+        transaction.executeWithoutResult(status -> unitRepository.save(Unit.builder()
+                .name(name)
+                .tenant(tenant)
+                .property(propertyRepository.getReferenceById(property.getId()))
+                .occupancyStatus(OccupancyStatus.OCCUPIED)
+                .build()));
+    }
+}
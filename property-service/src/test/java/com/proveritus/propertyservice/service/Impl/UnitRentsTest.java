@@ -0,0 +1,32 @@
+package com.proveritus.propertyservice.service.Impl;
+
+import com.proveritus.propertyservice.dto.UnitDTO;
+import com.proveritus.propertyservice.enums.RentType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UnitRentsTest {
+
+    @Test
+    void rentPerSquareMetreIsMultipliedBySize() {
+        UnitDTO unit = UnitDTO.builder().rentType(RentType.PSM).ratePerSqm(12.5).size(40.0).monthlyRent(1.0).build();
+
+        UnitRents.calculateMonthlyRent(unit);
+
+        assertEquals(500.0, unit.getMonthlyRent());
+    }
+
+    @Test
+    void otherRentsAreKept() {
+        UnitDTO flat = UnitDTO.builder().rentType(RentType.FLAT).ratePerSqm(12.5).size(40.0).monthlyRent(900.0).build();
+        UnitDTO withoutSize = UnitDTO.builder().rentType(RentType.PSM).ratePerSqm(12.5).build();
+
+        UnitRents.calculateMonthlyRent(flat);
+        UnitRents.calculateMonthlyRent(withoutSize);
+
+        assertEquals(900.0, flat.getMonthlyRent());
+        assertNull(withoutSize.getMonthlyRent());
+    }
+}
@@ -9,10 +9,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 @EnableDiscoveryClient
-@ComponentScan(basePackages = {"com.proveritus.userservice", "com.proveritus.cloudutility.validator", "com.proveritus.cloudutility.security"})
+@EnableAsync
+@ComponentScan(basePackages = {"com.proveritus.userservice", "com.proveritus.cloudutility.validator", "com.proveritus.cloudutility.security", "com.proveritus.cloudutility.jpa", "com.proveritus.cloudutility.aop", "com.proveritus.cloudutility.metrics"})
 @OpenAPIDefinition(info = @Info(title = "User Service", version = "v1"))
 @SecurityScheme(
         name = "bearerAuth",
@@ -0,0 +1,72 @@
+package com.proveritus.userservice.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tells every instance of the subscribed services that a user changed once the change is committed.
+ * Each instance keeps its own near-cache, so the notification goes to all of them rather than to one
+ * load-balanced instance. Delivery is best effort: a missed notification only means the stale entry
+ * lives until its TTL expires.
+ */
+@Slf4j
+@Component
+public class UserChangeNotifier {
+    private static final String TOKEN_HEADER = "X-Internal-Token";
+    private static final String INVALIDATE_PATH = "/api/internal/users/{id}/invalidate";
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient;
+    private final List<String> subscribers;
+    private final String internalApiToken;
+
+    public UserChangeNotifier(DiscoveryClient discoveryClient,
+                              @Value("${user-change-notification.subscribers:property-service}") List<String> subscribers,
+                              @Value("${user-change-notification.timeout:PT2S}") Duration timeout,
+                              @Value("${internal.api-token:}") String internalApiToken) {
+        if (internalApiToken.isBlank()) {
+            throw new IllegalArgumentException("internal.api-token must be set (INTERNAL_API_TOKEN)");
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.discoveryClient = discoveryClient;
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.subscribers = subscribers;
+        this.internalApiToken = internalApiToken;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        for (String serviceId : subscribers) {
+            for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+                notifyInstance(instance, event.userId());
+            }
+        }
+    }
+
+    private void notifyInstance(ServiceInstance instance, Long userId) {
+        try {
+            restClient.post()
+                    .uri(instance.getUri() + INVALIDATE_PATH, userId)
+                    .header(TOKEN_HEADER, internalApiToken)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            log.warn("Unable to notify {} at {} of change to user id: {}",
+                    instance.getServiceId(), instance.getUri(), userId, e);
+        }
+    }
+}
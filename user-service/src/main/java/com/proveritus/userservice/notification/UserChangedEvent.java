@@ -0,0 +1,7 @@
+package com.proveritus.userservice.notification;
+
+/**
+ * Published when a user is updated or deleted, so that services caching user details can drop them.
+ */
+public record UserChangedEvent(Long userId) {
+}
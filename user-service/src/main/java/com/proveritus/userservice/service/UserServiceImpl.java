@@ -6,6 +6,7 @@ import com.proveritus.userservice.DTO.SignUpRequest;
 import com.proveritus.userservice.entity.User;
 import com.proveritus.cloudutility.exception.UserNotFoundException;
 import com.proveritus.userservice.mapper.UserMapper;
+import com.proveritus.userservice.notification.UserChangedEvent;
 import com.proveritus.userservice.repository.UserRepository;
 import com.proveritus.cloudutility.security.CustomPrincipal;
 import com.proveritus.cloudutility.validator.UserValidator;
@@ -13,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -37,6 +39,7 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final UserValidator userValidator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDTO registerUser(SignUpRequest signUpRequest) {
@@ -112,6 +115,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
         userRepository.delete(user);
         log.debug("Deleted User: {}", user);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
 
     @Override
@@ -156,6 +160,7 @@ public class UserServiceImpl implements UserService {
 
         User result = userRepository.save(user);
         log.debug("Updated user : {}", result);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
 
         return userMapper.toDto(result);
     }